@@ -0,0 +1,132 @@
+package com.example.columbus.benchmarks;
+
+import com.example.columbus.EntityManager;
+import com.example.columbus.FastChaseStrategy;
+import com.example.columbus.GameState;
+import com.example.columbus.GameStateManager;
+import com.example.columbus.MovementController;
+import com.example.columbus.ObserverManager;
+import com.example.columbus.PatrolStrategy;
+import com.example.columbus.PirateShip;
+import com.example.columbus.SeaMonster;
+import com.example.columbus.SlowChaseStrategy;
+import com.example.columbus.StateBroadcaster;
+import com.example.columbus.TickEngine;
+import com.example.columbus.WorldView;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Hot paths of the game core on different world sizes and entity counts:
+ * player move, world setup, monster tick and each pirate strategy.
+ * Reports throughput; BenchmarkRunner adds the gc profiler for allocation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameCoreBenchmark {
+
+    @Param({ "20", "1000", "100000" })
+    public int gridSize; // Width and height of world
+
+    @Param({ "0", "100" })
+    public int extraMonsters; // Sea monsters added on top of the usual 6
+
+    private GameStateManager gsm;
+    private EntityManager em;
+    private ObserverManager om;
+    private MovementController controller;
+    private WorldView world;
+    private PirateShip fast;
+    private PirateShip slow;
+    private PirateShip patrol;
+    private final SlowChaseStrategy slowChase = new SlowChaseStrategy();
+    private final FastChaseStrategy fastChase = new FastChaseStrategy();
+    private final PatrolStrategy patrolStrategy = new PatrolStrategy();
+    private boolean right = true; // Player alternates right and left
+
+    @Setup
+    public void setup() {
+        gsm = new GameStateManager(gridSize, gridSize);
+        em = new EntityManager(gsm);
+        gsm.setEntityManager(em);
+        om = new ObserverManager();
+        em.initializeEntities(om);
+        addExtraMonsters();
+        // Tasks stay paused: benchmarks drive movement themselves
+        controller = new MovementController(gsm, em, TickEngine.getShared(), new StateBroadcaster(gsm, em));
+        world = gsm.getWorldView();
+        fast = em.getPirates().get(0);
+        slow = em.getPirates().get(1);
+        patrol = em.getPatrolPirate();
+    }
+
+    private void addExtraMonsters() {
+        for (int i = 0; i < extraMonsters; i++) {
+            SeaMonster m = new SeaMonster();
+            m.setStateManager(gsm);
+            em.place(m);
+            em.getMonsters().add(m);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        controller.shutdown();
+    }
+
+    // Player move, including pirates chasing through observers
+    @Benchmark
+    public GameState handleMove() {
+        right = !right;
+        return gsm.handleMove(right ? "right" : "left", em, om);
+    }
+
+    // New world: reset, then place pirates, monsters and islands
+    @Benchmark
+    public int initializeEntities() {
+        gsm.reset();
+        em.clearOccupied();
+        em.initializeEntities(new ObserverManager());
+        addExtraMonsters();
+        return em.getMonsters().size();
+    }
+
+    // One monster tick: every sea monster tries to move once
+    @Benchmark
+    public boolean moveMonsters() {
+        return controller.moveMonsters();
+    }
+
+    @Benchmark
+    public int[] slowChaseMove() {
+        slowChase.move(slow, world);
+        return slow.getPosition();
+    }
+
+    @Benchmark
+    public int[] fastChaseMove() {
+        fastChase.move(fast, world);
+        return fast.getPosition();
+    }
+
+    @Benchmark
+    public int[] patrolMove() {
+        patrolStrategy.move(patrol, world);
+        return patrol.getPosition();
+    }
+}
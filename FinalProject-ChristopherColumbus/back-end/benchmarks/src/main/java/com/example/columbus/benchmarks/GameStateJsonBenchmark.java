@@ -0,0 +1,65 @@
+package com.example.columbus.benchmarks;
+
+import com.example.columbus.EntityManager;
+import com.example.columbus.GameState;
+import com.example.columbus.GameStateManager;
+import com.example.columbus.JsonBuffer;
+import com.example.columbus.ObserverManager;
+import com.google.gson.Gson;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the old reflective Gson serialization of GameState with the
+ * hand-written JsonBuffer writer. Run with -prof gc to see bytes allocated per call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameStateJsonBenchmark {
+
+    private GameState state;
+    private JsonBuffer buffer;
+
+    @Setup
+    public void setup() {
+        GameStateManager gsm = new GameStateManager();
+        EntityManager em = new EntityManager(gsm);
+        gsm.setEntityManager(em);
+        em.initializeEntities(new ObserverManager());
+        state = gsm.getState();
+        buffer = new JsonBuffer();
+    }
+
+    // Previous GameState.toJson(): new Gson per call, reflection over every field
+    @Benchmark
+    public String gsonReflection() {
+        return new Gson().toJson(state);
+    }
+
+    // Hand-written writer, converted to a String (as SSE and tests use it)
+    @Benchmark
+    public String writerToString() {
+        return state.toJson();
+    }
+
+    // Hand-written writer into a reused buffer (as HTTP responses use it)
+    @Benchmark
+    public int writerReusedBuffer() {
+        buffer.reset();
+        state.writeJson(buffer);
+        return buffer.size();
+    }
+}
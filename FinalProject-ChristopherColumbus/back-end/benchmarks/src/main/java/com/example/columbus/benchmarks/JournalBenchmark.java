@@ -0,0 +1,85 @@
+package com.example.columbus.benchmarks;
+
+import com.example.columbus.EventJournal;
+import com.example.columbus.Game;
+import com.example.columbus.GameState;
+import com.example.columbus.TickEngine;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Player moves with and without the event journal, several games
+ * (one per thread) sharing one journal, as sessions do on the server.
+ * The difference is what journaling adds to a move.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class JournalBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Journal {
+        @Param({ "false", "true" })
+        public boolean journaled;
+
+        Path dir;
+        EventJournal journal;
+
+        @Setup
+        public void setup() throws Exception {
+            dir = Files.createTempDirectory("journal-bench");
+            journal = journaled ? new EventJournal(dir, 4) : null;
+        }
+
+        @TearDown
+        public void tearDown() throws Exception {
+            if (journal != null)
+                journal.close();
+            for (int i = 0; i < 4; i++) {
+                Files.deleteIfExists(EventJournal.segmentFile(dir, i));
+            }
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Player {
+        Game game;
+        boolean right = true;
+
+        @Setup
+        public void setup(Journal journal) {
+            game = new Game(20, 20, 1, TickEngine.manual()); // Nothing ticks: only moves are measured
+            if (journal.journal != null)
+                game.setJournal(journal.journal, "bench-" + Thread.currentThread().getId());
+        }
+
+        @TearDown
+        public void tearDown() {
+            game.shutdown();
+        }
+    }
+
+    @Benchmark
+    public GameState move(Player player) {
+        player.right = !player.right;
+        return player.game.move(player.right ? "right" : "left");
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.columbus.benchmarks;
+
+import com.example.columbus.EntityManager;
+import com.example.columbus.GameStateManager;
+import com.example.columbus.MovementController;
+import com.example.columbus.ObserverManager;
+import com.example.columbus.StateBroadcaster;
+import com.example.columbus.TickEngine;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One monster tick (every sea monster tries to move once) on a default game.
+ * Run with -prof gc to see how much each tick allocates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MonsterTickBenchmark {
+
+    private MovementController controller;
+
+    @Setup
+    public void setup() {
+        GameStateManager gsm = new GameStateManager();
+        EntityManager em = new EntityManager(gsm);
+        gsm.setEntityManager(em);
+        em.initializeEntities(new ObserverManager());
+        // Tasks stay paused: benchmark drives the tick itself
+        controller = new MovementController(gsm, em, TickEngine.getShared(), new StateBroadcaster(gsm, em));
+    }
+
+    @TearDown
+    public void tearDown() {
+        controller.shutdown();
+    }
+
+    @Benchmark
+    public boolean monsterTick() {
+        return controller.moveMonsters();
+    }
+}
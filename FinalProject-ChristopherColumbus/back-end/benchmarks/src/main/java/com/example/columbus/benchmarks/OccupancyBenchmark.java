@@ -0,0 +1,91 @@
+package com.example.columbus.benchmarks;
+
+import com.example.columbus.EntityManager;
+import com.example.columbus.GameStateManager;
+import com.example.columbus.ObserverManager;
+import com.example.columbus.OccupancyGrid;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Occupancy lookups over every cell of the 20x20 grid: the old
+ * HashSet of "r,c" strings against the layered bitset in GameStateManager.
+ * Run with -prof gc to see allocation per full-grid scan.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OccupancyBenchmark {
+
+    private static final int SIZE = 20;
+
+    private GameStateManager gsm;
+    private Set<String> legacy; // Same cells, stored the old way
+    private int[][] cells; // Preallocated positions, as strategies already hold them
+
+    @Setup
+    public void setup() {
+        gsm = new GameStateManager();
+        EntityManager em = new EntityManager(gsm);
+        gsm.setEntityManager(em);
+        em.initializeEntities(new ObserverManager());
+
+        legacy = new HashSet<>();
+        cells = new int[SIZE * SIZE][];
+        OccupancyGrid grid = gsm.getOccupancy();
+        for (int r = 0; r < SIZE; r++) {
+            for (int c = 0; c < SIZE; c++) {
+                cells[r * SIZE + c] = new int[] { r, c };
+                if (grid.isOccupied(r, c)) {
+                    legacy.add(r + "," + c);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public int legacyStringSet() {
+        int count = 0;
+        for (int[] cell : cells) {
+            if (legacy.contains(cell[0] + "," + cell[1]))
+                count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int bitsetByPosition() {
+        int count = 0;
+        for (int[] cell : cells) {
+            if (gsm.isOccupied(cell))
+                count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int bitsetByRowCol() {
+        int count = 0;
+        for (int r = 0; r < SIZE; r++) {
+            for (int c = 0; c < SIZE; c++) {
+                if (gsm.isOccupied(r, c))
+                    count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.columbus.benchmarks;
+
+import com.example.columbus.Entity;
+import com.example.columbus.SeaMonster;
+import com.example.columbus.SpatialIndex;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * "Is there a monster on this cell" as entity counts grow: the old
+ * stream().anyMatch scan over the monster list against SpatialIndex.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SpatialLookupBenchmark {
+
+    private static final int SIZE = 200; // Big enough that thousands of monsters mostly sit alone
+
+    @Param({ "10", "1000", "10000" })
+    public int monsters;
+
+    private List<Entity> list;
+    private SpatialIndex index;
+    private int[] probe; // Empty cell, so the scan has to look at every monster
+
+    @Setup
+    public void setup() {
+        Random r = new Random(42);
+        list = new ArrayList<>();
+        index = new SpatialIndex(SIZE, SIZE);
+        for (int i = 0; i < monsters; i++) {
+            SeaMonster m = new SeaMonster();
+            m.setPosition(new int[] { 1 + r.nextInt(SIZE - 1), r.nextInt(SIZE) });
+            list.add(m);
+            index.add(m);
+        }
+        probe = new int[] { 0, 0 }; // Row 0 is kept empty
+    }
+
+    @Benchmark
+    public boolean legacyStreamScan() {
+        return list.stream().anyMatch(m -> Arrays.equals(m.getPosition(), probe));
+    }
+
+    @Benchmark
+    public boolean indexLookup() {
+        return index.hasMonster(probe[0], probe[1]);
+    }
+}
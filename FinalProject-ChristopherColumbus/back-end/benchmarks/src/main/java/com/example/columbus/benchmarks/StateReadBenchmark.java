@@ -0,0 +1,70 @@
+package com.example.columbus.benchmarks;
+
+import com.example.columbus.EntityManager;
+import com.example.columbus.GameStateManager;
+import com.example.columbus.JsonBuffer;
+import com.example.columbus.ObserverManager;
+import com.example.columbus.StateBroadcaster;
+import com.example.columbus.StateSnapshot;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of answering GET /api/state with 4 concurrent readers: building and
+ * serializing a GameState per request against sending the published snapshot.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class StateReadBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class World {
+        GameStateManager gsm;
+        StateBroadcaster broadcaster;
+
+        @Setup
+        public void setup() {
+            gsm = new GameStateManager();
+            EntityManager em = new EntityManager(gsm);
+            gsm.setEntityManager(em);
+            em.initializeEntities(new ObserverManager());
+            broadcaster = new StateBroadcaster(gsm, em);
+            broadcaster.publish();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Buffer {
+        JsonBuffer json = new JsonBuffer();
+    }
+
+    // Previous /api/state: new GameState from live objects, serialized per request
+    @Benchmark
+    public int rebuildPerRequest(World world, Buffer buffer) {
+        buffer.json.reset();
+        world.gsm.getState().writeJson(buffer.json);
+        return buffer.json.size();
+    }
+
+    // Published snapshot: one volatile read, bytes shared by every reader
+    @Benchmark
+    public InputStream publishedSnapshot(World world) {
+        StateSnapshot snapshot = world.broadcaster.getSnapshot();
+        return snapshot.toInputStream();
+    }
+}
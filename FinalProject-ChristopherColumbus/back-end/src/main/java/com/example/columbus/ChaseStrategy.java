@@ -13,46 +13,55 @@ public class ChaseStrategy implements MovementStrategy {
      * Move pirate ship one step closer to columbus ship, avoiding occupied cells
      */
     @Override
-    public void move(PirateShip ship) {
-
-        Game game = Game.getInstance();
-        GameStateManager gameState = game.getGameStateManager();
+    public void move(PirateShip ship, WorldView world) {
         // EntityManager entityManager = game.getEntityManager();
 
-        int[] ccPosition = gameState.getCcPosition(); // Get CC current position
+        int[] ccPosition = world.getCcPosition(); // Get CC current position
 
         // Get pirate current position
         int[] position = ship.getPosition();
+
+        // Follow shortest way around islands, stopping next to CC
+        int dir = world.directionTowardColumbus(position[0], position[1]);
+        if (dir >= 0) {
+            int row = position[0] + DistanceField.STEP_ROWS[dir];
+            int col = position[1] + DistanceField.STEP_COLS[dir];
+            if (row != ccPosition[0] || col != ccPosition[1]) {
+                ship.setPosition(new int[] { row, col });
+                return;
+            }
+        }
+
         int[] newPosition = position.clone();
 
         // Prioritize vertical movement first
         if (position[0] < ccPosition[0]) {
-            newPosition[0] = Math.min(position[0] + 1, 19); // Move down
+            newPosition[0] = Math.min(position[0] + 1, world.getHeight() - 1); // Move down
         } else if (position[0] > ccPosition[0]) {
             newPosition[0] = Math.max(position[0] - 1, 0); // Move up
         }
 
         // If on same row, move horizontally towards CC
         else if (position[1] < ccPosition[1]) {
-            newPosition[1] = Math.min(position[1] + 1, 19); // Move right
+            newPosition[1] = Math.min(position[1] + 1, world.getWidth() - 1); // Move right
         } else if (position[1] > ccPosition[1]) {
             newPosition[1] = Math.max(position[1] - 1, 0); // Move left
         }
 
         // if (entityManager.isOccupied(newPosition) ||
-        if (gameState.isOccupied(newPosition) ||
+        if (world.isOccupied(newPosition) ||
                 Arrays.equals(newPosition, new int[] { 0, 0 }) ||
                 Arrays.equals(newPosition, ccPosition)) {
 
             List<int[]> alternatives = Arrays.asList(
-                    new int[] { position[0], Math.min(position[1] + 1, 19) },
+                    new int[] { position[0], Math.min(position[1] + 1, world.getWidth() - 1) },
                     new int[] { position[0], Math.max(position[1] - 1, 0) },
-                    new int[] { Math.min(position[0] + 1, 19), position[1] },
+                    new int[] { Math.min(position[0] + 1, world.getHeight() - 1), position[1] },
                     new int[] { Math.max(position[0] - 1, 0), position[1] });
 
             for (int[] alt : alternatives) {
                 // if (!entityManager.isOccupied(alt) &&
-                if (!gameState.isOccupied(alt) &&
+                if (!world.isOccupied(alt) &&
                         !(alt[0] == 0 && alt[1] == 0) &&
                         !(alt[0] == ccPosition[0] && alt[1] == ccPosition[1])) {
                     newPosition = alt;
@@ -0,0 +1,131 @@
+package com.example.columbus;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Hash table from chunk number to chunk storage, used by the grids so that
+ * big worlds only pay for chunks that actually hold something.
+ * Open addressing with long keys: lookups allocate nothing (no boxed keys).
+ * Not thread-safe, like the rest of a game's state.
+ */
+public class ChunkTable<T> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys = new long[MIN_CAPACITY]; // Chunk number + 1, 0 marks an empty slot
+    private Object[] values = new Object[MIN_CAPACITY];
+    private int size = 0;
+
+    // Chunk stored under given number, or null
+    @SuppressWarnings("unchecked")
+    public T get(long chunk) {
+        long key = chunk + 1;
+        int mask = keys.length - 1;
+        for (int slot = slotOf(key, mask); keys[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key)
+                return (T) values[slot];
+        }
+        return null;
+    }
+
+    public void put(long chunk, T value) {
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2); // Keep at most half full so probes stay short
+        }
+        long key = chunk + 1;
+        int mask = keys.length - 1;
+        int slot = slotOf(key, mask);
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == 0)
+            size++;
+        values[slot] = value;
+        keys[slot] = key;
+    }
+
+    /*
+     * Removes chunk. Later entries of the same probe run are shifted back
+     * into the gap, so lookups never need tombstones.
+     */
+    public void remove(long chunk) {
+        long key = chunk + 1;
+        int mask = keys.length - 1;
+        int gap = slotOf(key, mask);
+        while (keys[gap] != key) {
+            if (keys[gap] == 0)
+                return; // Not there
+            gap = (gap + 1) & mask;
+        }
+        for (int slot = (gap + 1) & mask; keys[slot] != 0; slot = (slot + 1) & mask) {
+            int home = slotOf(keys[slot], mask);
+            // Move entry back if its home slot is not between gap and its current slot
+            boolean canMove = gap <= slot ? (home <= gap || home > slot) : (home <= gap && home > slot);
+            if (canMove) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                gap = slot;
+            }
+        }
+        keys[gap] = 0;
+        values[gap] = null;
+        size--;
+    }
+
+    // Drops every chunk
+    public void clear() {
+        keys = new long[MIN_CAPACITY];
+        values = new Object[MIN_CAPACITY];
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Visits every chunk, in no particular order
+    public interface Visitor<T> {
+        void visit(long chunk, T value);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(Visitor<T> visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0)
+                visitor.visit(keys[i] - 1, (T) values[i]);
+        }
+    }
+
+    // Table with same chunk numbers, each value copied with given function
+    @SuppressWarnings("unchecked")
+    public ChunkTable<T> copy(UnaryOperator<T> copier) {
+        ChunkTable<T> c = new ChunkTable<>();
+        c.keys = keys.clone();
+        c.values = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            if (keys[i] != 0)
+                c.values[i] = copier.apply((T) values[i]);
+        }
+        c.size = size;
+        return c;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[capacity];
+        values = new Object[capacity];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0)
+                put(oldKeys[i] - 1, (T) oldValues[i]);
+        }
+    }
+
+    // Fibonacci hashing, spreads neighbouring chunk numbers over the table
+    private static int slotOf(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -3,6 +3,9 @@ package com.example.columbus;
 // Import NanoHTTPD server library and other unilities
 import fi.iki.elonen.NanoHTTPD;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Map;
 
 /**
@@ -10,29 +13,70 @@ import java.util.Map;
  * game.
  * It handles HTTP requests for starting the game, moving ships, and getting
  * game state.
+ * Games are journaled to the directory named by system property
+ * columbus.journal.dir ("journal" by default, empty to turn journaling off).
+ * Sessions are saved on shutdown to the file named by columbus.snapshot.file
+ * ("sessions.snapshot" by default, empty to turn it off) and resumed from it on start.
+ * Sessions without any /api call for columbus.session.idle.seconds (600 by default,
+ * 0 for never) are hibernated, and at most columbus.session.max.resident
+ * (10000 by default) stay live in memory; see GameRegistry.
+ * Each connection is served on a virtual thread when the JDK has them, unless
+ * columbus.http.virtual is false; see ConnectionRunner.
  */
 public class ColumbusGameServer extends NanoHTTPD {
-    private Game game; // Singleton instance of game logic
+    private static final int JOURNAL_SHARDS = 4; // Segment files (and writer threads) of event journal
+
+    private final EventJournal journal = openJournal(); // May be null: journaling off
+    private final GameRegistry registry = new GameRegistry(journal, // One game per session
+            Long.getLong("columbus.session.idle.seconds", 600) * 1000,
+            Integer.getInteger("columbus.session.max.resident", 10000));
+    private final Path snapshotFile = snapshotFile(); // May be null: sessions are not saved
+    private final ConnectionRunner connections = new ConnectionRunner(
+            Boolean.parseBoolean(System.getProperty("columbus.http.virtual", "true"))); // Thread per connection
 
     // Constructor to initialize server on given port and start it
     public ColumbusGameServer(int port) throws IOException {
 
         super(port); // Calling NanoHTTPD constructor within specified port
 
-        game = Game.getInstance(); // Get singleton instance of game
-
+        resumeSessions();
+        MapPool.getShared().prepare(GameStateManager.DEFAULT_GRID_SIZE, GameStateManager.DEFAULT_GRID_SIZE); // World of /api/start, /api/reset
+        setAsyncRunner(connections);
         start(SOCKET_READ_TIMEOUT, false); // Start HTTP server
-        System.out.println("Server started on port " + port);
+        System.out.println("Server started on port " + port
+                + (connections.isVirtual() ? " (virtual threads)" : " (platform threads)"));
     }
 
-    // Handle incoming HTTP requests
+    /*
+     * Handle incoming HTTP requests. A session hibernated between lookup and
+     * change refuses the change (GameSuspendedException) with nothing changed;
+     * the request then runs again on the game resumed through the registry.
+     */
     @Override
     public Response serve(IHTTPSession session) {
+        while (true) {
+            try {
+                return route(session);
+            } catch (GameSuspendedException e) {
+                // Look session up again
+            }
+        }
+    }
+
+    private Response route(IHTTPSession session) {
         String uri = session.getUri(); // Get requested uri
         Method method = session.getMethod(); // Get HTTP method (GET, POST etc)
         Map<String, String> params = session.getParms(); // Get query ot POST parameters
 
         Response response; // Will hold HTTP response
+        Game game = null; // Game of the session making this request
+
+        // A sized or seeded start makes its own game; looking one up first would build a throwaway
+        boolean newGame = uri.equals("/api/start") && method == Method.POST
+                && (params.get("width") != null || params.get("height") != null || params.get("seed") != null);
+        if (method != Method.OPTIONS && uri.startsWith("/api/") && !newGame) {
+            game = registry.getOrCreate(getSessionId(session, params));
+        }
 
         // Handle preflight (CORS) requests
         if (method == Method.OPTIONS) {
@@ -40,10 +84,26 @@ public class ColumbusGameServer extends NanoHTTPD {
         }
 
         // Handle POST /api/start: start the game
+        // Optional width/height/seed params start a new game with that world size and seed
+        // Response tells the seed, so the game can be reproduced later
         else if (uri.equals("/api/start") && method == Method.POST) {
-            game.start(); // Start the game
-
-            response = newFixedLengthResponse(Response.Status.OK, "application/json", "{\"status\":\"Game started\"}");
+            String width = params.get("width");
+            String height = params.get("height");
+            String seed = params.get("seed");
+            if (!newGame) {
+                game.start(); // Start the game
+                response = startedResponse(game);
+            } else {
+                try {
+                    Game started = seed == null
+                            ? registry.create(getSessionId(session, params), parseSize(width), parseSize(height))
+                            : registry.create(getSessionId(session, params), parseSize(width), parseSize(height),
+                                    parseSeed(seed));
+                    response = startedResponse(started);
+                } catch (IllegalArgumentException e) {
+                    response = newFixedLengthResponse(Response.Status.BAD_REQUEST, "text/plain", e.getMessage());
+                }
+            }
         }
 
         // Handle POST /api/reset: fully restart the game
@@ -57,13 +117,29 @@ public class ColumbusGameServer extends NanoHTTPD {
         else if (uri.equals("/api/move") && method == Method.POST) {
             String direction = params.get("direction");
             GameState result = game.move(direction); // Move player and get new state
-            response = newFixedLengthResponse(Response.Status.OK, "application/json", result.toJson());
+            response = jsonResponse(result);
         }
 
         // Handle GET /api/state: GET request to retrieve current game state as JSON
+        // (latest published snapshot, shared by all readers, no locking)
+        // With ?since=<version>, returns only what changed after that version
         else if (uri.equals("/api/state") && method == Method.GET) {
-            GameState state = game.getState();
-            response = newFixedLengthResponse(Response.Status.OK, "application/json", state.toJson());
+            String since = params.get("since");
+            if (since != null) {
+                JsonBuffer json = JsonBuffer.acquire();
+                game.writeStateSince(parseVersion(since), json);
+                response = jsonResponse(json);
+            } else {
+                StateSnapshot snapshot = game.getSnapshot();
+                response = newFixedLengthResponse(Response.Status.OK, "application/json",
+                        snapshot.toInputStream(), snapshot.size());
+            }
+        }
+
+        // Handle GET /api/stream: push game state to client (Server-Sent Events) whenever it changes
+        else if (uri.equals("/api/stream") && method == Method.GET) {
+            response = newChunkedResponse(Response.Status.OK, "text/event-stream", new StateEventStream(game));
+            response.addHeader("Cache-Control", "no-cache");
         }
 
         // Handle POST /api/pause: pause monster movement
@@ -90,7 +166,7 @@ public class ColumbusGameServer extends NanoHTTPD {
 
         // Handle POST /api/toggleStrategy: Toggle pirate chase strategies
         else if (uri.equals("/api/toggleStrategy") && method == Method.POST) {
-            game.togglePirateStrategies(); // or Game.getInstance().togglePirateStrategies();
+            game.togglePirateStrategies();
             response = newFixedLengthResponse(Response.Status.OK, "application/json",
                     "{\"status\":\"Strategies toggled\"}");
         }
@@ -117,15 +193,141 @@ public class ColumbusGameServer extends NanoHTTPD {
         // Add CORS headers for cross-origin access by front-end
         response.addHeader("Access-Control-Allow-Origin", "*");
         response.addHeader("Access-Control-Allow-Methods", "GET, POST, OPTIONS");
-        response.addHeader("Access-Control-Allow-Headers", "Content-Type, Authorization");
+        response.addHeader("Access-Control-Allow-Headers", "Content-Type, Authorization, X-Session-Id");
 
         return response;
     }
 
+    // Event streams must not be gzipped, or events would sit in the compressor buffer
+    @Override
+    protected boolean useGzipWhenAccepted(Response response) {
+        return !"text/event-stream".equals(response.getMimeType()) && super.useGzipWhenAccepted(response);
+    }
+
+    /*
+     * Session id comes from X-Session-Id header or sessionId query param.
+     * Clients that send neither share the default session.
+     */
+    private String getSessionId(IHTTPSession session, Map<String, String> params) {
+        String id = session.getHeaders().get("x-session-id"); // NanoHTTPD lower-cases header names
+        if (id == null || id.isEmpty()) {
+            id = params.get("sessionId");
+        }
+        return (id == null || id.isEmpty()) ? GameRegistry.DEFAULT_SESSION : id;
+    }
+
+    // Serializes state into a pooled buffer and sends it as response body
+    private Response jsonResponse(GameState state) {
+        JsonBuffer json = JsonBuffer.acquire();
+        state.writeJson(json);
+        return jsonResponse(json);
+    }
+
+    // Buffer goes back to pool when NanoHTTPD closes response after sending it
+    private Response jsonResponse(JsonBuffer json) {
+        return newFixedLengthResponse(Response.Status.OK, "application/json", json.toInputStream(), json.size());
+    }
+
+    // Parses client's state version; anything invalid asks for a full snapshot
+    private long parseVersion(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // Parses requested world size; a missing size means default size
+    private int parseSize(String value) {
+        if (value == null) {
+            return GameStateManager.DEFAULT_GRID_SIZE;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid world size: " + value);
+        }
+    }
+
+    // Parses requested random seed
+    private long parseSeed(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid seed: " + value);
+        }
+    }
+
+    private Response startedResponse(Game game) {
+        return newFixedLengthResponse(Response.Status.OK, "application/json",
+                "{\"status\":\"Game started\",\"seed\":" + game.getSeed() + "}");
+    }
+
+    // Opens event journal, or returns null if it is turned off or cannot be opened
+    private static EventJournal openJournal() {
+        String dir = System.getProperty("columbus.journal.dir", "journal");
+        if (dir.isEmpty())
+            return null;
+        try {
+            return new EventJournal(Paths.get(dir), JOURNAL_SHARDS);
+        } catch (IOException e) {
+            System.err.println("Event journal disabled: " + e);
+            return null;
+        }
+    }
+
+    // Saved sessions file, or null if saving is turned off
+    private static Path snapshotFile() {
+        String file = System.getProperty("columbus.snapshot.file", "sessions.snapshot");
+        return file.isEmpty() ? null : Paths.get(file);
+    }
+
+    // Resumes sessions saved by last shutdown; server starts without them if file cannot be read
+    private void resumeSessions() {
+        if (snapshotFile == null || !Files.exists(snapshotFile))
+            return;
+        try {
+            long start = System.nanoTime();
+            int count = registry.loadSnapshot(snapshotFile); // Each resumes when its client comes back
+            System.out.println("Loaded " + count + " saved sessions in " + (System.nanoTime() - start) / 1000000
+                    + " ms");
+        } catch (IOException e) {
+            System.err.println("Saved sessions not resumed: " + e);
+        }
+    }
+
+    /*
+     * Stops serving, saves every session and writes out the journal.
+     * Runs from a shutdown hook, so a stopped server resumes its games on next start.
+     */
+    public void shutdown() {
+        stop();
+        try {
+            if (snapshotFile != null)
+                registry.saveSnapshot(snapshotFile);
+        } catch (IOException e) {
+            System.err.println("Sessions not saved: " + e);
+        }
+        try {
+            if (journal != null)
+                journal.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("Journal not fully written: " + e);
+        }
+    }
+
+    // Returns registry holding all game sessions
+    public GameRegistry getRegistry() {
+        return registry;
+    }
+
     // Main method to start server on port 8080
     public static void main(String[] args) {
         try {
-            new ColumbusGameServer(8080); // Start server
+            ColumbusGameServer server = new ColumbusGameServer(8080); // Start server
+            Runtime.getRuntime().addShutdownHook(new Thread(server::shutdown, "server-shutdown"));
         } catch (IOException e) {
             e.printStackTrace(); // Print stack trace if server fails to start
         }
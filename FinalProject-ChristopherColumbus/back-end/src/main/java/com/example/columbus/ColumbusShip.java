@@ -12,4 +12,6 @@ public interface ColumbusShip {
     boolean isInvisible(); // Check if CC ship is currently invisible
 
     void decrementCloak(); // Decrease turns left for CC's invisibility cloak power
+
+    ColumbusShip copy(); // Independent ship in same state (for replay checkpoints)
 }
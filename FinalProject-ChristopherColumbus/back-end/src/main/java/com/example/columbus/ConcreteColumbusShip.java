@@ -24,6 +24,13 @@ public class ConcreteColumbusShip implements ColumbusShip {
         return false; // Default: ship is visible
     }
 
+    @Override
+    public ColumbusShip copy() {
+        ConcreteColumbusShip c = new ConcreteColumbusShip();
+        c.position = position.clone();
+        return c;
+    }
+
     // Decrements incisible cloak counter.
     @Override
     public void decrementCloak() {
@@ -0,0 +1,101 @@
+package com.example.columbus;
+
+import fi.iki.elonen.NanoHTTPD;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs each HTTP connection of ColumbusGameServer on its own thread, like
+ * NanoHTTPD's default runner, but on a virtual thread when the JDK has them
+ * (Java 21+): a waiting keep-alive or /api/stream client then costs a small heap
+ * object instead of an OS thread, so tens of thousands can stay connected.
+ * Older JDKs get daemon platform threads. Virtual threads are found through
+ * reflection, since the build still targets Java 8.
+ * Live connections are tracked in a concurrent set (no lock on connect/close).
+ */
+public class ConnectionRunner implements NanoHTTPD.AsyncRunner {
+
+    private static final Object VIRTUAL_BUILDER = virtualBuilder(); // Thread.Builder.OfVirtual, or null
+    private static final Method UNSTARTED = unstartedMethod(); // Thread.Builder.unstarted(Runnable), or null
+
+    private final boolean virtual; // Connections run on virtual threads
+    private final Set<NanoHTTPD.ClientHandler> running = Collections
+            .newSetFromMap(new ConcurrentHashMap<NanoHTTPD.ClientHandler, Boolean>());
+    private final AtomicLong requestCount = new AtomicLong(); // Connections so far, names threads
+
+    // Runner using virtual threads if asked for and available, platform threads otherwise
+    public ConnectionRunner(boolean preferVirtual) {
+        this.virtual = preferVirtual && isVirtualAvailable();
+    }
+
+    // True if this JDK can start virtual threads
+    public static boolean isVirtualAvailable() {
+        return UNSTARTED != null;
+    }
+
+    // True if connections run on virtual threads
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    // Connections being served right now
+    public int getConnectionCount() {
+        return running.size();
+    }
+
+    @Override
+    public void exec(NanoHTTPD.ClientHandler handler) {
+        running.add(handler);
+        newThread(handler, "NanoHttpd Request Processor (#" + requestCount.incrementAndGet() + ")").start();
+    }
+
+    @Override
+    public void closed(NanoHTTPD.ClientHandler handler) {
+        running.remove(handler);
+    }
+
+    @Override
+    public void closeAll() {
+        for (NanoHTTPD.ClientHandler handler : running) {
+            handler.close(); // Removes itself through closed()
+        }
+    }
+
+    // Unstarted thread running task, virtual or not as this runner was set up
+    Thread newThread(Runnable task, String name) {
+        if (virtual) {
+            try {
+                Thread t = (Thread) UNSTARTED.invoke(VIRTUAL_BUILDER, task);
+                t.setName(name);
+                return t;
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot create virtual thread", e);
+            }
+        }
+        Thread t = new Thread(task, name);
+        t.setDaemon(true);
+        return t;
+    }
+
+    // Thread.ofVirtual(), or null before Java 21
+    private static Object virtualBuilder() {
+        try {
+            return Thread.class.getMethod("ofVirtual").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Method unstartedMethod() {
+        if (VIRTUAL_BUILDER == null)
+            return null;
+        try {
+            return Class.forName("java.lang.Thread$Builder").getMethod("unstarted", Runnable.class);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.columbus;
+
+import java.util.Arrays;
+
+/**
+ * Steps from every cell near CC to CC, going around islands: a breadth-first search
+ * from CC's cell, done once after CC moves and then shared by every chasing pirate,
+ * so a pirate's next step is a lookup of its neighbours.
+ * Only islands (which stay put for a whole world) and CC's start cell, where pirates
+ * never go, are walls; ships and monsters move, so chasers check those when stepping.
+ * Covers a window of MAX_RADIUS cells around CC in each direction (the whole grid
+ * of a default game); cells outside it are unknown and their pirates fall back
+ * to greedy moves.
+ */
+public class DistanceField {
+
+    public static final int UNKNOWN = -1; // Outside window, or no way to CC
+    static final int MAX_RADIUS = 64;
+    // Row and column change of each step direction: up, down, left, right
+    static final int[] STEP_ROWS = { -1, 1, 0, 0 };
+    static final int[] STEP_COLS = { 0, 0, -1, 1 };
+
+    private final int width;
+    private final int height;
+    private final int[] distance; // Window cells, row-major
+    private final int[] queue; // BFS queue of window cells
+    private int top; // Window's first row and column on grid
+    private int left;
+    private int rows; // Window size (smaller near grid edges)
+    private int cols;
+
+    // What current distances were computed for
+    private int ccRow = -1;
+    private int ccCol = -1;
+    private SpatialIndex islands;
+    private long islandVersion;
+
+    public DistanceField(int width, int height) {
+        this.width = width;
+        this.height = height;
+        int cells = Math.min(height, 2 * MAX_RADIUS + 1) * Math.min(width, 2 * MAX_RADIUS + 1);
+        this.distance = new int[cells];
+        this.queue = new int[cells];
+    }
+
+    /*
+     * Steps from (row, col) to CC at ccPosition around islands of given index,
+     * or UNKNOWN; searches again only if CC moved or islands changed since last call
+     */
+    public int distance(int row, int col, int[] ccPosition, SpatialIndex index) {
+        if (ccPosition[0] != ccRow || ccPosition[1] != ccCol || index != islands
+                || index.getIslandVersion() != islandVersion) {
+            search(ccPosition[0], ccPosition[1], index);
+        }
+        int r = row - top;
+        int c = col - left;
+        if (r < 0 || r >= rows || c < 0 || c >= cols)
+            return UNKNOWN;
+        return distance[r * cols + c];
+    }
+
+    private void search(int fromRow, int fromCol, SpatialIndex index) {
+        ccRow = fromRow;
+        ccCol = fromCol;
+        islands = index;
+        islandVersion = index.getIslandVersion();
+        top = Math.max(0, fromRow - MAX_RADIUS);
+        left = Math.max(0, fromCol - MAX_RADIUS);
+        rows = Math.min(height - 1, fromRow + MAX_RADIUS) - top + 1;
+        cols = Math.min(width - 1, fromCol + MAX_RADIUS) - left + 1;
+        Arrays.fill(distance, 0, rows * cols, UNKNOWN);
+
+        int head = 0;
+        int tail = 0;
+        int start = (fromRow - top) * cols + (fromCol - left);
+        distance[start] = 0;
+        queue[tail++] = start;
+        while (head < tail) {
+            int cell = queue[head++];
+            int r = cell / cols;
+            int c = cell % cols;
+            int next = distance[cell] + 1;
+            if (r > 0)
+                tail = visit(cell - cols, r - 1, c, next, index, tail);
+            if (r < rows - 1)
+                tail = visit(cell + cols, r + 1, c, next, index, tail);
+            if (c > 0)
+                tail = visit(cell - 1, r, c - 1, next, index, tail);
+            if (c < cols - 1)
+                tail = visit(cell + 1, r, c + 1, next, index, tail);
+        }
+    }
+
+    // Queues window cell (r, c) at given distance unless reached already or a wall
+    private int visit(int cell, int r, int c, int d, SpatialIndex index, int tail) {
+        if (distance[cell] != UNKNOWN)
+            return tail;
+        int row = top + r;
+        int col = left + c;
+        if ((row == 0 && col == 0) || index.isIsland(row, col))
+            return tail;
+        distance[cell] = d;
+        queue[tail] = cell;
+        return tail + 1;
+    }
+}
@@ -4,7 +4,9 @@ package com.example.columbus;
  * Interface representing movable entities (Christopher ship, pirate ships, monsters)
  */
 public interface Entity {
-    public void move(); // Method for movement logic
+    public void move(); // Method for movement logic, looks up its own game's world
+
+    public void move(WorldView world); // Movement logic against given read-only world view
 
     public int[] getPosition(); // Method to get current position of entity
 
@@ -39,6 +39,18 @@ public class EntityGroup implements Entity {
         }
     }
 
+    @Override
+    public void move(WorldView world) {
+        if (ignoreTurns > 0) {
+            ignoreTurns--;
+            return;
+        }
+
+        for (Entity entity : entities) {
+            entity.move(world);
+        }
+    }
+
     public void activateIgnoreMode(int turns) {
         for (Entity entity : entities) {
             entity.activateIgnoreMode(turns);
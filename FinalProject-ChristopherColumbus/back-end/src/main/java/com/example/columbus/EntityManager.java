@@ -8,15 +8,22 @@ import java.util.*;
  */
 public class EntityManager {
 
-    // List of individual game entities
-    private List<PirateShip> pirates = new ArrayList<>();
-    private List<Entity> monsters = new ArrayList<>();
-    private List<int[]> islands = new ArrayList<>();
+    private SpatialIndex index; // Which entity/island is on each cell
+
+    // List of individual game entities (only changed through add/remove methods below, which update spatial index)
+    private final List<PirateShip> pirates = new ArrayList<>();
+    private final List<Entity> monsters = new ArrayList<>();
+    private final List<int[]> islands = new ArrayList<>();
 
     // Group containers for composite behaviors
     private EntityGroup monsterGroup = new EntityGroup();
     private EntityGroup pirateGroup = new EntityGroup(); // Composite group for fast & slow pirates
 
+    // Views handed out by getters
+    private final List<PirateShip> pirateView = new EntityView<>(pirates);
+    private final List<Entity> monsterView = new EntityView<>(monsters);
+    private final List<int[]> islandView = new IslandView();
+
     private GameStateManager stateManager; // For managing occupied positions and game state
     private String currentStrategy = "slow"; // Track current chase strategy mode
     private PatrolPirateShip patrolPirate;
@@ -24,6 +31,7 @@ public class EntityManager {
     // Constructor to initialize EntityManager
     public EntityManager(GameStateManager gsm) {
         this.stateManager = gsm;
+        this.index = new SpatialIndex(gsm.getWidth(), gsm.getHeight());
     }
 
     /**
@@ -35,17 +43,18 @@ public class EntityManager {
         int[] ccStart = new int[] { 0, 0 };
 
         // Clear previous entities and groups
-        pirates.clear();
-        monsters.clear();
-        islands.clear();
+        clearEntities();
         monsterGroup = new EntityGroup();
         pirateGroup = new EntityGroup();
 
-        Random r = new Random();
+        GameRandom r = stateManager.getRandom();
+        FreeCells free = FreeCells.of(stateManager); // O(1) picks however full grid is
 
         // Create pirate ships with opposite strategies depending on currentStrategy
         PirateShip fast = PirateShipFactory.createPirateShip("fast");
         PirateShip slow = PirateShipFactory.createPirateShip("slow");
+        fast.setStateManager(stateManager);
+        slow.setStateManager(stateManager);
         if ("fast".equals(currentStrategy)) {
             fast.setStrategy(new SlowChaseStrategy());
             slow.setStrategy(new FastChaseStrategy());
@@ -55,74 +64,134 @@ public class EntityManager {
         }
 
         // Place pirates atleat 3 cells away from CC start position
-        place(fast, ccStart, 3);
-        place(slow, ccStart, 3);
+        place(fast, free, ccStart, 3);
+        place(slow, free, ccStart, 3);
 
         // Add to composite group and observers
         pirateGroup.addEntity(fast);
         pirateGroup.addEntity(slow);
-        pirates.add(fast);
-        pirates.add(slow);
+        addPirate(fast);
+        addPirate(slow);
         om.addObserver(fast);
         om.addObserver(slow);
 
          // Initialize patrol pirate with PatrolStrategy
         patrolPirate = (PatrolPirateShip) PirateShipFactory.createPirateShip("patrol");
         patrolPirate.setStrategy(new PatrolStrategy());
-        place(patrolPirate, new int[]{0, 0}, 3);
-        pirates.add(patrolPirate);
+        patrolPirate.setStateManager(stateManager);
+        place(patrolPirate, free, new int[]{0, 0}, 3);
+        addPirate(patrolPirate);
 
         // Add sea monsters 3 cells away from CC start position
         for (int i = 0; i < 6; i++) {
             SeaMonster m = new SeaMonster();
-            place(m, ccStart, 3);
+            m.setStateManager(stateManager);
+            place(m, free, ccStart, 3);
             monsterGroup.addEntity(m);
-            monsters.add(m);
+            addMonster(m);
         }
 
         // Randomly place islands on grid such that they don't overlap with other entities
         for (int i = 0; i < 20; i++) {
-            int[] pos;
-            do {
-                pos = new int[] { r.nextInt(20), r.nextInt(20) };
-            } 
-            while ( stateManager.isOccupied(pos) || distance(pos, ccStart) < 3 );
-            islands.add(pos);
-            stateManager.addOccupied(pos);
+            int[] pos = free.takeRandom(r, ccStart, 3);
+            addIsland(pos);
+            stateManager.addOccupied(pos, OccupancyGrid.ISLAND);
         }
     }
 
     // Places entity at a random unoccupied position.
     public void place(Entity e) {
-        Random r = new Random();
-        int[] pos;
-        do {
-            pos = new int[] { r.nextInt(20), r.nextInt(20) };
-        } while (stateManager.isOccupied(pos));
+        int[] pos = FreeCells.of(stateManager).takeRandom(stateManager.getRandom());
         e.setPosition(pos);
-        stateManager.addOccupied(pos);
-    }
-
-    // Helper method for placing entities on grid
-    private void place(Entity e, int[] avoidPos, int minDistance) {
-        Random r = new Random();
-        int[] pos;
-        do {
-            pos = new int[] { r.nextInt(20), r.nextInt(20) };
-        } while (
-            stateManager.isOccupied(pos) ||
-            (avoidPos != null && distance(pos, avoidPos) < minDistance)
-        );
+        stateManager.addOccupied(pos, layerOf(e));
+    }
+
+    // Helper method for placing entities on grid, picking from free (which is kept up to date)
+    private void place(Entity e, FreeCells free, int[] avoidPos, int minDistance) {
+        GameRandom r = stateManager.getRandom();
+        int[] pos = avoidPos != null ? free.takeRandom(r, avoidPos, minDistance) : free.takeRandom(r);
         e.setPosition(pos);
-        stateManager.addOccupied(pos);
+        stateManager.addOccupied(pos, layerOf(e));
     }
-    
-    /**
-     * Calculate Chebyshev distance between two positions.
+
+    // Occupancy layer an entity is recorded in
+    private int layerOf(Entity e) {
+        return e instanceof PirateShip ? OccupancyGrid.PIRATE : OccupancyGrid.MONSTER;
+    }
+
+    /*
+     * Independent copy of every entity, bound to gsm (a copy of this manager's game).
+     * Observers in om that are this manager's pirates are registered in omCopy,
+     * in the same order, as their copies.
      */
-    private int distance(int[] a, int[] b) {
-        return Math.max(Math.abs(a[0] - b[0]), Math.abs(a[1] - b[1]));
-    }    
+    public EntityManager copy(GameStateManager gsm, ObserverManager om, ObserverManager omCopy) {
+        EntityManager c = new EntityManager(gsm);
+        Map<Object, Entity> copies = new IdentityHashMap<>();
+        for (PirateShip p : pirates) {
+            PirateShip pc = p.copy();
+            pc.setStateManager(gsm);
+            copies.put(p, pc);
+            c.addPirate(pc);
+        }
+        for (Entity m : monsters) {
+            SeaMonster mc = ((SeaMonster) m).copy();
+            mc.setStateManager(gsm);
+            copies.put(m, mc);
+            c.addMonster(mc);
+        }
+        for (int[] island : islands) {
+            c.addIsland(island.clone());
+        }
+        for (Entity e : monsterGroup.getEntities()) {
+            if (copies.containsKey(e))
+                c.monsterGroup.addEntity(copies.get(e));
+        }
+        for (Entity e : pirateGroup.getEntities()) {
+            if (copies.containsKey(e))
+                c.pirateGroup.addEntity(copies.get(e));
+        }
+        c.patrolPirate = (PatrolPirateShip) copies.get(patrolPirate);
+        c.currentStrategy = currentStrategy;
+        // Pirates of earlier worlds may still be registered; they change nothing, so they are left out
+        for (Observer o : om.getObservers()) {
+            if (copies.containsKey(o))
+                omCopy.addObserver((Observer) copies.get(o));
+        }
+        return c;
+    }
+
+    /*
+     * Puts back entities of a saved game (see SnapshotStore), in place of current ones.
+     * Entities must already be at their positions; chasing pirates go in the
+     * pirate group and observe CC in om, the patrol pirate patrols.
+     */
+    void restore(List<PirateShip> savedPirates, List<SeaMonster> savedMonsters, List<int[]> savedIslands,
+            String strategy, ObserverManager om) {
+        clearEntities();
+        monsterGroup = new EntityGroup();
+        pirateGroup = new EntityGroup();
+        patrolPirate = null;
+
+        for (PirateShip p : savedPirates) {
+            p.setStateManager(stateManager);
+            addPirate(p);
+            if (p instanceof PatrolPirateShip) {
+                patrolPirate = (PatrolPirateShip) p;
+            } else {
+                pirateGroup.addEntity(p);
+                om.addObserver(p);
+            }
+        }
+        for (SeaMonster m : savedMonsters) {
+            m.setStateManager(stateManager);
+            monsterGroup.addEntity(m);
+            addMonster(m);
+        }
+        for (int[] island : savedIslands) {
+            addIsland(island);
+        }
+        currentStrategy = strategy;
+    }
 
     // Toggles fast/slow pirates strategies
     public void toggleStrategies() {
@@ -153,17 +222,80 @@ public class EntityManager {
         pirateGroup.activateIgnoreMode(5); // Ignore CC for 5 turns 
     }
 
-    // Utility methotd to check if an entity is at a given position  
+    // Adds pirate at its current position
+    public void addPirate(PirateShip p) {
+        index.add(p);
+        pirates.add(p);
+    }
+
+    // Adds sea monster at its current position
+    public void addMonster(Entity m) {
+        index.add(m);
+        monsters.add(m);
+    }
+
+    public void addIsland(int[] pos) {
+        index.addIsland(pos);
+        islands.add(pos);
+    }
+
+    // Removes pirate or monster (and its spatial index entry); false if it is not in this manager
+    public boolean removeEntity(Entity e) {
+        boolean removed = pirates.remove(e) || monsters.remove(e);
+        if (removed)
+            unindex(e);
+        return removed;
+    }
+
+    // Removes island at given index of island list
+    public int[] removeIsland(int i) {
+        int[] pos = islands.remove(i);
+        reindexIslands(); // Index keeps no per-island entries, so islands left are indexed again
+        return pos;
+    }
+
+    // Removes every pirate, monster and island
+    public void clearEntities() {
+        pirates.clear();
+        monsters.clear();
+        islands.clear();
+        index.clear();
+    }
+
+    private void unindex(Entity e) {
+        int[] pos = e.getPosition();
+        index.remove(e, pos[0], pos[1]);
+    }
+
+    private void reindexIslands() {
+        index.clearIslands();
+        for (int[] pos : islands)
+            index.addIsland(pos);
+    }
+
+    /*
+     * Called (through GameStateManager) whenever a pirate or monster changes position,
+     * so the spatial index follows entities in this manager's lists
+     */
+    public void entityMoved(Entity e, int fromRow, int fromCol) {
+        index.move(e, fromRow, fromCol);
+    }
+
+    // Utility methotd to check if an entity is at a given position (cell lookups, no list scans)
     public boolean isIsland(int[] pos) {
-        return islands.stream().anyMatch(p -> Arrays.equals(p, pos));
+        return index.isIsland(pos[0], pos[1]);
+    }
+
+    public boolean isIsland(int row, int col) {
+        return index.isIsland(row, col);
     }
 
     public boolean isMonster(int[] pos) {
-        return monsters.stream().anyMatch(m -> Arrays.equals(m.getPosition(), pos));
+        return index.hasMonster(pos[0], pos[1]);
     }
 
     public boolean isPirate(int[] pos) {
-        return pirates.stream().anyMatch(p -> Arrays.equals(p.getPosition(), pos));
+        return index.hasPirate(pos[0], pos[1]);
     }
 
     public boolean isOccupied(int[] pos) {
@@ -175,16 +307,21 @@ public class EntityManager {
         return patrolPirate;
     }
 
+    // Lists below are live views: changing them goes through add/remove methods above
     public List<PirateShip> getPirates() {
-        return pirates;
+        return pirateView;
     }
 
     public List<Entity> getMonsters() {
-        return monsters;
+        return monsterView;
     }
 
     public List<int[]> getIslands() {
-        return islands;
+        return islandView;
+    }
+
+    public SpatialIndex getSpatialIndex() {
+        return index;
     }
 
     public String getCurrentStrategy() {
@@ -194,4 +331,91 @@ public class EntityManager {
     public EntityGroup getPirateGroup() {
         return pirateGroup;
     }
+
+    /*
+     * Live view of an entity list. Every change to a list (addAll, removeIf,
+     * iterator and subList changes included) comes down to add/set/remove below,
+     * which keep spatial index in step; entities are indexed at their position
+     * when added, moves after that come in through entityMoved.
+     */
+    private class EntityView<E extends Entity> extends AbstractList<E> {
+        private final List<E> list;
+
+        EntityView(List<E> list) {
+            this.list = list;
+        }
+
+        @Override
+        public E get(int i) {
+            return list.get(i);
+        }
+
+        @Override
+        public int size() {
+            return list.size();
+        }
+
+        @Override
+        public void add(int i, E e) {
+            index.add(e);
+            list.add(i, e);
+            modCount++;
+        }
+
+        @Override
+        public E set(int i, E e) {
+            index.add(e);
+            E old = list.set(i, e);
+            unindex(old);
+            return old;
+        }
+
+        @Override
+        public E remove(int i) {
+            E e = list.remove(i);
+            unindex(e);
+            modCount++;
+            return e;
+        }
+    }
+
+    // Live view of island list, keeping island cells of spatial index in step
+    private class IslandView extends AbstractList<int[]> {
+        @Override
+        public int[] get(int i) {
+            return islands.get(i);
+        }
+
+        @Override
+        public int size() {
+            return islands.size();
+        }
+
+        @Override
+        public void add(int i, int[] pos) {
+            index.addIsland(pos);
+            islands.add(i, pos);
+            modCount++;
+        }
+
+        @Override
+        public int[] set(int i, int[] pos) {
+            int[] old = islands.set(i, pos);
+            reindexIslands();
+            return old;
+        }
+
+        @Override
+        public int[] remove(int i) {
+            modCount++;
+            return removeIsland(i);
+        }
+
+        @Override
+        public void clear() {
+            islands.clear();
+            index.clearIslands();
+            modCount++;
+        }
+    }
 }
@@ -0,0 +1,431 @@
+package com.example.columbus;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary journal of everything that happens to games: starts,
+ * player moves, strategy toggles, cloaks, collision changes and tick outcomes.
+ *
+ * Games are spread over shards by game id; each shard appends to its own
+ * segment file (shard-N.journal) from its own writer thread. Appending only
+ * encodes the record and queues it, so callers never wait for the disk.
+ * The writer drains whatever queued up while it was busy, writes it in one go
+ * and fsyncs once for the whole batch (group commit).
+ *
+ * Record layout (big-endian): int body length, body, int CRC32 of body.
+ * Body: byte type, long game id, long time millis, then type's payload.
+ * A torn record at the end of a segment (crash while writing) is ignored on read.
+ */
+public class EventJournal {
+
+    // Record types
+    public static final byte START = 1; // width, height, seed, session id
+    public static final byte MOVE = 2; // direction, resulting collision
+    public static final byte TOGGLE = 3;
+    public static final byte CLOAK = 4;
+    public static final byte TICK = 5; // tick kind, changed, collision after tick
+    public static final byte COLLISION = 6; // collision status set by client
+    public static final byte RESTART = 7; // world seed of new layout
+    public static final byte END = 8; // Session discarded
+
+    private static final String[] DIRECTIONS = { "up", "down", "left", "right" };
+    private static final String[] COLLISIONS = { null, "island", "monster", "pirate", "treasure" };
+
+    private static final int QUEUE_CAPACITY = 65536; // Records waiting per shard before appends block
+    private static final int BATCH_BYTES = 256 * 1024; // Most bytes written per batch
+    static final int MAX_BODY_BYTES = BATCH_BYTES - 8; // Largest record body (must fit in batch buffer)
+
+    private final Shard[] shards;
+
+    /*
+     * Opens (or creates) journal in given directory with given number of shards.
+     * Existing segments are appended to.
+     */
+    public EventJournal(Path dir, int shardCount) throws IOException {
+        Files.createDirectories(dir);
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(segmentFile(dir, i), i);
+        }
+    }
+
+    // Segment file of given shard
+    public static Path segmentFile(Path dir, int shard) {
+        return dir.resolve("shard-" + shard + ".journal");
+    }
+
+    // Id for a new game's records
+    public long newGameId() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    public void start(long gameId, int width, int height, long seed, String sessionId) {
+        byte[] session = sessionId.getBytes(StandardCharsets.UTF_8);
+        if (session.length > 0xFFFF)
+            throw new IllegalArgumentException("Session id too long for journal: " + session.length + " bytes");
+        ByteBuffer body = body(START, gameId, 4 + 4 + 8 + 2 + session.length);
+        body.putInt(width).putInt(height).putLong(seed);
+        body.putShort((short) session.length).put(session);
+        append(gameId, body);
+    }
+
+    public void move(long gameId, String direction, String collision) {
+        ByteBuffer body = body(MOVE, gameId, 2);
+        body.put(code(DIRECTIONS, direction)).put(code(COLLISIONS, collision));
+        append(gameId, body);
+    }
+
+    // Monster or patrol tick (MovementController.MONSTER_TICK / PATROL_TICK)
+    public void tick(long gameId, int kind, boolean changed, String collision) {
+        ByteBuffer body = body(TICK, gameId, 3);
+        body.put((byte) kind).put((byte) (changed ? 1 : 0)).put(code(COLLISIONS, collision));
+        append(gameId, body);
+    }
+
+    public void collision(long gameId, String collision) {
+        ByteBuffer body = body(COLLISION, gameId, 1);
+        body.put(code(COLLISIONS, collision));
+        append(gameId, body);
+    }
+
+    // New world, generated from given world seed (see WorldLayout)
+    public void restart(long gameId, long worldSeed) {
+        ByteBuffer body = body(RESTART, gameId, 8);
+        body.putLong(worldSeed);
+        append(gameId, body);
+    }
+
+    // Record without payload: TOGGLE, CLOAK or END
+    public void event(long gameId, byte type) {
+        append(gameId, body(type, gameId, 0));
+    }
+
+    /*
+     * Blocks until every record appended before this call is on disk.
+     * Throws IOException if some of them could not be written (they are lost;
+     * later records are still written).
+     */
+    public void flush() throws InterruptedException, IOException {
+        long lost = 0;
+        Exception cause = null;
+        for (Shard shard : shards) {
+            long failedBefore = shard.failed();
+            long failedAfter = shard.awaitDone(shard.appended());
+            if (failedAfter > failedBefore) {
+                lost += failedAfter - failedBefore;
+                cause = shard.lastError();
+            }
+        }
+        if (lost > 0)
+            throw new IOException(lost + " journal records could not be written", cause);
+    }
+
+    // Records lost to write errors since journal was opened
+    public long getFailedCount() {
+        long failed = 0;
+        for (Shard shard : shards) {
+            failed += shard.failed();
+        }
+        return failed;
+    }
+
+    // Writes out what is queued, then stops writers and closes segments
+    public void close() throws InterruptedException, IOException {
+        try {
+            flush();
+        } finally {
+            for (Shard shard : shards) {
+                shard.close();
+            }
+        }
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /*
+     * Reads every complete record of a segment file in order, through a buffer
+     * of one batch (the largest record fits), so segments of any size can be read.
+     * Stops quietly at a torn or corrupt tail; returns number of records read.
+     */
+    public static int read(Path segment, Consumer<JournalRecord> out) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            ByteBuffer data = ByteBuffer.allocate(BATCH_BYTES);
+            data.flip(); // Nothing read yet
+            CRC32 crc = new CRC32();
+            int count = 0;
+            while (fill(channel, data, 4)) {
+                int length = data.getInt(data.position());
+                if (length < 17 || length > MAX_BODY_BYTES || !fill(channel, data, 4 + length + 4))
+                    break; // Torn record (or a length no writer could have written)
+                int start = data.position() + 4;
+                crc.reset();
+                crc.update(data.array(), start, length);
+                if ((int) crc.getValue() != data.getInt(start + length))
+                    break; // Corrupt record, nothing after it can be trusted
+                data.position(start);
+                out.accept(decode(data));
+                data.position(start + length + 4);
+                count++;
+            }
+            return count;
+        }
+    }
+
+    // Reads on until data holds at least n unread bytes; false if segment ends first
+    private static boolean fill(FileChannel channel, ByteBuffer data, int n) throws IOException {
+        if (data.remaining() >= n)
+            return true;
+        data.compact();
+        try {
+            while (data.position() < n) {
+                if (channel.read(data) < 0)
+                    return false;
+            }
+            return true;
+        } finally {
+            data.flip();
+        }
+    }
+
+    // Reads records of every shard segment in given directory, shard by shard
+    public static List<JournalRecord> readAll(Path dir) throws IOException {
+        List<JournalRecord> records = new ArrayList<>();
+        for (int shard = 0; Files.exists(segmentFile(dir, shard)); shard++) {
+            read(segmentFile(dir, shard), records::add);
+        }
+        return records;
+    }
+
+    private static JournalRecord decode(ByteBuffer body) throws IOException {
+        try {
+            byte type = body.get();
+            long gameId = body.getLong();
+            long time = body.getLong();
+            JournalRecord record = new JournalRecord(type, gameId, time);
+            switch (type) {
+                case START:
+                    int width = body.getInt();
+                    int height = body.getInt();
+                    long seed = body.getLong();
+                    byte[] session = new byte[body.getShort() & 0xFFFF];
+                    body.get(session);
+                    record.setStart(width, height, seed, new String(session, StandardCharsets.UTF_8));
+                    break;
+                case MOVE:
+                    record.setMove(name(DIRECTIONS, body.get()), name(COLLISIONS, body.get()));
+                    break;
+                case TICK:
+                    record.setTick(body.get(), body.get() != 0, name(COLLISIONS, body.get()));
+                    break;
+                case COLLISION:
+                    record.setCollision(name(COLLISIONS, body.get()));
+                    break;
+                case RESTART:
+                    record.setRestart(body.getLong());
+                    break;
+            }
+            return record;
+        } catch (RuntimeException e) {
+            throw new EOFException("Malformed journal record: " + e);
+        }
+    }
+
+    // New record body with header filled in
+    private static ByteBuffer body(byte type, long gameId, int payloadSize) {
+        ByteBuffer body = ByteBuffer.allocate(1 + 8 + 8 + payloadSize);
+        body.put(type).putLong(gameId).putLong(System.currentTimeMillis());
+        return body;
+    }
+
+    // Rejects records too big for writer's batch buffer here, on caller's thread
+    private void append(long gameId, ByteBuffer body) {
+        if (body.capacity() > MAX_BODY_BYTES)
+            throw new IllegalArgumentException("Journal record of " + body.capacity() + " bytes is over "
+                    + MAX_BODY_BYTES);
+        shards[(int) ((gameId & Long.MAX_VALUE) % shards.length)].append(body.array());
+    }
+
+    // Index of value in names; unknown values are written as -1
+    private static byte code(String[] names, String value) {
+        for (int i = 0; i < names.length; i++) {
+            if (value == null ? names[i] == null : value.equals(names[i]))
+                return (byte) i;
+        }
+        return -1;
+    }
+
+    private static String name(String[] names, byte code) {
+        return code >= 0 && code < names.length ? names[code] : "unknown";
+    }
+
+    // One segment file with its queue and group-commit writer thread
+    private static class Shard implements Runnable {
+        private final FileChannel channel;
+        private final BlockingQueue<byte[]> queue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+        private final ByteBuffer batch = ByteBuffer.allocateDirect(BATCH_BYTES);
+        private final CRC32 crc = new CRC32(); // Writer thread only
+        private final Thread writer;
+        private final Object appendLock = new Object(); // Orders appends; never taken by writer
+        private long appended = 0; // Records queued so far (guarded by appendLock)
+        private long durable = 0; // Records written and fsynced so far (guarded by this)
+        private long failed = 0; // Records lost to write errors so far (guarded by this)
+        private Exception lastError; // Cause of latest lost batch (guarded by this)
+        private volatile boolean closed = false;
+
+        private Shard(Path file, int index) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            writer = new Thread(this, "journal-shard-" + index);
+            writer.setDaemon(true);
+            writer.start();
+        }
+
+        private void append(byte[] body) {
+            // Queue order must match append order, so count and enqueue under one lock.
+            // A full queue blocks here (disk cannot keep up: slow appenders down instead
+            // of growing forever); the writer drains it without this lock.
+            synchronized (appendLock) {
+                try {
+                    queue.put(body);
+                    appended++;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    System.err.println("Journal record dropped: appending thread interrupted");
+                }
+            }
+        }
+
+        private long appended() {
+            synchronized (appendLock) {
+                return appended;
+            }
+        }
+
+        /*
+         * Waits until records up to target are written or lost; returns how many
+         * have been lost so far (compare before and after to see if any of them were)
+         */
+        private synchronized long awaitDone(long target) throws InterruptedException {
+            while (durable + failed < target && !closed) {
+                wait();
+            }
+            return failed;
+        }
+
+        private synchronized long failed() {
+            return failed;
+        }
+
+        private synchronized Exception lastError() {
+            return lastError;
+        }
+
+        @Override
+        public void run() {
+            List<byte[]> drained = new ArrayList<>();
+            while (!closed || !queue.isEmpty()) {
+                try {
+                    drained.add(queue.take()); // Sleep until there is something to write
+                } catch (InterruptedException e) {
+                    return;
+                }
+                queue.drainTo(drained); // Everything that queued up meanwhile joins this batch
+                int records = count(drained);
+                Exception error = null;
+                try {
+                    writeBatch(drained);
+                } catch (IOException | RuntimeException e) {
+                    error = e; // Keep games and this writer running; this batch is lost
+                    e.printStackTrace();
+                }
+                synchronized (this) {
+                    if (error == null) {
+                        durable += records;
+                    } else {
+                        failed += records;
+                        lastError = error;
+                    }
+                    notifyAll();
+                }
+                drained.clear();
+            }
+        }
+
+        // Writes records and fsyncs once; on failure, cuts off whatever part of batch reached the file
+        private void writeBatch(List<byte[]> records) throws IOException {
+            long start = channel.size();
+            try {
+                batch.clear();
+                for (byte[] body : records) {
+                    if (body.length == 0)
+                        continue; // Wake-up marker from close()
+                    if (batch.remaining() < body.length + 8) {
+                        flip(batch);
+                    }
+                    crc.reset();
+                    crc.update(body, 0, body.length);
+                    batch.putInt(body.length).put(body).putInt((int) crc.getValue());
+                }
+                flip(batch);
+                channel.force(false);
+            } catch (IOException | RuntimeException e) {
+                batch.clear();
+                try {
+                    channel.truncate(start); // A torn record would hide every later record from readers
+                } catch (IOException truncateError) {
+                    e.addSuppressed(truncateError);
+                }
+                throw e;
+            }
+        }
+
+        private static int count(List<byte[]> records) {
+            int n = 0;
+            for (byte[] body : records) {
+                if (body.length > 0)
+                    n++;
+            }
+            return n;
+        }
+
+        // Writes out buffer and makes it ready for more
+        private void flip(ByteBuffer buffer) throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        // Writer finishes what is queued, then stops (no interrupt: that would close the channel)
+        private void close() throws InterruptedException {
+            closed = true;
+            queue.put(new byte[0]); // Wake writer if it is waiting for records
+            writer.join();
+            synchronized (this) {
+                notifyAll();
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
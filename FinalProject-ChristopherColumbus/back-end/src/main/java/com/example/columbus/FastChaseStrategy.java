@@ -12,17 +12,29 @@ package com.example.columbus;
      * avoiding islands
      */
     @Override
-    public void move(PirateShip pirate) {
+    public void move(PirateShip pirate, WorldView world) {
 
-        if (Game.getInstance().getColumbus().isInvisible()) {
+        if (world.isColumbusInvisible()) {
             return; // Don't chase if Columbus is invisible
         }
 
-        Game game = Game.getInstance();
-        GameStateManager gsm = game.getGameStateManager();
-
-        int[] ccPosition = Game.getInstance().getColumbus().getPosition(); // CC's current position
+        int[] ccPosition = world.getCcPosition(); // CC's current position
         int[] position = pirate.getPosition(); // Get position from pirate
+
+        // Two steps along shortest way around islands when distance field reaches pirate
+        int dir = world.directionTowardColumbus(position[0], position[1]);
+        if (dir >= 0) {
+            int row = position[0] + DistanceField.STEP_ROWS[dir];
+            int col = position[1] + DistanceField.STEP_COLS[dir];
+            dir = world.directionTowardColumbus(row, col); // -1 once on CC
+            if (dir >= 0) {
+                row += DistanceField.STEP_ROWS[dir];
+                col += DistanceField.STEP_COLS[dir];
+            }
+            pirate.setPosition(new int[] { row, col });
+            return;
+        }
+
         int[] newPosition = position.clone(); // Copy current position for manipulation
 
         // Determine movement direction based on CC's position
@@ -30,13 +42,13 @@ package com.example.columbus;
             newPosition[0] = Math.max(position[0] - 2, 0); // Move up by 2 cells, not above grid
 
             // Check if blocked by obstacle or trying to move to (0,0)
-            if (gsm.isOccupied(newPosition) || (newPosition[0] == 0 && newPosition[1] == 0)) {
+            if (world.isOccupied(newPosition) || (newPosition[0] == 0 && newPosition[1] == 0)) {
                 
                 // If can't move up, alternatively move left/rigt towards CC
                 if (ccPosition[1] < position[1]) { // CC is to the left
-                    newPosition = tryMove(position, "left", "right");
+                    newPosition = tryMove(world, position, "left", "right");
                 } else { // CC is to the right
-                    newPosition = tryMove(position, "right", "left");
+                    newPosition = tryMove(world, position, "right", "left");
                 }
             }
             pirate.setPosition(newPosition);
@@ -45,14 +57,13 @@ package com.example.columbus;
         } 
         
         else if (ccPosition[0] > position[0]) { // CC is below
-            newPosition[0] = Math.min(position[0] + 2, 19); // Move down by 2 cells, not below grid
-            // if (Game.getInstance().isOccupied(newPosition) || (newPosition[0] == 0 && newPosition[1] == 0)) {
-            if (gsm.isOccupied(newPosition) || (newPosition[0] == 0 && newPosition[1] == 0)) {
+            newPosition[0] = Math.min(position[0] + 2, world.getHeight() - 1); // Move down by 2 cells, not below grid
+            if (world.isOccupied(newPosition) || (newPosition[0] == 0 && newPosition[1] == 0)) {
                 // If can't move down, alternatively move left/rigt towards CC
                 if (ccPosition[1] < position[1]) { // CC is to the left
-                    newPosition = tryMove(position, "left", "right");
+                    newPosition = tryMove(world, position, "left", "right");
                 } else { // CC is to the right
-                    newPosition = tryMove(position, "right", "left");
+                    newPosition = tryMove(world, position, "right", "left");
                 }
             }
             // updatePosition(newPosition);
@@ -63,13 +74,13 @@ package com.example.columbus;
         
         else if (ccPosition[1] < position[1]) { // CC is to the left (same row)
             newPosition[1] = Math.max(position[1] - 2, 0);
-                if (gsm.isOccupied(newPosition) || (newPosition[0] == 0 && newPosition[1] == 0)) {
+                if (world.isOccupied(newPosition) || (newPosition[0] == 0 && newPosition[1] == 0)) {
                 
                 // If can't move left, alternatively move up/down towards CC
                 if (ccPosition[0] < position[0]) { // CC is above
-                    newPosition = tryMove(position, "up", "down");
+                    newPosition = tryMove(world, position, "up", "down");
                 } else { // CC is below
-                    newPosition = tryMove(position, "down", "up");
+                    newPosition = tryMove(world, position, "down", "up");
                 }
             }
             pirate.setPosition(newPosition);
@@ -77,14 +88,14 @@ package com.example.columbus;
         } 
         
         else if (ccPosition[1] > position[1]) { // CC is to the right (same row)
-            newPosition[1] = Math.min(position[1] + 2, 19);
-                if (gsm.isOccupied(newPosition) || (newPosition[0] == 0 && newPosition[1] == 0)) {
+            newPosition[1] = Math.min(position[1] + 2, world.getWidth() - 1);
+                if (world.isOccupied(newPosition) || (newPosition[0] == 0 && newPosition[1] == 0)) {
                 
                 // If can't move right, alternatively move up/down towards CC
                 if (ccPosition[0] < position[0]) { // CC is above
-                    newPosition = tryMove(position, "up", "down");
+                    newPosition = tryMove(world, position, "up", "down");
                 } else { // CC is below
-                    newPosition = tryMove(position, "down", "up");
+                    newPosition = tryMove(world, position, "down", "up");
                 }
             }
             pirate.setPosition(newPosition);
@@ -97,28 +108,25 @@ package com.example.columbus;
      * This method tries to move the pirate 2 cells in given direction.
      * if that direction is blocked, falls back to secondary direction
      */
-    private int[] tryMove(int[] position, String primary, String secondary) {
-
-        GameStateManager gsm = Game.getInstance().getGameStateManager();
-
+    private int[] tryMove(WorldView world, int[] position, String primary, String secondary) {
         int[] newPosition = position.clone();
         switch (primary) {
             case "up":
                 newPosition[0] = Math.max(position[0] - 2, 0);
                 break;
             case "down":
-                newPosition[0] = Math.min(position[0] + 2, 19);
+                newPosition[0] = Math.min(position[0] + 2, world.getHeight() - 1);
                 break;
             case "left":
                 newPosition[1] = Math.max(position[1] - 2, 0);
                 break;
             case "right":
-                newPosition[1] = Math.min(position[1] + 2, 19);
+                newPosition[1] = Math.min(position[1] + 2, world.getWidth() - 1);
                 break;
         }
         
         // Move ahead if way is not blocked
-        if (gsm.isOccupied(newPosition)) {
+        if (world.isOccupied(newPosition)) {
             return newPosition; // Success
         }
 
@@ -129,13 +137,13 @@ package com.example.columbus;
                 newPosition[0] = Math.max(position[0] - 2, 0);
                 break;
             case "down":
-                newPosition[0] = Math.min(position[0] + 2, 19);
+                newPosition[0] = Math.min(position[0] + 2, world.getHeight() - 1);
                 break;
             case "left":
                 newPosition[1] = Math.max(position[1] - 2, 0);
                 break;
             case "right":
-                newPosition[1] = Math.min(position[1] + 2, 19);
+                newPosition[1] = Math.min(position[1] + 2, world.getWidth() - 1);
                 break;
         }
         return newPosition; // Could still be blocked
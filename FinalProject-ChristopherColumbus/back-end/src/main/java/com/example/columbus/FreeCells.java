@@ -0,0 +1,140 @@
+package com.example.columbus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Free cells of a grid, for placing entities: picks a uniformly random free cell
+ * and takes cells out or puts them back, each in O(1), at any grid density.
+ * Conceptually an array of every cell index (row * width + col) with the free ones
+ * first: taking a cell out swaps it with the last free one. Only positions that
+ * swaps have touched are stored, so a 100000x100000 grid costs no more than a 20x20 one;
+ * memory and time grow with the number of cells taken out or put back.
+ */
+public class FreeCells {
+
+    private final int width;
+    private final int height;
+    private long freeCount; // Positions [0, freeCount) hold free cells
+    private final Map<Long, Long> cellAt = new HashMap<>(); // Position -> cell, where not the identity
+    private final Map<Long, Long> positionOf = new HashMap<>(); // Cell -> position, same
+
+    // Every cell of a width x height grid free
+    public FreeCells(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.freeCount = (long) width * height;
+    }
+
+    /*
+     * Free cells of given game: everything its occupancy grid does not mark.
+     * Occupied cells are taken out in row-major order, so the same occupancy
+     * always gives the same picks (grid's own visiting order is not defined).
+     */
+    public static FreeCells of(GameStateManager gsm) {
+        FreeCells free = new FreeCells(gsm.getWidth(), gsm.getHeight());
+        List<Long> occupied = new ArrayList<>();
+        gsm.getOccupancy().forEachOccupied((row, col, layers) -> occupied.add(free.cell(row, col)));
+        Collections.sort(occupied);
+        for (long cell : occupied) {
+            free.take(cell);
+        }
+        return free;
+    }
+
+    // Random free cell as {row, col}, taken out of free cells; fails if there is none left
+    public int[] takeRandom(GameRandom random) {
+        if (freeCount == 0)
+            throw new IllegalStateException("No free cell left on " + width + "x" + height + " grid");
+        long cell = cellAt(random.nextLong(freeCount));
+        take(cell);
+        return new int[] { (int) (cell / width), (int) (cell % width) };
+    }
+
+    /*
+     * Same, for a cell at Chebyshev distance minDistance or more from avoidPos:
+     * cells closer than that are taken out while picking, then put back
+     */
+    public int[] takeRandom(GameRandom random, int[] avoidPos, int minDistance) {
+        List<Long> near = new ArrayList<>();
+        int rowFrom = Math.max(0, avoidPos[0] - minDistance + 1);
+        int rowTo = Math.min(height - 1, avoidPos[0] + minDistance - 1);
+        int colFrom = Math.max(0, avoidPos[1] - minDistance + 1);
+        int colTo = Math.min(width - 1, avoidPos[1] + minDistance - 1);
+        for (int row = rowFrom; row <= rowTo; row++) {
+            for (int col = colFrom; col <= colTo; col++) {
+                long cell = cell(row, col);
+                if (take(cell))
+                    near.add(cell);
+            }
+        }
+        try {
+            return takeRandom(random);
+        } finally {
+            for (int i = near.size() - 1; i >= 0; i--) {
+                put(near.get(i));
+            }
+        }
+    }
+
+    // Takes given cell out; false if it was not free
+    public boolean take(int row, int col) {
+        return take(cell(row, col));
+    }
+
+    public boolean isFree(int row, int col) {
+        return positionOf(cell(row, col)) < freeCount;
+    }
+
+    public long getFreeCount() {
+        return freeCount;
+    }
+
+    private boolean take(long cell) {
+        long position = positionOf(cell);
+        if (position >= freeCount)
+            return false;
+        long last = --freeCount;
+        swap(position, last);
+        return true;
+    }
+
+    // Puts given cell back among free ones (it must be taken)
+    private void put(long cell) {
+        swap(positionOf(cell), freeCount++);
+    }
+
+    private void swap(long a, long b) {
+        long cellA = cellAt(a);
+        long cellB = cellAt(b);
+        place(a, cellB);
+        place(b, cellA);
+    }
+
+    private void place(long position, long cell) {
+        if (position == cell) {
+            cellAt.remove(position);
+            positionOf.remove(cell);
+        } else {
+            cellAt.put(position, cell);
+            positionOf.put(cell, position);
+        }
+    }
+
+    private long cellAt(long position) {
+        Long cell = cellAt.get(position);
+        return cell == null ? position : cell;
+    }
+
+    private long positionOf(long cell) {
+        Long position = positionOf.get(cell);
+        return position == null ? cell : position;
+    }
+
+    private long cell(int row, int col) {
+        return (long) row * width + col;
+    }
+}
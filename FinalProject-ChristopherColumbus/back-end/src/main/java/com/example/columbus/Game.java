@@ -1,84 +1,365 @@
 package com.example.columbus;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
- * This class implements Facade and Singleton Design patterns 
- * for Columbus game.
+ * This class implements Facade Design pattern for Columbus game.
+ * Each Game is one independent session (see GameRegistry).
  * It manages initialization, state updates, entity logic, and movement scheduling.
+ * Every change (player action, tick, deferred reaction) is a command in the game's
+ * GameMailbox, run one at a time by the mailbox workers, and ends with a publish,
+ * so changes never interleave. Commands still hold the game's GameStateManager
+ * monitor, uncontended, for readers outside the mailbox (saving, hibernation).
+ * With a journal attached, each change is also recorded there, under the same
+ * lock, so the journal holds a game's events in the order they happened.
  */
 public class Game {
-    private static Game instance; // For single Game instance
     private GameStateManager stateManager; // Handle game state (positions, collisions)
     private EntityManager entityManager; // Manage pirates, monsters, islands
     private MovementController movementController; // Schedule monsters, patrol pirate movement
     private ObserverManager observerManager; // Handle observer pattern for pirates
+    private StateBroadcaster broadcaster; // Notify streaming clients of state changes
+    private EventJournal journal; // Optional record of everything that happens (null if none)
+    private long journalId; // This game's id in journal
+    private MapPool mapPool; // Ready-made worlds for restarts (null: generate on restart)
+    private volatile boolean seeded; // Seed chosen by client: restarts always generate from this game's random
+    private boolean deferReactions; // Pirates react to a move in a later command, after move() answered
+    private GameMailbox mailbox; // Runs this game's changes one at a time
+    private volatile long lastUsedMillis = System.currentTimeMillis(); // Last time a client asked for this game
+    private final AtomicLong useCount = new AtomicLong(); // Times touched, so hibernation sees a touch in same millisecond
+    private volatile boolean suspended; // Saved and stopped; changes are refused (see GameSuspendedException)
+
+    /*
+     * Constructor creates a new independent game session on default 20x20 grid
+     */
+    public Game() {
+        this(GameStateManager.DEFAULT_GRID_SIZE, GameStateManager.DEFAULT_GRID_SIZE);
+    }
 
     /*
-     * Private constructor to implement Singleton pattern
+     * Constructor creates a new independent game session on a width x height grid
      * Initializes all game components and starts movement
      */
-    private Game() {
-        stateManager = new GameStateManager();
+    public Game(int width, int height) {
+        this(width, height, TickEngine.getShared());
+    }
+
+    /*
+     * Same, with monsters and patrol pirate ticking on given engine
+     * (a manual engine lets tests move time forward themselves)
+     */
+    public Game(int width, int height, TickEngine engine) {
+        this(width, height, GameStateManager.newSeed(), engine);
+    }
+
+    /*
+     * Same, with all randomness of the game drawn from given seed
+     * (same seed and same moves at same ticks replay the same game)
+     */
+    public Game(int width, int height, long seed, TickEngine engine) {
+        stateManager = new GameStateManager(width, height, seed);
         entityManager = new EntityManager(stateManager);
 
         // Inform manager know about entities
         stateManager.setEntityManager(entityManager); 
 
         observerManager = new ObserverManager();
-        movementController = new MovementController(stateManager, entityManager);
+        broadcaster = new StateBroadcaster(stateManager, entityManager);
+        movementController = new MovementController(stateManager, entityManager, engine, broadcaster);
+        useMailbox(engine);
 
         // Place and register initial game entities
         entityManager.initializeEntities(observerManager);
 
         // Start scheduled movement (patrol pirate, monsters)
         movementController.startAll();
+        broadcaster.publish(); // Record first version
+    }
+
+    /*
+     * Resumes a saved game (see SnapshotStore): entities are already in place
+     * in stateManager, pirates already observe CC in observerManager
+     */
+    Game(GameStateManager stateManager, ObserverManager observerManager, TickEngine engine) {
+        this.stateManager = stateManager;
+        this.entityManager = stateManager.getEntityManager();
+        this.observerManager = observerManager;
+        broadcaster = new StateBroadcaster(stateManager, entityManager);
+        movementController = new MovementController(stateManager, entityManager, engine, broadcaster);
+        useMailbox(engine);
+        movementController.startAll();
+        broadcaster.publish();
+    }
+
+    /*
+     * Runs changes, ticks included, in a mailbox drained by shared mailbox workers
+     * (on calling thread for a manual engine), so tick engine's workers only hand ticks over
+     */
+    private void useMailbox(TickEngine engine) {
+        mailbox = new GameMailbox(engine.isManual() ? Runnable::run : GameMailbox.getSharedWorkers());
+        movementController.setRunner(mailbox::execute);
     }
 
     /*
-     * Provides singleton Game instance
+     * Records this game's start and every later change in given journal
      */
-    public static synchronized Game getInstance() {
-        if (instance == null) {
-            instance = new Game();
+    public void setJournal(EventJournal journal, String sessionId) {
+        synchronized (stateManager) {
+            long id = journal.newGameId();
+            journal.start(id, stateManager.getWidth(), stateManager.getHeight(), stateManager.getSeed(),
+                    sessionId);
+            resumeJournal(journal, id);
         }
-        return instance;
+    }
+
+    /*
+     * Records later changes under an id that already has this game's earlier records
+     * (a resumed game carries on where its journal left off)
+     */
+    void resumeJournal(EventJournal journal, long journalId) {
+        synchronized (stateManager) {
+            this.journal = journal;
+            this.journalId = journalId;
+            movementController.setTickListener(
+                    (kind, changed) -> journal.tick(journalId, kind, changed, stateManager.getCollisionStatus()));
+        }
+    }
+
+    // True if this game records its changes in a journal
+    public boolean isJournaled() {
+        return journal != null;
+    }
+
+    // This game's id in its journal
+    public long getJournalId() {
+        return journalId;
     }
 
     /**
-     * Resets the game to a fresh state and reinitializes entities
+     * Resets the game to a fresh state and reinitializes entities.
+     * New world is generated here from a world seed drawn from this game's random,
+     * so a seeded game gets the same worlds on every run. Only games without a
+     * chosen seed (see setSeeded) with a map pool take a ready-made world instead;
+     * its own world seed goes to the journal, so replays still match.
      */
     public void start() {
-        stateManager.setCollisionStatus(null); // Clear any previous collision
-        stateManager.reset(); // Reset positions and status
-        entityManager.clearOccupied(); // Clear grid occupation
-        entityManager.resetStrategyState(); // Set default pirate strategies
-        entityManager.initializeEntities(observerManager); // Recreate pirates/monsters/patrol
-        movementController.restart(); // Start monster/patrol scheduler
+        mailbox.call(() -> {
+            synchronized (stateManager) {
+                checkLive();
+                stateManager.settle();
+                long worldSeed = stateManager.getRandom().nextLong(); // Drawn pooled or not, replay draws it too
+                WorldLayout layout = mapPool != null && !seeded
+                        ? mapPool.take(stateManager.getWidth(), stateManager.getHeight())
+                        : WorldLayout.generate(stateManager.getWidth(), stateManager.getHeight(), worldSeed);
+                if (journal != null)
+                    journal.restart(journalId, layout.getSeed());
+                restart(stateManager, observerManager, layout);
+                movementController.restart(); // Start monster/patrol scheduler
+                broadcaster.publish();
+            }
+            return null;
+        });
+    }
+
+    // New world in same game; ReplayEngine replays restarts with this too
+    static void restart(GameStateManager stateManager, ObserverManager observerManager, WorldLayout layout) {
+        layout.install(stateManager, observerManager); // CC at 0,0, no collision, slow strategy, new entities
+    }
+
+    /*
+     * When on, move() returns once CC has moved: pirates' reaction, and publishing,
+     * follow as the game's next mailbox command (off: move() does it all)
+     */
+    public void setDeferReactions(boolean deferReactions) {
+        synchronized (stateManager) {
+            this.deferReactions = deferReactions;
+            stateManager.setDeferReactions(deferReactions);
+            if (!deferReactions)
+                stateManager.settle();
+        }
+    }
+
+    // Command following a deferred move: pending reaction, then new state for clients
+    private void settleAndPublish() {
+        synchronized (stateManager) {
+            stateManager.settle();
+            if (!broadcaster.isClosed())
+                broadcaster.publish();
+        }
+    }
+
+    // This game's mailbox (tests run commands through it)
+    GameMailbox getMailbox() {
+        return mailbox;
+    }
+
+    /*
+     * Marks this game's seed as chosen by its client, who expects same seed and
+     * same moves to give the same game: restarts then never take pooled worlds
+     */
+    public void setSeeded(boolean seeded) {
+        this.seeded = seeded;
+    }
+
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    // Takes new worlds of later restarts from given pool (null: generate them on restart; ignored if seeded)
+    public void setMapPool(MapPool mapPool) {
+        this.mapPool = mapPool;
+    }
+
+    // Wraps CC in invisibility cloak for 5 turns (also used by ReplayEngine)
+    static void cloak(GameStateManager stateManager) {
+        stateManager.setColumbus(new InvisibleColumbusDecorator(stateManager.getColumbus(), 5));
+    }
+
+    /*
+     * Stops ticking and ends client streams, without ending session in journal:
+     * the game was saved and will be resumed from what was saved
+     * (server shutdown, or session hibernated by GameRegistry)
+     */
+    void suspend() {
+        suspended = true;
+        movementController.shutdown();
+        broadcaster.close();
+    }
+
+    public boolean isSuspended() {
+        return suspended;
+    }
+
+    // Marks game as just used (GameRegistry hibernates games nobody uses)
+    public void touch() {
+        lastUsedMillis = System.currentTimeMillis();
+        useCount.incrementAndGet();
+    }
+
+    /*
+     * Touches game unless it was suspended; false if it was. Takes game's lock,
+     * like hibernation does, so a game is either claimed first and then not
+     * hibernated, or hibernated first and then not claimed
+     */
+    boolean claim() {
+        synchronized (stateManager) {
+            if (suspended)
+                return false;
+            touch();
+            return true;
+        }
+    }
+
+    public long getLastUsedMillis() {
+        return lastUsedMillis;
+    }
+
+    long getUseCount() {
+        return useCount.get();
+    }
+
+    // Refuses changes to a suspended game (call holding game's lock)
+    private void checkLive() {
+        if (suspended)
+            throw new GameSuspendedException();
+    }
+
+    // Removes scheduled movement from tick engine when session is discarded
+    public void shutdown() {
+        movementController.shutdown();
+        broadcaster.close();
+        synchronized (stateManager) {
+            if (journal != null)
+                journal.event(journalId, EventJournal.END);
+        }
     }
 
     // Handle CC ship movement in given direction
     public GameState move(String direction) {
-        return stateManager.handleMove(direction, entityManager, observerManager);
+        return mailbox.call(() -> {
+            synchronized (stateManager) {
+                checkLive();
+                GameState result = stateManager.handleMove(direction, entityManager, observerManager);
+                if (journal != null)
+                    journal.move(journalId, direction, result.getCollision());
+
+                // Island and treasure collisions return before anything moves
+                if ("island".equals(result.getCollision()) || "treasure".equals(result.getCollision()))
+                    return result;
+                if (deferReactions) {
+                    mailbox.execute(this::settleAndPublish); // Runs after this answer is handed back
+                } else {
+                    stateManager.settle();
+                    broadcaster.publish();
+                }
+                return result;
+            }
+        });
     }
 
     // Sets collision status
     public void setCollisionStatus(String status) {
-        stateManager.setCollisionStatus(status);
+        mailbox.call(() -> {
+            synchronized (stateManager) {
+                checkLive();
+                stateManager.settle();
+                stateManager.setCollisionStatus(status);
+                if (journal != null)
+                    journal.collision(journalId, status);
+                broadcaster.publish();
+            }
+            return null;
+        });
     }
     
     // Returns current game state 
     public GameState getState() {
         return stateManager.getState();
     }   
+
+    // Latest published state, already serialized; safe to read from any thread without locking
+    public StateSnapshot getSnapshot() {
+        return broadcaster.getSnapshot();
+    }
+
+    // Returns versioned state JSON with only what changed since given version
+    public String getStateSince(long sinceVersion) {
+        return broadcaster.getStateJson(sinceVersion);
+    }
+
+    // Writes versioned state JSON with only what changed since given version
+    public void writeStateSince(long sinceVersion, JsonBuffer out) {
+        broadcaster.writeStateJson(sinceVersion, out);
+    }
     
     // Toggle pirate ship strategies slow/fast dynamically
     public void togglePirateStrategies() {
-        entityManager.toggleStrategies();
+        mailbox.call(() -> {
+            synchronized (stateManager) {
+                checkLive();
+                stateManager.settle();
+                entityManager.toggleStrategies();
+                if (journal != null)
+                    journal.event(journalId, EventJournal.TOGGLE);
+                broadcaster.publish();
+            }
+            return null;
+        });
     }
  
     // Apply invisibility cloak power to CC for 5 turns
     public void activateInvisibilityCloak() {
-        ColumbusShip cloaked = new InvisibleColumbusDecorator(stateManager.getColumbus(), 5);
-        stateManager.setColumbus(cloaked);
+        mailbox.call(() -> {
+            synchronized (stateManager) {
+                checkLive();
+                stateManager.settle();
+                cloak(stateManager);
+                if (journal != null)
+                    journal.event(journalId, EventJournal.CLOAK);
+                broadcaster.publish();
+            }
+            return null;
+        });
     }
 
     // Return the current ColumbusShip instance
@@ -86,11 +367,21 @@ public class Game {
         return stateManager.getColumbus();
     }
     
+    // Seed this game's randomness was drawn from
+    public long getSeed() {
+        return stateManager.getSeed();
+    }
+
     // Return currently active pirate strategy (slow/fast)
     public String getCurrentStrategy() {
         return entityManager.getCurrentStrategy();
     }
 
+    // StateBroadcaster instance
+    public StateBroadcaster getBroadcaster() {
+        return broadcaster;
+    }
+
     // MovementController instance
     public MovementController getMovementController() {
         return movementController;
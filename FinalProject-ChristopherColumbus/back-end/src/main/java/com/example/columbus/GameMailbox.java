@@ -0,0 +1,112 @@
+package com.example.columbus;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * One game's commands (player input, ticks, deferred reactions), run one at a time
+ * in arrival order. Any thread may add commands without locking; a shared worker
+ * pool takes the game's turn when it has commands, so a game runs on at most one
+ * thread at a time while different games run side by side on all workers.
+ * A turn runs at most BATCH commands, then gives the worker to other games.
+ * Real-time games share getSharedWorkers(), a pool of their own: HTTP threads
+ * waiting in call() never wait behind the tick engine's timer work, and one slow
+ * game holds up at most one worker. With a manual TickEngine the pool is the
+ * calling thread, so commands run right away.
+ */
+public class GameMailbox {
+
+    private static final int BATCH = 64; // Commands per turn
+
+    // Workers shared by mailboxes of all real-time games; at least two, so one slow game never stalls the rest
+    private static final Executor SHARED_WORKERS = workerPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+
+    private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(); // A turn is queued or running
+    private final Executor workers;
+    private volatile Thread drainer; // Thread taking this game's turn right now
+
+    public GameMailbox(Executor workers) {
+        this.workers = workers;
+    }
+
+    public static Executor getSharedWorkers() {
+        return SHARED_WORKERS;
+    }
+
+    // Adds command; returns at once
+    public void execute(Runnable command) {
+        commands.add(command);
+        if (scheduled.compareAndSet(false, true))
+            workers.execute(this::drain);
+    }
+
+    /*
+     * Adds command and waits for its result. Exceptions thrown by command
+     * are thrown here; called from one of this game's own commands, it just runs.
+     */
+    public <T> T call(Supplier<T> command) {
+        if (Thread.currentThread() == drainer)
+            return command.get();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        execute(() -> {
+            try {
+                result.complete(command.get());
+            } catch (Throwable t) {
+                result.completeExceptionally(t); // Errors too, or caller would wait forever
+            }
+        });
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof Error)
+                throw (Error) e.getCause();
+            throw e;
+        }
+    }
+
+    // Commands waiting for their turn
+    public int size() {
+        return commands.size();
+    }
+
+    // One turn: runs waiting commands, then queues another turn if more came in
+    private void drain() {
+        drainer = Thread.currentThread();
+        try {
+            for (int i = 0; i < BATCH; i++) {
+                Runnable command = commands.poll();
+                if (command == null)
+                    break;
+                try {
+                    command.run();
+                } catch (Throwable t) {
+                    t.printStackTrace(); // Keep game's later commands running, whatever this one threw
+                }
+            }
+        } finally {
+            drainer = null;
+            scheduled.set(false);
+        }
+        if (!commands.isEmpty() && scheduled.compareAndSet(false, true))
+            workers.execute(this::drain);
+    }
+
+    private static Executor workerPool(int workerCount) {
+        AtomicInteger workerId = new AtomicInteger();
+        return Executors.newFixedThreadPool(workerCount, r -> {
+            Thread t = new Thread(r, "game-mailbox-" + workerId.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
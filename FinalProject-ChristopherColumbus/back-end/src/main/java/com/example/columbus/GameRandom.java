@@ -0,0 +1,88 @@
+package com.example.columbus;
+
+/**
+ * A game's random generator: SplitMix64, the same algorithm (and so the same
+ * numbers for the same seed) as java.util.SplittableRandom with its default gamma.
+ * Unlike SplittableRandom its whole state is one long that can be copied,
+ * so replay checkpoints can carry on exactly where the game was.
+ * Not thread-safe; a game only uses it under its own lock.
+ */
+public class GameRandom {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    private long state;
+
+    public GameRandom(long seed) {
+        this.state = seed;
+    }
+
+    // Independent generator that continues with the same numbers as this one
+    public GameRandom copy() {
+        return new GameRandom(state);
+    }
+
+    // Whole generator state; new GameRandom(getState()) continues with same numbers
+    public long getState() {
+        return state;
+    }
+
+    public long nextLong() {
+        return mix64(nextState());
+    }
+
+    public int nextInt() {
+        return mix32(nextState());
+    }
+
+    // Uniform in [0, bound)
+    public int nextInt(int bound) {
+        if (bound <= 0)
+            throw new IllegalArgumentException("bound must be positive");
+        int r = nextInt();
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            r &= m; // Power of two
+        } else {
+            for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = nextInt() >>> 1)
+                ; // Reject values from the uneven top part of the range
+        }
+        return r;
+    }
+
+    // Uniform in [0, bound)
+    public long nextLong(long bound) {
+        if (bound <= 0)
+            throw new IllegalArgumentException("bound must be positive");
+        long r = nextLong();
+        long m = bound - 1;
+        if ((bound & m) == 0L) {
+            r &= m; // Power of two
+        } else {
+            for (long u = r >>> 1; u + m - (r = u % bound) < 0L; u = nextLong() >>> 1)
+                ; // Reject values from the uneven top part of the range
+        }
+        return r;
+    }
+
+    // Uniform in [0, 1)
+    public double nextDouble() {
+        return (nextLong() >>> 11) * DOUBLE_UNIT;
+    }
+
+    private long nextState() {
+        return state += GOLDEN_GAMMA;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int mix32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+}
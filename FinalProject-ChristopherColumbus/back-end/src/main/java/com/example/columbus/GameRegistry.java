@@ -0,0 +1,322 @@
+package com.example.columbus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Registry of independent game sessions, keyed by session id.
+ * Each session owns its own Game (and so its own GameStateManager,
+ * EntityManager and MovementController).
+ * Lookups go through a ConcurrentHashMap, so sessions never wait on each other.
+ * If given an EventJournal, every game it creates records its events there.
+ *
+ * Sessions nobody used for idleMillis, and least recently used ones beyond
+ * maxResident, are hibernated: saved in SnapshotStore's format to an off-heap
+ * buffer (a few hundred bytes) and dropped, with their tick tasks, from memory.
+ * Next lookup of a hibernated session resumes it from that buffer.
+ */
+public class GameRegistry {
+
+    public static final String DEFAULT_SESSION = "default"; // Used when client sends no session id
+    private static final long SWEEP_PERIOD_MILLIS = 10000; // How often idle sessions are looked for
+
+    private final ConcurrentMap<String, Game> games = new ConcurrentHashMap<>(); // Live sessions
+    private final ConcurrentMap<String, ByteBuffer> hibernated = new ConcurrentHashMap<>(); // Saved idle sessions
+    private final EventJournal journal; // May be null: games are not journaled
+    private final long idleMillis; // Unused this long, a session is hibernated (0: never)
+    private final int maxResident; // Most sessions kept live at once
+    private final Object sweepLock = new Object(); // One sweep (or snapshot save) at a time
+
+    public GameRegistry() {
+        this(null);
+    }
+
+    public GameRegistry(EventJournal journal) {
+        this(journal, 0, Integer.MAX_VALUE);
+    }
+
+    /*
+     * Registry that hibernates sessions unused for idleMillis (0 for never)
+     * and keeps at most maxResident sessions live
+     */
+    public GameRegistry(EventJournal journal, long idleMillis, int maxResident) {
+        if (maxResident < 1)
+            throw new IllegalArgumentException("maxResident must be at least 1, was " + maxResident);
+        this.journal = journal;
+        this.idleMillis = idleMillis;
+        this.maxResident = maxResident;
+        if (idleMillis > 0)
+            startSweeper();
+    }
+
+    /*
+     * Returns game for given session, creating it on first use
+     * (or resuming it, if it was hibernated)
+     */
+    public Game getOrCreate(String sessionId) {
+        while (true) {
+            Game game = games.get(sessionId); // Fast path: no map locking for existing sessions
+            if (game == null) {
+                ByteBuffer[] decoded = new ByteBuffer[1];
+                game = games.computeIfAbsent(sessionId, id -> {
+                    Game resumed = resume(id, decoded);
+                    return resumed != null ? resumed : attach(new Game(), id);
+                });
+                forget(sessionId, decoded[0]); // Saved copy stays until live game is in place
+                trim();
+            }
+            if (game.claim())
+                return game;
+            // Hibernated between lookup and claim: its saved copy is in place now, resume that
+        }
+    }
+
+    /*
+     * Runs action on session's game and returns its result. If game is hibernated
+     * before action gets to change it (GameSuspendedException), action runs again
+     * on the resumed game, so no change is lost to a game that was just saved.
+     */
+    public <T> T apply(String sessionId, Function<Game, T> action) {
+        while (true) {
+            try {
+                return action.apply(getOrCreate(sessionId));
+            } catch (GameSuspendedException e) {
+                // Look session up again
+            }
+        }
+    }
+
+    /*
+     * Starts a new game of given world size for session,
+     * replacing (and stopping) any game it had
+     */
+    public Game create(String sessionId, int width, int height) {
+        return create(sessionId, new Game(width, height, GameStateManager.newSeed(), TickEngine.getShared()));
+    }
+
+    /*
+     * Same, with game's randomness drawn from given seed: same seed and same moves
+     * give the same game, restarts included (seeded games do not take pooled worlds)
+     */
+    public Game create(String sessionId, int width, int height, long seed) {
+        Game game = new Game(width, height, seed, TickEngine.getShared());
+        game.setSeeded(true);
+        return create(sessionId, game);
+    }
+
+    private Game create(String sessionId, Game created) {
+        Game game = attach(created, sessionId);
+        Game old = games.put(sessionId, game);
+        hibernated.remove(sessionId);
+        if (old != null) {
+            old.shutdown();
+        }
+        trim();
+        return game;
+    }
+
+    // Returns game for given session (resuming it if hibernated), or null if there is none
+    public Game get(String sessionId) {
+        while (true) {
+            Game game = games.get(sessionId);
+            if (game == null && hibernated.containsKey(sessionId)) {
+                ByteBuffer[] decoded = new ByteBuffer[1];
+                game = games.computeIfAbsent(sessionId, id -> resume(id, decoded));
+                forget(sessionId, decoded[0]);
+                trim();
+            }
+            if (game == null || game.claim())
+                return game;
+        }
+    }
+
+    /*
+     * Sweeps on a thread of its own: hibernating sessions takes their locks and
+     * copies them, which must hold up neither ticks nor player requests
+     */
+    private void startSweeper() {
+        ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "session-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.scheduleWithFixedDelay(() -> {
+            try {
+                sweep(System.currentTimeMillis());
+            } catch (RuntimeException e) {
+                e.printStackTrace(); // Keep sweeping later
+            }
+        }, SWEEP_PERIOD_MILLIS, SWEEP_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    // Removes a session and stops its scheduled movement
+    public void remove(String sessionId) {
+        hibernated.remove(sessionId);
+        Game game = games.remove(sessionId);
+        if (game != null) {
+            game.shutdown();
+        }
+    }
+
+    /*
+     * Hibernates sessions unused since now - idleMillis, then least recently used ones
+     * until at most maxResident are live. Runs every SWEEP_PERIOD_MILLIS on registry's sweeper thread.
+     */
+    public void sweep(long now) {
+        synchronized (sweepLock) {
+            if (idleMillis > 0) {
+                for (Map.Entry<String, Game> entry : games.entrySet()) {
+                    Game game = entry.getValue();
+                    long uses = game.getUseCount(); // Read before idle time: a touch after this is noticed
+                    if (game.getLastUsedMillis() <= now - idleMillis)
+                        hibernate(entry.getKey(), game, uses);
+                }
+            }
+            trim();
+        }
+    }
+
+    // Hibernates least recently used sessions while more than maxResident are live
+    private void trim() {
+        if (games.size() <= maxResident)
+            return;
+        synchronized (sweepLock) {
+            List<Map.Entry<String, Game>> live = new ArrayList<>(games.entrySet());
+            long[] uses = new long[live.size()];
+            for (int i = 0; i < uses.length; i++) {
+                uses[i] = live.get(i).getValue().getUseCount();
+            }
+            Integer[] order = new Integer[uses.length]; // Least recently used first
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(live.get(a).getValue().getLastUsedMillis(),
+                    live.get(b).getValue().getLastUsedMillis()));
+            for (int i = 0; i < order.length && games.size() > maxResident; i++) {
+                Map.Entry<String, Game> entry = live.get(order[i]);
+                hibernate(entry.getKey(), entry.getValue(), uses[order[i]]);
+            }
+        }
+    }
+
+    /*
+     * Saves game off-heap and drops it, unless it was touched since its use count
+     * was usesSeen (checked again under game's lock, which claims take too: a request
+     * may have just claimed it). Saved copy is in place before live game leaves,
+     * so lookups always find one of them; the game is suspended, so anyone still
+     * holding it gets GameSuspendedException instead of changing a dropped game.
+     */
+    private void hibernate(String sessionId, Game game, long usesSeen) {
+        synchronized (game.getGameStateManager()) {
+            if (game.getUseCount() != usesSeen || games.get(sessionId) != game)
+                return;
+            ByteBuffer heapCopy = SnapshotStore.encode(sessionId, game, true);
+            ByteBuffer saved = ByteBuffer.allocateDirect(heapCopy.remaining());
+            saved.put(heapCopy).flip();
+            hibernated.put(sessionId, saved);
+            games.remove(sessionId, game);
+        }
+    }
+
+    /*
+     * Live game from hibernated session's saved copy, or null if it has none;
+     * copy that was decoded is left in decoded[0]
+     */
+    private Game resume(String sessionId, ByteBuffer[] decoded) {
+        ByteBuffer saved = hibernated.get(sessionId);
+        if (saved == null)
+            return null;
+        decoded[0] = saved;
+        try {
+            Game game = SnapshotStore.decode(saved, TickEngine.getShared(), journal);
+            game.setMapPool(MapPool.getShared());
+            game.setDeferReactions(true);
+            return game;
+        } catch (IOException e) {
+            throw new IllegalStateException("Hibernated session " + sessionId + " cannot be resumed", e);
+        }
+    }
+
+    // Drops saved copy a live game was resumed from; a newer copy saved since then stays
+    private void forget(String sessionId, ByteBuffer decoded) {
+        if (decoded != null)
+            hibernated.remove(sessionId, decoded);
+    }
+
+    /*
+     * Saves every session, live or hibernated, to given snapshot file and suspends
+     * live ones, so nothing changes after it was saved (server is shutting down).
+     * Returns number of bytes written.
+     */
+    public long saveSnapshot(Path file) throws IOException {
+        Map<String, ByteBuffer> bodies = new LinkedHashMap<>();
+        synchronized (sweepLock) { // No session moves between live and hibernated meanwhile
+            bodies.putAll(hibernated);
+            for (Map.Entry<String, Game> entry : games.entrySet()) {
+                bodies.put(entry.getKey(), SnapshotStore.encode(entry.getKey(), entry.getValue(), true));
+            }
+        }
+        return SnapshotStore.write(file, bodies.values());
+    }
+
+    /*
+     * Takes in every session saved in given snapshot file, replacing (and stopping)
+     * any game of same session. They stay hibernated until first used, so
+     * loading costs a copy of the file. Returns number of sessions taken in.
+     */
+    public int loadSnapshot(Path file) throws IOException {
+        Map<String, ByteBuffer> saved = SnapshotStore.read(file);
+        for (Map.Entry<String, ByteBuffer> entry : saved.entrySet()) {
+            hibernated.put(entry.getKey(), entry.getValue());
+            Game old = games.remove(entry.getKey());
+            if (old != null) {
+                old.shutdown();
+            }
+        }
+        return saved.size();
+    }
+
+    // Hooks a new game up to journal (if any) and shared map pool for its restarts; moves answer before pirates react
+    private Game attach(Game game, String sessionId) {
+        if (journal != null)
+            game.setJournal(journal, sessionId);
+        game.setMapPool(MapPool.getShared());
+        game.setDeferReactions(true);
+        return game;
+    }
+
+    // Number of sessions, live or hibernated
+    public int size() {
+        return games.size() + hibernated.size();
+    }
+
+    // Sessions currently live in memory
+    public int getResidentCount() {
+        return games.size();
+    }
+
+    public int getHibernatedCount() {
+        return hibernated.size();
+    }
+
+    // Off-heap bytes held by hibernated sessions
+    public long getHibernatedBytes() {
+        long bytes = 0;
+        for (ByteBuffer saved : hibernated.values()) {
+            bytes += saved.capacity();
+        }
+        return bytes;
+    }
+}
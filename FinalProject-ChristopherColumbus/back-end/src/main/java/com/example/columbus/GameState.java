@@ -1,57 +1,115 @@
 package com.example.columbus;
 
-import com.google.gson.Gson;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
 /**
  * This class represents the state of game, including all entity positions, 
- * and is responsible for serializing itself to JSON for API responses
+ * and is responsible for serializing itself to JSON for API responses.
+ * Positions are copied when it is built, so it can be serialized outside
+ * game's lock while game goes on moving (or restarts)
  */
 public class GameState {
 
     private int[] ccPosition; // CC position (x,y)
     private int[] treasurePosition; // Treasure position (x,y)
     private List<PirateShipState> pirates; // List of pirate ships' states
-    private List<SeaMonster> seaMonsters; // List of sea monsters
+    private List<int[]> seaMonsters; // Sea monsters' positions
     private List<int[]> islands; // Positions of all islands
     private String collision; // Information about collision of CC with island/monster/pirate
-    private boolean[][] occupiedPositions; // Grid to track occupied positions
+    private OccupancyGrid occupiedPositions; // Grid to track occupied positions, built on first use
     private boolean columbusInvisible; // When CC invisible
+    private int width; // World size (columns)
+    private int height; // World size (rows)
 
      
     /*
-     * GameState constructor to capture current game state
+     * GameState constructor to capture current game state on default size grid
      */
     public GameState(int[] ccPosition, int[] treasurePosition, List<PirateShip> pirates, List<Entity> monsters,
             List<int[]> islands, String collision, ColumbusShip columbus) {
-        this.ccPosition = ccPosition;
-        this.treasurePosition = treasurePosition;
+        this(ccPosition, treasurePosition, pirates, monsters, islands, collision, columbus,
+                GameStateManager.DEFAULT_GRID_SIZE, GameStateManager.DEFAULT_GRID_SIZE);
+    }
+
+    /*
+     * GameState constructor to capture current game state of a width x height world
+     */
+    public GameState(int[] ccPosition, int[] treasurePosition, List<PirateShip> pirates, List<Entity> monsters,
+            List<int[]> islands, String collision, ColumbusShip columbus, int width, int height) {
+        this.ccPosition = ccPosition.clone();
+        this.treasurePosition = treasurePosition == null ? null : treasurePosition.clone();
 
         // Convert PirateShip objects to their serializable states (position + type)
         this.pirates = pirates.stream()
-                .map(p -> new PirateShipState(p.getPosition(), p.getType()))
+                .map(p -> new PirateShipState(p.getPosition().clone(), p.getType()))
                 .collect(Collectors.toList());
 
-        // Filter and cast entities to SeaMonster
+        // Sea monsters move their position arrays in place, so keep copies
         this.seaMonsters = monsters.stream()
                 .filter(entity -> entity instanceof SeaMonster)
-                .map(entity -> (SeaMonster) entity)
+                .map(entity -> entity.getPosition().clone())
                 .collect(Collectors.toList());
-        this.islands = islands;
+        this.islands = new ArrayList<>(islands); // Island arrays never change, list does on restart
         this.collision = collision;
         this.columbusInvisible = columbus.isInvisible();
-
-        this.occupiedPositions = new boolean[20][20]; // Initialize the grid
-        updateOccupiedPositions(); // Update occupied positions initially
+        this.width = width;
+        this.height = height;
     }
 
     /*
      * toJson() method is serializing the game state to a JSON string (for API responses)
      */
     public String toJson() {
-        Gson gson = new Gson();
-        return gson.toJson(this);
+        JsonBuffer out = JsonBuffer.acquire();
+        try {
+            writeJson(out);
+            return out.toString();
+        } finally {
+            out.release();
+        }
+    }
+
+    /*
+     * Writes only the fields front end uses straight into buffer.
+     * Internal occupancy grid and monster spawn/ignore data are left out.
+     */
+    public void writeJson(JsonBuffer out) {
+        out.beginObject();
+        out.name("width").value(width);
+        out.name("height").value(height);
+        out.name("ccPosition").position(ccPosition);
+        out.name("treasurePosition").position(treasurePosition);
+
+        // Indexed loops: no iterator allocation
+        out.name("pirates").beginArray();
+        for (int i = 0; i < pirates.size(); i++) {
+            PirateShipState pirate = pirates.get(i);
+            out.beginObject();
+            out.name("position").position(pirate.getPosition());
+            out.name("type").value(pirate.getType());
+            out.endObject();
+        }
+        out.endArray();
+
+        out.name("seaMonsters").beginArray();
+        for (int i = 0; i < seaMonsters.size(); i++) {
+            out.beginObject();
+            out.name("position").position(seaMonsters.get(i));
+            out.endObject();
+        }
+        out.endArray();
+
+        out.name("islands").beginArray();
+        for (int i = 0; i < islands.size(); i++) {
+            out.position(islands.get(i));
+        }
+        out.endArray();
+
+        out.name("collision").value(collision);
+        out.name("columbusInvisible").value(columbusInvisible);
+        out.endObject();
     }
 
     // Check if CC i invisible
@@ -75,8 +133,8 @@ public class GameState {
         return pirates;
     }
 
-    //Sea monsters
-    public List<SeaMonster> getSeaMonsters() {
+    //Sea monsters' positions
+    public List<int[]> getSeaMonsterPositions() {
         return seaMonsters;
     }
 
@@ -90,19 +148,41 @@ public class GameState {
         return collision;
     }
 
+    // World size
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
     // Check if a position is occupied
     public boolean isOccupied(int[] position) {
-        return occupiedPositions[position[0]][position[1]];
+        return occupied().isOccupied(position[0], position[1]);
     }
 
     // Mark a position as occupied
     public void markPositionOccupied(int[] position) {
-        occupiedPositions[position[0]][position[1]] = true;
+        occupied().set(position[0], position[1], OccupancyGrid.ISLAND);
     }
 
     // Set a position as occupied
     public void setOccupied(int[] position, boolean occupied) {
-        occupiedPositions[position[0]][position[1]] = occupied;
+        if (occupied) {
+            occupied().set(position[0], position[1], OccupancyGrid.ISLAND);
+        } else {
+            occupied().clear(position[0], position[1], OccupancyGrid.ISLAND);
+        }
+    }
+
+    // Occupancy grid, built from entity positions the first time it is needed
+    private OccupancyGrid occupied() {
+        if (occupiedPositions == null) {
+            occupiedPositions = new OccupancyGrid(width, height);
+            updateOccupiedPositions();
+        }
+        return occupiedPositions;
     }
 
     // Check if a position is occupied by a fast pirate
@@ -117,30 +197,26 @@ public class GameState {
 
     // Method to update occupied positions based on current state
     private void updateOccupiedPositions() {
-        // Clear the grid
-        for (int i = 0; i <20; i++) {
-            for (int j = 0; j < 20; j++) {
-                occupiedPositions[i][j] = false;
-            }
-        }
+        OccupancyGrid grid = occupied();
+        grid.clearAll(); // Clear the grid
 
         // Mark positions occupied by pirates
         for (PirateShipState pirate : pirates) {
-            occupiedPositions[pirate.getPosition()[0]][pirate.getPosition()[1]] = true;
+            grid.set(pirate.getPosition()[0], pirate.getPosition()[1], OccupancyGrid.PIRATE);
         }
 
         // Mark positions occupied by sea monsters
-        for (SeaMonster monster : seaMonsters) {
-            occupiedPositions[monster.getPosition()[0]][monster.getPosition()[1]] = true;
+        for (int[] monster : seaMonsters) {
+            grid.set(monster[0], monster[1], OccupancyGrid.MONSTER);
         }
 
         // Mark positions occupied by islands
         for (int[] island : islands) {
-            occupiedPositions[island[0]][island[1]] = true;
+            grid.set(island[0], island[1], OccupancyGrid.ISLAND);
         }
 
         // Mark position occupied by CC
-        occupiedPositions[ccPosition[0]][ccPosition[1]] = true;
+        grid.set(ccPosition[0], ccPosition[1], OccupancyGrid.COLUMBUS);
     }
 
 
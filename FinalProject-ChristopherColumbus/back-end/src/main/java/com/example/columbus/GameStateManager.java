@@ -1,22 +1,106 @@
 package com.example.columbus;
 
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * This class manages the overall game state, including CC ship,
  * treasure location, collision detection, and cell occupancy
  */
 public class GameStateManager {
+    public static final int DEFAULT_GRID_SIZE = 20; // Grid size when game does not ask for one
+    public static final int MIN_GRID_SIZE = 10; // Room for CC's safe area plus all entities
+    public static final int MAX_GRID_SIZE = 100000;
+
+    private final int width; // Columns
+    private final int height; // Rows
+    private final long seed; // Seed of this game's random generator
+    private final GameRandom random; // Every random choice of this game (placement, monster moves)
     private ColumbusShip columbus = new ConcreteColumbusShip(); // CC ship
-    private int[] treasurePosition = { 19, 19 }; // Default treasure location
+    private int[] treasurePosition; // Treasure location (bottom right corner by default)
     private String collisionStatus = null; // Collision type (island/pirate etc.)
-    private Set<String> occupied = new HashSet<>(); // Track occupied grid cells 
-    private static final int GRID_SIZE = 20; // Grid size
+    private OccupancyGrid occupied; // Track occupied grid cells
     private EntityManager entityManager;
-
-    // Initializes default state (CC at 0,0)
+    private final WorldView worldView = new LiveWorldView(); // What moving entities may look at
+    private DistanceField distanceField; // Pirates' way to CC, made on first chase
+
+    // Reactions to CC's move (see react)
+    private static final int NO_REACTION = 0;
+    private static final int AFTER_MOVE = 1;
+    private static final int AFTER_MONSTER = 2; // Pirate ignore turns do not pass
+    private static final int AFTER_PIRATE = 3; // New world: pirates chase, no turns pass
+    private int pendingReaction = NO_REACTION; // Reaction still to run on settle()
+    private ObserverManager pendingObservers; // Who to tell about it
+    private boolean deferReactions = false;
+
+    // Initializes default state (CC at 0,0) on default 20x20 grid
     public GameStateManager() {
-        occupied.add("0,0");
+        this(DEFAULT_GRID_SIZE, DEFAULT_GRID_SIZE);
+    }
+
+    // Initializes default state (CC at 0,0) on a width x height grid, with a fresh random seed
+    public GameStateManager(int width, int height) {
+        this(width, height, newSeed());
+    }
+
+    /*
+     * Initializes default state (CC at 0,0) on a width x height grid.
+     * Same seed and same player input give exactly the same game.
+     */
+    public GameStateManager(int width, int height, long seed) {
+        this(width, height, seed, seed);
+    }
+
+    /*
+     * Same, with random generator already moved on to given state
+     * (see GameRandom.getState); used to resume a saved game
+     */
+    GameStateManager(int width, int height, long seed, long randomState) {
+        checkSize("width", width);
+        checkSize("height", height);
+        this.width = width;
+        this.height = height;
+        this.seed = seed;
+        this.random = new GameRandom(randomState);
+        this.treasurePosition = new int[] { height - 1, width - 1 };
+        this.occupied = new OccupancyGrid(width, height);
+        occupied.set(0, 0, OccupancyGrid.COLUMBUS);
+    }
+
+    // Copy constructor, see copy()
+    private GameStateManager(GameStateManager other) {
+        this.width = other.width;
+        this.height = other.height;
+        this.seed = other.seed;
+        this.random = other.random.copy();
+        this.columbus = other.columbus.copy();
+        this.treasurePosition = other.treasurePosition.clone();
+        this.collisionStatus = other.collisionStatus;
+        this.occupied = other.occupied.copy();
+    }
+
+    /*
+     * Independent copy of this game (state, random sequence, entities),
+     * sharing nothing with it; used for replay checkpoints.
+     * Observers om holds for this game's pirates are registered in omCopy for their copies.
+     */
+    public GameStateManager copy(ObserverManager om, ObserverManager omCopy) {
+        GameStateManager c = new GameStateManager(this);
+        if (entityManager != null)
+            c.entityManager = entityManager.copy(c, om, omCopy);
+        return c;
+    }
+
+    // Seed for a game that was not given one
+    public static long newSeed() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    private static void checkSize(String name, int size) {
+        if (size < MIN_GRID_SIZE || size > MAX_GRID_SIZE) {
+            throw new IllegalArgumentException(
+                    name + " must be between " + MIN_GRID_SIZE + " and " + MAX_GRID_SIZE + ", was " + size);
+        }
     }
 
     /**
@@ -30,20 +114,20 @@ public class GameStateManager {
         columbus = new ConcreteColumbusShip();
         columbus.setPosition(new int[] { 0, 0 });
 
-        Random r = new Random();
         do {
-            treasurePosition = new int[] { r.nextInt(20), r.nextInt(20) };
+            treasurePosition = new int[] { random.nextInt(height), random.nextInt(width) };
         } while (Arrays.equals(treasurePosition, columbus.getPosition()) || isOccupied(treasurePosition));
-        addOccupied(treasurePosition);
+        addOccupied(treasurePosition, OccupancyGrid.TREASURE);
 
         collisionStatus = null;
-        occupied.clear(); // Clear tracker for occupied cells
-        addOccupied(columbus.getPosition());
+        occupied.clearAll(); // Clear tracker for occupied cells
+        addOccupied(columbus.getPosition(), OccupancyGrid.COLUMBUS);
 
     }
 
     // Handles player movement and updates game state
     public GameState handleMove(String direction, EntityManager em, ObserverManager om) {
+        settle(); // Pirates finish reacting to last move first
         int[] newPosition = columbus.getPosition().clone();
 
         // Compute new position based on direction
@@ -52,13 +136,13 @@ public class GameStateManager {
                 newPosition[0] = Math.max(0, newPosition[0] - 1);
                 break;
             case "down":
-                newPosition[0] = Math.min(GRID_SIZE - 1, newPosition[0] + 1);
+                newPosition[0] = Math.min(height - 1, newPosition[0] + 1);
                 break;
             case "left":
                 newPosition[1] = Math.max(0, newPosition[1] - 1);
                 break;
             case "right":
-                newPosition[1] = Math.min(GRID_SIZE - 1, newPosition[1] + 1);
+                newPosition[1] = Math.min(width - 1, newPosition[1] + 1);
                 break;
         }
 
@@ -66,45 +150,80 @@ public class GameStateManager {
         if (em.isIsland(newPosition))
             return new GameState(columbus.getPosition(), treasurePosition, em.getPirates(), em.getMonsters(),
                     em.getIslands(),
-                    "island", columbus);
+                    "island", columbus, width, height);
 
         // Monster collision: allow movement but mark it            
         if (em.isMonster(newPosition)) {
             columbus.setPosition(newPosition); // Update cc position
-            om.notifyObservers(columbus.getPosition());
-
-            columbus.decrementCloak(); // Decrement invisibility turns
-            UnwrapColumbus(); // Replace decorator CC ship with base CC ship if cloak expired
+            react(AFTER_MONSTER, om); // Pirates react, then cloak turn passes
 
             return new GameState(columbus.getPosition(), treasurePosition, em.getPirates(), em.getMonsters(),
                     em.getIslands(),
-                    "monster", columbus);
+                    "monster", columbus, width, height);
         }
 
         // Pirate collision: reset game state
         if (em.isPirate(newPosition)) {
             reset();
             em.initializeEntities(om);
-            om.notifyObservers(columbus.getPosition());
+            react(AFTER_PIRATE, om); // Pirates of new world react to CC back at start
             return new GameState(columbus.getPosition(), treasurePosition, em.getPirates(), em.getMonsters(),
                     em.getIslands(),
-                    "pirate", columbus);
+                    "pirate", columbus, width, height);
         }
 
         // Treasure collected
         if (Arrays.equals(newPosition, treasurePosition))
             return new GameState(columbus.getPosition(), treasurePosition, em.getPirates(), em.getMonsters(),
                     em.getIslands(),
-                    "treasure", columbus);
+                    "treasure", columbus, width, height);
 
         columbus.setPosition(newPosition); // Update cc position
-        om.notifyObservers(columbus.getPosition());
-        entityManager.getPirateGroup().decrementIgnoreTurns(); // Decrement invisibility turns
-        columbus.decrementCloak(); // decrement invisibility cloak
-        UnwrapColumbus(); // unwrap after cloak expires
+        react(AFTER_MOVE, om); // Pirates react, then ignore and cloak turns pass
 
         return new GameState(columbus.getPosition(), treasurePosition, em.getPirates(), em.getMonsters(),
-                em.getIslands(), null, columbus);
+                em.getIslands(), null, columbus, width, height);
+    }
+
+    /*
+     * What follows CC's move: pirates chase (observers in om are told), then
+     * turns of pirates' ignore mode and CC's cloak pass. Runs right away, or once
+     * game defers reactions (see setDeferReactions), on next settle().
+     */
+    private void react(int reaction, ObserverManager om) {
+        pendingReaction = reaction;
+        pendingObservers = om;
+        if (!deferReactions)
+            settle();
+    }
+
+    /*
+     * Lets pirates finish reacting to CC's last move if they have not yet.
+     * Everything that changes a game settles first, so a deferred reaction
+     * lands exactly where it would have without deferring; returns true if one was pending.
+     */
+    public boolean settle() {
+        int reaction = pendingReaction;
+        if (reaction == NO_REACTION)
+            return false;
+        pendingReaction = NO_REACTION;
+        pendingObservers.notifyObservers(columbus.getPosition());
+        pendingObservers = null;
+        if (reaction == AFTER_MOVE)
+            entityManager.getPirateGroup().decrementIgnoreTurns(); // Decrement invisibility turns
+        if (reaction != AFTER_PIRATE) {
+            columbus.decrementCloak(); // Decrement invisibility cloak
+            UnwrapColumbus(); // Unwrap after cloak expires
+        }
+        return true;
+    }
+
+    /*
+     * When on, handleMove only moves CC and leaves pirates' reaction pending
+     * for settle(), so caller can answer before pirate AI runs (see Game.setDeferReactions)
+     */
+    public void setDeferReactions(boolean deferReactions) {
+        this.deferReactions = deferReactions;
     }
 
     // If pirate hijacks CC
@@ -114,14 +233,29 @@ public class GameStateManager {
 
     // Clears all occupied cells except (0,0)
     public void clearOccupied() {
-        occupied.clear();
-        occupied.add("0,0");
+        occupied.clearAll();
+        occupied.set(0, 0, OccupancyGrid.COLUMBUS);
     }
 
     public void setEntityManager(EntityManager em) {
         this.entityManager = em;
     }
 
+    public EntityManager getEntityManager() {
+        return entityManager;
+    }
+
+    // Read-only view of this game for entities and strategies (same object every call)
+    public WorldView getWorldView() {
+        return worldView;
+    }
+
+    // Pirate or monster moved; keeps entity manager's spatial index in step
+    public void entityMoved(Entity e, int fromRow, int fromCol) {
+        if (entityManager != null)
+            entityManager.entityMoved(e, fromRow, fromCol);
+    }
+
     // Returns current game state
     public GameState getState() {
         return new GameState(
@@ -131,7 +265,9 @@ public class GameStateManager {
                 entityManager.getMonsters(),
                 entityManager.getIslands(),
                 collisionStatus,
-                columbus);
+                columbus,
+                width,
+                height);
     }
 
     public void setCollisionStatus(String status) {
@@ -143,7 +279,16 @@ public class GameStateManager {
     }
 
     public boolean isOccupied(int[] pos) {
-        return occupied.contains(pos[0] + "," + pos[1]);
+        return occupied.isOccupied(pos[0], pos[1]);
+    }
+
+    // Allocation-free lookup for hot loops
+    public boolean isOccupied(int row, int col) {
+        return occupied.isOccupied(row, col);
+    }
+
+    public OccupancyGrid getOccupancy() {
+        return occupied;
     }
 
     public boolean isColumbusInvisible() {
@@ -160,12 +305,48 @@ public class GameStateManager {
         }
     }
 
+    // Marks cell as blocked (island layer) when caller does not say what occupies it
     public void addOccupied(int[] pos) {
-        occupied.add(pos[0] + "," + pos[1]);
+        addOccupied(pos, OccupancyGrid.ISLAND);
+    }
+
+    public void addOccupied(int[] pos, int layer) {
+        occupied.set(pos[0], pos[1], layer);
     }
 
     public void removeOccupied(int[] pos) {
-        occupied.remove(pos[0] + "," + pos[1]);
+        removeOccupied(pos, OccupancyGrid.ISLAND);
+    }
+
+    public void removeOccupied(int[] pos, int layer) {
+        occupied.clear(pos[0], pos[1], layer);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    // This game's generator; only use it while holding the game's lock (like all game state)
+    public GameRandom getRandom() {
+        return random;
+    }
+
+    // Grid columns
+    public int getWidth() {
+        return width;
+    }
+
+    // Grid rows
+    public int getHeight() {
+        return height;
+    }
+
+    public int[] getTreasurePosition() {
+        return treasurePosition;
+    }
+
+    void setTreasurePosition(int[] treasurePosition) {
+        this.treasurePosition = treasurePosition;
     }
 
     public String getCollisionStatus() {
@@ -179,4 +360,64 @@ public class GameStateManager {
     public void setColumbus(ColumbusShip columbus) {
         this.columbus = columbus;
     }
-}
\ No newline at end of file
+
+    // WorldView backed directly by this game's live state
+    private class LiveWorldView implements WorldView {
+        @Override
+        public int getWidth() {
+            return width;
+        }
+
+        @Override
+        public int getHeight() {
+            return height;
+        }
+
+        @Override
+        public int[] getCcPosition() {
+            return columbus.getPosition();
+        }
+
+        @Override
+        public boolean isColumbusInvisible() {
+            return columbus.isInvisible();
+        }
+
+        @Override
+        public int[] getTreasurePosition() {
+            return treasurePosition;
+        }
+
+        @Override
+        public boolean isOccupied(int row, int col) {
+            return occupied.isOccupied(row, col);
+        }
+
+        @Override
+        public boolean isIsland(int row, int col) {
+            return entityManager.isIsland(row, col);
+        }
+
+        @Override
+        public long getIslandVersion() {
+            return entityManager.getSpatialIndex().getIslandVersion();
+        }
+
+        @Override
+        public boolean hasPirate(int row, int col) {
+            return entityManager.getSpatialIndex().hasPirate(row, col);
+        }
+
+        @Override
+        public boolean hasMonster(int row, int col) {
+            return entityManager.getSpatialIndex().hasMonster(row, col);
+        }
+
+        @Override
+        public int distanceToColumbus(int row, int col) {
+            if (distanceField == null)
+                distanceField = new DistanceField(width, height);
+            return distanceField.distance(row, col, columbus.getPosition(), entityManager.getSpatialIndex());
+        }
+    }
+}
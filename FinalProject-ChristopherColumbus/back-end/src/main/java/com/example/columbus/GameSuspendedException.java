@@ -0,0 +1,15 @@
+package com.example.columbus;
+
+/**
+ * Thrown by a change to a game that was suspended (hibernated or saved at shutdown)
+ * before the change could run. Nothing was changed: the session lives on in its
+ * saved copy, so the caller looks the session up again in GameRegistry and retries.
+ */
+public class GameSuspendedException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    public GameSuspendedException() {
+        super("Game was suspended; look session up again");
+    }
+}
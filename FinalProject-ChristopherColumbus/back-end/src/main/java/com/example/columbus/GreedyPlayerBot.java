@@ -0,0 +1,72 @@
+package com.example.columbus;
+
+import java.util.SplittableRandom;
+
+/**
+ * Bot that heads straight for the treasure, stepping around islands,
+ * sea monsters and pirates it would run into. Now and then it takes a random
+ * safe step instead, so it does not get stuck behind a wall of islands.
+ */
+public class GreedyPlayerBot implements PlayerBot {
+
+    private static final String[] DIRECTIONS = { "up", "down", "left", "right" };
+    private static final int[][] STEPS = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 } };
+    private static final double WANDER_CHANCE = 0.2; // Chance of a random safe step
+
+    private final SplittableRandom random;
+
+    public GreedyPlayerBot() {
+        this(new SplittableRandom());
+    }
+
+    // Same seed, same choices for the same world
+    public GreedyPlayerBot(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    private GreedyPlayerBot(SplittableRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public String nextMove(WorldView world) {
+        int[] cc = world.getCcPosition();
+        int[] treasure = world.getTreasurePosition();
+
+        if (random.nextDouble() >= WANDER_CHANCE) {
+            // Close the bigger gap first, then the other one
+            int rowGap = treasure[0] - cc[0];
+            int colGap = treasure[1] - cc[1];
+            int vertical = rowGap < 0 ? 0 : 1; // up : down
+            int horizontal = colGap < 0 ? 2 : 3; // left : right
+            int first = Math.abs(rowGap) >= Math.abs(colGap) ? vertical : horizontal;
+            int second = first == vertical ? horizontal : vertical;
+            if (gap(first, rowGap, colGap) != 0 && isSafe(world, cc, first))
+                return DIRECTIONS[first];
+            if (gap(second, rowGap, colGap) != 0 && isSafe(world, cc, second))
+                return DIRECTIONS[second];
+        }
+
+        // Random safe step, starting from a random direction
+        int start = random.nextInt(DIRECTIONS.length);
+        for (int i = 0; i < DIRECTIONS.length; i++) {
+            int d = (start + i) % DIRECTIONS.length;
+            if (isSafe(world, cc, d))
+                return DIRECTIONS[d];
+        }
+        return DIRECTIONS[start]; // Boxed in, nothing is safe
+    }
+
+    // Distance still to go along direction's axis
+    private static int gap(int direction, int rowGap, int colGap) {
+        return direction < 2 ? rowGap : colGap;
+    }
+
+    // True if step stays on grid and does not hit island, monster or pirate
+    private static boolean isSafe(WorldView world, int[] cc, int direction) {
+        int row = cc[0] + STEPS[direction][0];
+        int col = cc[1] + STEPS[direction][1];
+        return world.inBounds(row, col) && !world.isIsland(row, col)
+                && !world.hasMonster(row, col) && !world.hasPirate(row, col);
+    }
+}
@@ -43,6 +43,22 @@ public class InvisibleColumbusDecorator implements ColumbusShip {
         }
     }
 
+    // Turns of invisibility left
+    public int getRemainingTurns() {
+        return remainingTurns;
+    }
+
+    // Ship under this cloak (may be cloaked itself)
+    public ColumbusShip getWrappedShip() {
+        return wrappedShip;
+    }
+
+    // Copies wrapped ship too, so cloak and ship stay together
+    @Override
+    public ColumbusShip copy() {
+        return new InvisibleColumbusDecorator(wrappedShip.copy(), remainingTurns);
+    }
+
     /*
      * If invisibility expired, unwrap and return the original ship.
      * Otherwise, return the decorator (still invisible)
@@ -0,0 +1,104 @@
+package com.example.columbus;
+
+/**
+ * One record read back from the EventJournal.
+ * Fields that do not belong to the record's type are left at their defaults.
+ */
+public class JournalRecord {
+
+    private final byte type; // One of EventJournal's record types
+    private final long gameId;
+    private final long timeMillis;
+
+    // START
+    private int width;
+    private int height;
+    private long seed; // Also RESTART's world seed
+    private String sessionId;
+
+    // MOVE
+    private String direction;
+
+    // MOVE, TICK and COLLISION
+    private String collision;
+
+    // TICK
+    private int tickKind;
+    private boolean changed;
+
+    public JournalRecord(byte type, long gameId, long timeMillis) {
+        this.type = type;
+        this.gameId = gameId;
+        this.timeMillis = timeMillis;
+    }
+
+    void setStart(int width, int height, long seed, String sessionId) {
+        this.width = width;
+        this.height = height;
+        this.seed = seed;
+        this.sessionId = sessionId;
+    }
+
+    void setRestart(long worldSeed) {
+        this.seed = worldSeed;
+    }
+
+    void setMove(String direction, String collision) {
+        this.direction = direction;
+        this.collision = collision;
+    }
+
+    void setTick(int tickKind, boolean changed, String collision) {
+        this.tickKind = tickKind;
+        this.changed = changed;
+        this.collision = collision;
+    }
+
+    void setCollision(String collision) {
+        this.collision = collision;
+    }
+
+    public byte getType() {
+        return type;
+    }
+
+    public long getGameId() {
+        return gameId;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public String getDirection() {
+        return direction;
+    }
+
+    public String getCollision() {
+        return collision;
+    }
+
+    public int getTickKind() {
+        return tickKind;
+    }
+
+    public boolean isChanged() {
+        return changed;
+    }
+}
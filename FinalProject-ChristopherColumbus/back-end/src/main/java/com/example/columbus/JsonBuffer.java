@@ -0,0 +1,273 @@
+package com.example.columbus;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Small JSON writer that appends straight into a reusable byte array.
+ * Numbers are written digit by digit, so writing game state allocates nothing
+ * once the buffer has grown to fit. Buffers are pooled and returned to the pool
+ * when the HTTP response that sends them is closed.
+ */
+public class JsonBuffer {
+
+    private static final int MAX_POOLED = 64; // Buffers kept for reuse
+    private static final int MAX_DEPTH = 32; // Deepest nesting supported
+    private static final Queue<JsonBuffer> POOL = new ConcurrentLinkedQueue<>();
+
+    private byte[] bytes = new byte[1024];
+    private int size = 0;
+    private final boolean[] needsComma = new boolean[MAX_DEPTH]; // Per nesting level
+    private int depth = 0;
+    private boolean afterName = false; // Next value belongs to a name just written
+
+    // Takes a cleared buffer from pool (or a new one if pool is empty)
+    public static JsonBuffer acquire() {
+        JsonBuffer buffer = POOL.poll();
+        if (buffer == null) {
+            buffer = new JsonBuffer();
+        }
+        buffer.reset();
+        return buffer;
+    }
+
+    // Gives buffer back to pool; it must not be used afterwards
+    public void release() {
+        if (POOL.size() < MAX_POOLED) {
+            POOL.offer(this);
+        }
+    }
+
+    // Clears content so buffer can be reused
+    public void reset() {
+        size = 0;
+        depth = 0;
+        afterName = false;
+        needsComma[0] = false;
+    }
+
+    public JsonBuffer beginObject() {
+        beforeValue();
+        append('{');
+        push();
+        return this;
+    }
+
+    public JsonBuffer endObject() {
+        depth--;
+        append('}');
+        return this;
+    }
+
+    public JsonBuffer beginArray() {
+        beforeValue();
+        append('[');
+        push();
+        return this;
+    }
+
+    public JsonBuffer endArray() {
+        depth--;
+        append(']');
+        return this;
+    }
+
+    // Writes an object member name (names are plain ASCII identifiers)
+    public JsonBuffer name(String name) {
+        beforeValue();
+        append('"');
+        appendAscii(name);
+        append('"');
+        append(':');
+        afterName = true;
+        return this;
+    }
+
+    public JsonBuffer value(long value) {
+        beforeValue();
+        appendNumber(value);
+        return this;
+    }
+
+    public JsonBuffer value(boolean value) {
+        beforeValue();
+        appendAscii(value ? "true" : "false");
+        return this;
+    }
+
+    // Writes a string value, or null
+    public JsonBuffer value(String value) {
+        beforeValue();
+        if (value == null) {
+            appendAscii("null");
+            return this;
+        }
+        append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                append('\\');
+                append(c);
+            } else if (c < 0x20 || c > 0x7e) {
+                appendUnicodeEscape(c); // Keeps buffer pure ASCII
+            } else {
+                append(c);
+            }
+        }
+        append('"');
+        return this;
+    }
+
+    // Writes a [row, col] position
+    public JsonBuffer position(int row, int col) {
+        beginArray();
+        value(row);
+        value(col);
+        return endArray();
+    }
+
+    public JsonBuffer position(int[] position) {
+        return position(position[0], position[1]);
+    }
+
+    // Appends text as is, without JSON structure (e.g. SSE framing)
+    public JsonBuffer raw(String ascii) {
+        appendAscii(ascii);
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(bytes, 0, size);
+    }
+
+    // Copy of content, for keeping after buffer is reused
+    public byte[] toByteArray() {
+        return Arrays.copyOf(bytes, size);
+    }
+
+    // Copies content to out starting at given offset, returns bytes copied
+    public int copyTo(int from, byte[] out, int off, int len) {
+        int n = Math.min(len, size - from);
+        System.arraycopy(bytes, from, out, off, n);
+        return n;
+    }
+
+    /*
+     * Stream over content for an HTTP response body.
+     * Closing it (NanoHTTPD does, after sending) releases buffer to pool.
+     */
+    public InputStream toInputStream() {
+        return new InputStream() {
+            private int offset = 0;
+            private boolean closed = false;
+
+            @Override
+            public int read() {
+                return offset < size ? bytes[offset++] & 0xff : -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (offset >= size)
+                    return -1;
+                int n = copyTo(offset, b, off, len);
+                offset += n;
+                return n;
+            }
+
+            @Override
+            public int available() {
+                return size - offset;
+            }
+
+            @Override
+            public void close() {
+                if (!closed) {
+                    closed = true;
+                    release();
+                }
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, 0, size, StandardCharsets.US_ASCII);
+    }
+
+    // Adds comma between values, except right after a name
+    private void beforeValue() {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (needsComma[depth]) {
+            append(',');
+        }
+        needsComma[depth] = true;
+    }
+
+    private void push() {
+        depth++;
+        needsComma[depth] = false;
+    }
+
+    private void appendNumber(long value) {
+        if (value == Long.MIN_VALUE) {
+            appendAscii(Long.toString(value));
+            return;
+        }
+        if (value < 0) {
+            append('-');
+            value = -value;
+        }
+        // Count digits, then write them backwards into place
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        ensureCapacity(digits);
+        for (int i = size + digits - 1; i >= size; i--) {
+            bytes[i] = (byte) ('0' + (value % 10));
+            value /= 10;
+        }
+        size += digits;
+    }
+
+    private void appendUnicodeEscape(char c) {
+        final String hex = "0123456789abcdef";
+        append('\\');
+        append('u');
+        append(hex.charAt((c >> 12) & 0xf));
+        append(hex.charAt((c >> 8) & 0xf));
+        append(hex.charAt((c >> 4) & 0xf));
+        append(hex.charAt(c & 0xf));
+    }
+
+    private void appendAscii(String s) {
+        ensureCapacity(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            bytes[size++] = (byte) s.charAt(i);
+        }
+    }
+
+    private void append(char c) {
+        ensureCapacity(1);
+        bytes[size++] = (byte) c;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.columbus;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps a few ready-made world layouts per grid size, so restarting a game
+ * takes a layout in O(1) instead of placing every entity on the request thread.
+ * A background thread generates layouts (each from a fresh world seed) and
+ * tops each size's pool back up after every take.
+ * Pools exist for at most maxConfigs grid sizes; other sizes, and an empty pool,
+ * get a layout generated right away on the caller's thread.
+ * Pooled worlds come from seeds nobody chose, so games with a chosen seed
+ * never take them (see Game.setSeeded).
+ */
+public class MapPool {
+
+    private static final int DEFAULT_LAYOUTS = 16; // Ready layouts kept per grid size
+    private static final int DEFAULT_CONFIGS = 8; // Grid sizes with a pool
+
+    // Pool shared by all games of this JVM
+    private static final MapPool SHARED = new MapPool(DEFAULT_LAYOUTS, DEFAULT_CONFIGS);
+
+    private final int layoutsPerConfig;
+    private final int maxConfigs;
+    private final ConcurrentMap<Long, BlockingQueue<WorldLayout>> pools = new ConcurrentHashMap<>(); // By grid size
+    private final Set<Long> refilling = ConcurrentHashMap.newKeySet(); // Sizes with a refill queued or running
+    private final ExecutorService generator;
+
+    public MapPool(int layoutsPerConfig, int maxConfigs) {
+        this.layoutsPerConfig = layoutsPerConfig;
+        this.maxConfigs = maxConfigs;
+        this.generator = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "map-pool");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY); // Requests come first
+            return t;
+        });
+    }
+
+    // Returns pool shared by all games
+    public static MapPool getShared() {
+        return SHARED;
+    }
+
+    /*
+     * A fresh layout for given grid size; comes from pool when one is ready,
+     * and pool is refilled in background either way
+     */
+    public WorldLayout take(int width, int height) {
+        BlockingQueue<WorldLayout> pool = poolFor(width, height);
+        WorldLayout layout = pool == null ? null : pool.poll();
+        if (pool != null)
+            refill(width, height, pool);
+        return layout != null ? layout : WorldLayout.generate(width, height, GameStateManager.newSeed());
+    }
+
+    // Starts filling pool for given grid size ahead of first take
+    public void prepare(int width, int height) {
+        BlockingQueue<WorldLayout> pool = poolFor(width, height);
+        if (pool != null)
+            refill(width, height, pool);
+    }
+
+    // Layouts ready for given grid size
+    public int getReadyCount(int width, int height) {
+        BlockingQueue<WorldLayout> pool = pools.get(key(width, height));
+        return pool == null ? 0 : pool.size();
+    }
+
+    // Pool of given grid size, created on first use; null once maxConfigs sizes have one
+    private BlockingQueue<WorldLayout> poolFor(int width, int height) {
+        long key = key(width, height);
+        BlockingQueue<WorldLayout> pool = pools.get(key);
+        if (pool == null && pools.size() < maxConfigs) {
+            pool = pools.computeIfAbsent(key, k -> new ArrayBlockingQueue<>(layoutsPerConfig));
+        }
+        return pool;
+    }
+
+    // Queues a refill of given pool unless one is queued already
+    private void refill(int width, int height, BlockingQueue<WorldLayout> pool) {
+        long key = key(width, height);
+        if (pool.remainingCapacity() == 0 || !refilling.add(key))
+            return;
+        generator.execute(() -> {
+            try {
+                while (pool.remainingCapacity() > 0) {
+                    pool.offer(WorldLayout.generate(width, height, GameStateManager.newSeed()));
+                }
+            } finally {
+                refilling.remove(key);
+            }
+            refill(width, height, pool); // A take may have come in after loop ended
+        });
+    }
+
+    private static long key(int width, int height) {
+        return ((long) width << 32) | height;
+    }
+}
@@ -1,20 +1,106 @@
 package com.example.columbus;
 
-import java.util.concurrent.*;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Controls scheduled movement of dynamic entities like sea monsters and patrol pirates
- * Uses ScheduledExecutorService to run movement logic periodically
+ * Uses shared TickEngine to run movement logic periodically
  */
 public class MovementController {
-    private ScheduledExecutorService monsterExec; // Scheduler for sea monsters
+    public static final long MOVE_PERIOD_MILLIS = 3000; // Monsters and patrol pirate move every 3 seconds
+
+    // Kinds of tick, as passed to TickListener
+    public static final int MONSTER_TICK = 0;
+    public static final int PATROL_TICK = 1;
+
+    // Told about every tick, whether it changed anything or not (called under game's lock)
+    public interface TickListener {
+        void ticked(int kind, boolean changed);
+    }
+
+    private final TickEngine.Task monsterTask; // Tick task for sea monsters
     private EntityManager em;
     private GameStateManager gsm;
-    private ScheduledExecutorService patrolExec; // Scheduler for patrol pirate
+    private final TickEngine.Task patrolTask; // Tick task for patrol pirate
+    private volatile TickListener tickListener; // Optional, e.g. event journal
+    private volatile Executor runner = Runnable::run; // Where due ticks run (default: tick engine's worker)
+    private final AtomicBoolean monsterPending = new AtomicBoolean(); // Monster tick handed to runner, not run yet
+    private final AtomicBoolean patrolPending = new AtomicBoolean();
 
     public MovementController(GameStateManager gsm, EntityManager em) {
+        this(gsm, em, TickEngine.getShared(), new StateBroadcaster(gsm, em));
+    }
+
+    // Ticks that change something are published to broadcaster
+    public MovementController(GameStateManager gsm, EntityManager em, TickEngine engine,
+            StateBroadcaster broadcaster) {
+        this(gsm, em, engine, broadcaster::publish);
+    }
+
+    /*
+     * Ticks run on given engine (real time, or a manual clock in tests and simulations);
+     * onChange runs after every tick that changed something
+     */
+    public MovementController(GameStateManager gsm, EntityManager em, TickEngine engine, Runnable onChange) {
         this.gsm = gsm;
         this.em = em;
+        // Ticks take game's lock like player moves do, so a published snapshot is never half a move.
+        // A tick queued before its task was paused or cancelled (game suspended, see Game.suspend,
+        // which cancels under the same lock) does nothing when it finally runs
+        Runnable monsterTick = () -> {
+            synchronized (gsm) {
+                if (!isMonsterMovementActive())
+                    return;
+                gsm.settle(); // Pirates' reaction to CC's last move comes first
+                boolean changed = moveMonsters();
+                ticked(MONSTER_TICK, changed);
+                if (changed)
+                    onChange.run();
+            }
+        };
+        Runnable patrolTick = () -> {
+            synchronized (gsm) {
+                if (!isPatrollingPirateActive())
+                    return;
+                gsm.settle();
+                boolean changed = movePatrolPirate();
+                ticked(PATROL_TICK, changed);
+                if (changed)
+                    onChange.run();
+            }
+        };
+        this.monsterTask = engine.schedule(() -> submit(monsterPending, monsterTick), MOVE_PERIOD_MILLIS);
+        this.patrolTask = engine.schedule(() -> submit(patrolPending, patrolTick), MOVE_PERIOD_MILLIS);
+    }
+
+    /*
+     * Hands a due tick to runner unless one of its kind is still waiting there:
+     * a game whose runner falls behind skips ticks instead of piling them up
+     */
+    private void submit(AtomicBoolean pending, Runnable tick) {
+        if (!pending.compareAndSet(false, true))
+            return;
+        runner.execute(() -> {
+            pending.set(false); // Next due tick may queue while this one runs
+            tick.run();
+        });
+    }
+
+    // Hands due ticks to given runner, e.g. a game's mailbox, instead of running them right away
+    public void setRunner(Executor runner) {
+        this.runner = runner;
+    }
+
+    public void setTickListener(TickListener tickListener) {
+        this.tickListener = tickListener;
+    }
+
+    private void ticked(int kind, boolean changed) {
+        TickListener listener = tickListener;
+        if (listener != null)
+            listener.ticked(kind, changed);
     }
 
     // Starts all periodic movement
@@ -25,60 +111,30 @@ public class MovementController {
 
     // Schedules movement for sea monsters every 3 seconds
     public void startMonsterMovement() {
-        stopMonsterMovement();  // Ensure old executor is gone before creating new one
-        monsterExec = Executors.newSingleThreadScheduledExecutor();
-        monsterExec.scheduleAtFixedRate(() -> moveMonsters(), 3, 3, TimeUnit.SECONDS);
+        monsterTask.resume();
     }
 
-    // Cancels monster movement scheduler if running
+    // Pauses monster movement
     public void stopMonsterMovement() {
-        if (monsterExec != null && !monsterExec.isShutdown()) {
-            monsterExec.shutdownNow();
-        }
+        monsterTask.pause();
     }
 
-    /*
-     * Move patrolling pirate according to strategy.
-     * It moves vertically, patrolling each column from 
-     * top to bottom (or bottom to top), then moves to next column. 
-     * When reaches vertices of grid(top-left) (top-right) (bottom-left) (bottom-right),
-     * it reverses its direction
-     * 
-     * This method is called periodically by scheduler.
-     */
+    // Schedules movement for patrol pirate every 3 seconds
     public void startPatrollingPirate() {
+        patrolTask.resume();
+    }
 
-        stopPatrollingPirate(); // Ensures only one executor runs
-
-        if (em.getPatrolPirate() == null)
-            return;
-
-        patrolExec = Executors.newSingleThreadScheduledExecutor();
-        patrolExec.scheduleAtFixedRate(() -> {
-
-            if (gsm.getCollisionStatus() != null) return; // Skip if modal is active
-
-            em.getPatrolPirate().move(); // Move patrol pirate based on strategy
-
-            int[] cc = gsm.getCcPosition();
-            int[] piratePos = em.getPatrolPirate().getPosition();
-
-            // Check if patrol pirate collides or is adjacent to CC
-            int dx = Math.abs(piratePos[0] - cc[0]);
-            int dy = Math.abs(piratePos[1] - cc[1]);
-
-            if (dx <= 1 && dy <= 1) { // same or adjacent (including diagonals)
-                gsm.setCollisionStatus("pirate"); // Inform frontend of collision
-            }
+    // Pauses patrol pirate movement
+    public void stopPatrollingPirate() {
+        patrolTask.pause();
+    }
 
-        }, 3, 3, TimeUnit.SECONDS);
+    public boolean isMonsterMovementActive() {
+        return monsterTask.isActive();
     }
 
-    //  Cancels patrol pirate movement scheduler if running
-    public void stopPatrollingPirate() {
-        if (patrolExec != null) {
-            patrolExec.shutdownNow();
-        }
+    public boolean isPatrollingPirateActive() {
+        return patrolTask.isActive();
     }
 
     // Stops all scheduled movement tasks
@@ -86,7 +142,7 @@ public class MovementController {
         stopMonsterMovement();
         stopPatrollingPirate();
     }
-    
+
     // Resumes movement tasks after a pause or restart
     public void resumeAll() {
         startMonsterMovement();
@@ -98,11 +154,64 @@ public class MovementController {
         stopAll();       // Ensures old ones are gone
         startAll();      // Starts new ones
     }
-   
-    // Moves each monster one step based on its movement logic
-    public void moveMonsters() {
-        for (Entity e : em.getMonsters()) {
-            e.move();
+
+    // Removes movement tasks from tick engine for good
+    public void shutdown() {
+        monsterTask.cancel();
+        patrolTask.cancel();
+    }
+
+    // Moves each monster one step based on its movement logic, returns true if any monster moved
+    public boolean moveMonsters() {
+        boolean moved = false;
+        WorldView world = gsm.getWorldView(); // Same read-only view for every monster this tick
+        List<Entity> monsters = em.getMonsters();
+        for (int i = 0; i < monsters.size(); i++) {
+            Entity e = monsters.get(i);
+            int[] before = e.getPosition();
+            int row = before[0], col = before[1]; // Monsters update position array in place
+            e.move(world);
+            int[] after = e.getPosition();
+            if (after[0] != row || after[1] != col) {
+                moved = true;
+            }
+        }
+        return moved;
+    }
+
+    /*
+     * Move patrolling pirate according to strategy.
+     * It moves vertically, patrolling each column from
+     * top to bottom (or bottom to top), then moves to next column.
+     * When reaches vertices of grid(top-left) (top-right) (bottom-left) (bottom-right),
+     * it reverses its direction
+     *
+     * This method is called periodically by tick engine.
+     * Returns true if patrol pirate moved or caught CC.
+     */
+    public boolean movePatrolPirate() {
+
+        if (em.getPatrolPirate() == null)
+            return false;
+
+        if (gsm.getCollisionStatus() != null) return false; // Skip if modal is active
+
+        int[] before = em.getPatrolPirate().getPosition();
+        em.getPatrolPirate().move(gsm.getWorldView()); // Move patrol pirate based on strategy
+
+        int[] cc = gsm.getCcPosition();
+        int[] piratePos = em.getPatrolPirate().getPosition();
+        boolean changed = piratePos[0] != before[0] || piratePos[1] != before[1]
+                || gsm.getCollisionStatus() != null; // Strategy may have hijacked CC
+
+        // Check if patrol pirate collides or is adjacent to CC
+        int dx = Math.abs(piratePos[0] - cc[0]);
+        int dy = Math.abs(piratePos[1] - cc[1]);
+
+        if (dx <= 1 && dy <= 1) { // same or adjacent (including diagonals)
+            gsm.setCollisionStatus("pirate"); // Inform frontend of collision
+            changed = true;
         }
+        return changed;
     }
-}
\ No newline at end of file
+}
@@ -6,5 +6,5 @@ package com.example.columbus;
  * to change their movement algorithm at runtime
  */
 public interface MovementStrategy {
-    public void move(PirateShip ship);
+    public void move(PirateShip ship, WorldView world); // World is read-only, ship moves itself via setPosition
 }
\ No newline at end of file
@@ -16,6 +16,11 @@ public class ObserverManager {
         observers.add(o);
     }
 
+    // Registered observers, in notification order
+    public List<Observer> getObservers() {
+        return observers;
+    }
+
     // Notifies all observers of new CC ship position
     public void notifyObservers(int[] ccPosition) {
         for (Observer o : observers) {
@@ -0,0 +1,168 @@
+package com.example.columbus;
+
+/**
+ * Tracks occupied grid cells as one bitset per layer (island, monster, pirate,
+ * treasure, Columbus). The grid is split into 64 x 64 cell chunks that are only
+ * allocated once something is set in them, and dropped again when emptied, so
+ * memory follows the occupied area rather than width * height.
+ * Lookups are allocation-free; a cell is occupied if any layer has its bit set.
+ */
+public class OccupancyGrid {
+
+    // Layers of the grid
+    public static final int ISLAND = 0;
+    public static final int MONSTER = 1;
+    public static final int PIRATE = 2;
+    public static final int TREASURE = 3;
+    public static final int COLUMBUS = 4;
+    private static final int LAYER_COUNT = 5;
+
+    private static final int CHUNK_SHIFT = 6; // 64 x 64 cells per chunk
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+    private static final int WORDS_PER_LAYER = (1 << (2 * CHUNK_SHIFT)) / 64; // One bit per cell
+    private static final int COUNT_WORD = LAYER_COUNT * WORDS_PER_LAYER; // Last word of chunk: bits set in it
+
+    private final int width;
+    private final int height;
+    private final long chunksPerRow;
+    private final ChunkTable<long[]> chunks; // Chunk words: layer * WORDS_PER_LAYER + word
+
+    public OccupancyGrid(int width, int height) {
+        this(width, height, new ChunkTable<>());
+    }
+
+    private OccupancyGrid(int width, int height, ChunkTable<long[]> chunks) {
+        this.width = width;
+        this.height = height;
+        this.chunksPerRow = (width + CHUNK_MASK) >>> CHUNK_SHIFT;
+        this.chunks = chunks;
+    }
+
+    // Independent grid with same cells set
+    public OccupancyGrid copy() {
+        return new OccupancyGrid(width, height, chunks.copy(long[]::clone));
+    }
+
+    // True if any layer occupies cell; cells outside grid are never occupied
+    public boolean isOccupied(int row, int col) {
+        if (!inBounds(row, col))
+            return false;
+        long[] chunk = chunks.get(chunkOf(row, col));
+        if (chunk == null)
+            return false;
+        int bit = bitOf(row, col);
+        long mask = 1L << bit;
+        for (int layer = 0; layer < LAYER_COUNT; layer++) {
+            if ((chunk[layer * WORDS_PER_LAYER + (bit >>> 6)] & mask) != 0)
+                return true;
+        }
+        return false;
+    }
+
+    // True if given layer occupies cell
+    public boolean isOccupied(int row, int col, int layer) {
+        if (!inBounds(row, col))
+            return false;
+        long[] chunk = chunks.get(chunkOf(row, col));
+        if (chunk == null)
+            return false;
+        int bit = bitOf(row, col);
+        return (chunk[layer * WORDS_PER_LAYER + (bit >>> 6)] & (1L << bit)) != 0;
+    }
+
+    public void set(int row, int col, int layer) {
+        if (!inBounds(row, col))
+            return;
+        long key = chunkOf(row, col);
+        long[] chunk = chunks.get(key);
+        if (chunk == null) {
+            chunk = new long[COUNT_WORD + 1];
+            chunks.put(key, chunk);
+        }
+        int bit = bitOf(row, col);
+        int word = layer * WORDS_PER_LAYER + (bit >>> 6);
+        long mask = 1L << bit;
+        if ((chunk[word] & mask) == 0) {
+            chunk[word] |= mask;
+            chunk[COUNT_WORD]++;
+        }
+    }
+
+    public void clear(int row, int col, int layer) {
+        if (!inBounds(row, col))
+            return;
+        long key = chunkOf(row, col);
+        long[] chunk = chunks.get(key);
+        if (chunk == null)
+            return;
+        int bit = bitOf(row, col);
+        int word = layer * WORDS_PER_LAYER + (bit >>> 6);
+        long mask = 1L << bit;
+        if ((chunk[word] & mask) != 0) {
+            chunk[word] &= ~mask;
+            if (--chunk[COUNT_WORD] == 0)
+                chunks.remove(key); // Empty chunk, give memory back
+        }
+    }
+
+    // Told about each occupied cell, with a bit (1 << layer) for every layer occupying it
+    public interface CellVisitor {
+        void visit(int row, int col, int layers);
+    }
+
+    // Visits every occupied cell, chunk by chunk (order is not defined)
+    public void forEachOccupied(CellVisitor visitor) {
+        chunks.forEach((key, chunk) -> {
+            int rowBase = (int) (key / chunksPerRow) << CHUNK_SHIFT;
+            int colBase = (int) (key % chunksPerRow) << CHUNK_SHIFT;
+            for (int word = 0; word < WORDS_PER_LAYER; word++) {
+                long any = 0;
+                for (int layer = 0; layer < LAYER_COUNT; layer++) {
+                    any |= chunk[layer * WORDS_PER_LAYER + word];
+                }
+                while (any != 0) {
+                    int bit = (word << 6) + Long.numberOfTrailingZeros(any);
+                    any &= any - 1;
+                    int layers = 0;
+                    for (int layer = 0; layer < LAYER_COUNT; layer++) {
+                        if ((chunk[layer * WORDS_PER_LAYER + word] & (1L << bit)) != 0)
+                            layers |= 1 << layer;
+                    }
+                    visitor.visit(rowBase + (bit >>> CHUNK_SHIFT), colBase + (bit & CHUNK_MASK), layers);
+                }
+            }
+        });
+    }
+
+    // Clears every layer
+    public void clearAll() {
+        chunks.clear();
+    }
+
+    // Chunks currently allocated
+    public int getChunkCount() {
+        return chunks.size();
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    // long math: row * width overflows int on the biggest worlds
+    private long chunkOf(int row, int col) {
+        return (row >>> CHUNK_SHIFT) * chunksPerRow + (col >>> CHUNK_SHIFT);
+    }
+
+    // Cell's bit within its chunk's layer
+    private static int bitOf(int row, int col) {
+        return ((row & CHUNK_MASK) << CHUNK_SHIFT) | (col & CHUNK_MASK);
+    }
+
+    private boolean inBounds(int row, int col) {
+        return row >= 0 && row < height && col >= 0 && col < width;
+    }
+}
@@ -16,6 +16,8 @@ public class PatrolPirateShip extends PirateShip {
     // Direction of column patrol (used to reverse patrol at edges)
     private int colDirection = 1; // +1 (right), -1 (left)
 
+    private PatrolRoute route; // Compiled by PatrolStrategy; not copied or saved, it is compiled again
+
     // Get column direction
     public int getColDirection() {
         return colDirection;
@@ -61,6 +63,26 @@ public class PatrolPirateShip extends PirateShip {
         this.row = row;
     }
 
+    // Get/Set compiled route of current map (null if none yet)
+    public PatrolRoute getRoute() {
+        return route;
+    }
+
+    public void setRoute(PatrolRoute route) {
+        this.route = route;
+    }
+
+    // Copy also carries patrol state
+    @Override
+    public PirateShip copy() {
+        PatrolPirateShip c = (PatrolPirateShip) super.copy();
+        c.mode = mode;
+        c.col = col;
+        c.row = row;
+        c.colDirection = colDirection;
+        return c;
+    }
+
     /*
      * Returns string type of this pirate ship for identification
      */
@@ -0,0 +1,120 @@
+package com.example.columbus;
+
+import java.util.Arrays;
+
+/**
+ * Patrol pirate's whole route on one map, worked out once: every state
+ * (cell plus column direction) it passes through from where it was, in order,
+ * ending in the loop it then keeps going round. A tick is then an index lookup
+ * into precompiled row, column and direction arrays, allocating nothing,
+ * instead of scanning columns past islands.
+ * Stays valid while islands, treasure (patrol may sail over it) and grid do;
+ * PatrolStrategy compiles a new one when they change or patrol is off route.
+ * States are packed as (row * width + col) * 2 + (colDirection > 0 ? 1 : 0).
+ */
+public class PatrolRoute {
+
+    static final int MAX_CELLS = 1 << 14; // Bigger grids are not compiled (route would cost too much memory)
+
+    private final int width;
+    private final int height;
+    private final long islandVersion;
+    private final int treasureRow;
+    private final int treasureCol;
+    private final int[] rows; // Row of each route state, in patrol order
+    private final int[] cols; // Column of each route state
+    private final byte[] colDirections; // Column direction of each route state
+    private final int loopStart; // Index route goes back to after its last state
+    private final int[] indexOf; // Route index + 1 of each state, 0 if not on route
+
+    private PatrolRoute(WorldView world, int[] route, int length, int loopStart, int[] indexOf) {
+        int width = world.getWidth();
+        this.width = width;
+        this.height = world.getHeight();
+        this.islandVersion = world.getIslandVersion();
+        this.treasureRow = world.getTreasurePosition()[0];
+        this.treasureCol = world.getTreasurePosition()[1];
+        this.rows = new int[length];
+        this.cols = new int[length];
+        this.colDirections = new byte[length];
+        for (int i = 0; i < length; i++) {
+            int cell = route[i] >>> 1;
+            rows[i] = cell / width;
+            cols[i] = cell % width;
+            colDirections[i] = (byte) ((route[i] & 1) != 0 ? 1 : -1);
+        }
+        this.loopStart = loopStart;
+        this.indexOf = indexOf;
+    }
+
+    // True if grid is small enough to compile routes for
+    public static boolean fits(WorldView world) {
+        return (long) world.getWidth() * world.getHeight() <= MAX_CELLS;
+    }
+
+    /*
+     * Route from given patrol state on world's current map, following
+     * PatrolStrategy.next until it comes back to a state it already passed
+     */
+    public static PatrolRoute compile(int row, int col, int colDirection, WorldView world) {
+        int width = world.getWidth();
+        int[] indexOf = new int[width * world.getHeight() * 2];
+        int[] route = new int[16];
+        int length = 0;
+        int state = pack(row, col, colDirection, width);
+        while (indexOf[state] == 0) {
+            if (length == route.length)
+                route = Arrays.copyOf(route, length * 2);
+            route[length++] = state;
+            indexOf[state] = length;
+            int[] next = PatrolStrategy.next(row, col, colDirection, world);
+            row = next[0];
+            col = next[1];
+            colDirection = next[2];
+            state = pack(row, col, colDirection, width);
+        }
+        return new PatrolRoute(world, route, length, indexOf[state] - 1, indexOf);
+    }
+
+    // True if this route was compiled for world's current map
+    public boolean isValidFor(WorldView world) {
+        int[] treasure = world.getTreasurePosition();
+        return world.getWidth() == width && world.getHeight() == height
+                && world.getIslandVersion() == islandVersion
+                && treasure[0] == treasureRow && treasure[1] == treasureCol;
+    }
+
+    /*
+     * Route index of state after given one (read it with rowAt, colAt and
+     * colDirectionAt), or -1 if given state is not on this route
+     */
+    public int next(int row, int col, int colDirection) {
+        if (row < 0 || row >= height || col < 0 || col >= width)
+            return -1;
+        int index = indexOf[pack(row, col, colDirection, width)] - 1;
+        if (index < 0)
+            return -1;
+        return index + 1 < rows.length ? index + 1 : loopStart;
+    }
+
+    public int rowAt(int index) {
+        return rows[index];
+    }
+
+    public int colAt(int index) {
+        return cols[index];
+    }
+
+    public int colDirectionAt(int index) {
+        return colDirections[index];
+    }
+
+    // States on route (start up to loop, plus loop)
+    public int length() {
+        return rows.length;
+    }
+
+    private static int pack(int row, int col, int colDirection, int width) {
+        return (row * width + col) * 2 + (colDirection > 0 ? 1 : 0);
+    }
+}
@@ -6,135 +6,105 @@ package com.example.columbus;
  */
 public class PatrolStrategy implements MovementStrategy {
 
-    /*
-     * Check if grid cell has an island
-     */
-    private boolean isIsland(Game game, int row, int col) {
-        for (int[] island : game.getState().getIslands()) {
-            if (island[0] == row && island[1] == col)
-                return true;
-        }
-        return false;
-    }
-
     // Movement logic
     @Override
-    public void move(PirateShip ship) {
-        if (!(ship instanceof PatrolPirateShip)) 
+    public void move(PirateShip ship, WorldView world) {
+        if (!(ship instanceof PatrolPirateShip))
             return;
         PatrolPirateShip patrol = (PatrolPirateShip) ship;
-        Game game = Game.getInstance();
 
         int[] current = patrol.getPosition();
-        int row = current[0];
-        int col = current[1];
         int colDirection = patrol.getColDirection(); // +1 (right) or -1 (left)
+        int row;
+        int col;
 
-        boolean goingDown = (col % 2 == 0); // Even columns: go down, odd columns: go up
-        int nextRow = row, nextCol = col;
-        // int lastCol = (colDirection == 1) ? 19 : 0;
-        int[] treasure = game.getState().getTreasurePosition();
+        // Follow compiled route when grid is small enough, compiling it again once map changed
+        if (PatrolRoute.fits(world)) {
+            PatrolRoute route = patrol.getRoute();
+            int index = -1;
+            if (route != null && route.isValidFor(world))
+                index = route.next(current[0], current[1], colDirection);
+            if (index < 0) { // No route yet, new map, or patrol was put somewhere else
+                route = PatrolRoute.compile(current[0], current[1], colDirection, world);
+                patrol.setRoute(route);
+                index = route.next(current[0], current[1], colDirection);
+            }
+            row = route.rowAt(index);
+            col = route.colAt(index);
+            colDirection = route.colDirectionAt(index);
+        } else {
+            int[] next = next(current[0], current[1], colDirection, world);
+            row = next[0];
+            col = next[1];
+            colDirection = next[2];
+        }
+        patrol.setColDirection(colDirection);
+        patrol.setPosition(new int[] { row, col });
 
-        // Move within the current column
-        if (goingDown) {
-            if (row < 19) {
+        // Handle collision with CC
+        int[] cc = world.getCcPosition();
+        if (row == cc[0] && col == cc[1]) {
+            patrol.getStateManager().hijackByPirate(); // Game change goes through pirate's own game
+        }
+    }
+
+    /*
+     * Where patrol goes from (row, col) heading colDirection: {row, col, colDirection}.
+     * Even columns are patrolled down, odd ones up, skipping stacked islands;
+     * at end of a column it moves to next one, turning back at grid edges.
+     */
+    static int[] next(int row, int col, int colDirection, WorldView world) {
+        int lastRow = world.getHeight() - 1;
+        int lastColumn = world.getWidth() - 1;
 
-                // Move down 1 cell
-                nextRow = row + 1;
-                if (!isIsland(game, nextRow, col) || (treasure[0] == nextRow && treasure[1] == col)) {
-                    patrol.setPosition(new int[] { nextRow, col });
-                    return;
-                } else {
+        boolean goingDown = (col % 2 == 0); // Even columns: go down, odd columns: go up
 
-                    // Skip over stacked islands
-                    boolean moved = false;
-                    for (int scanRow = nextRow + 1; scanRow <= 19; scanRow++) {
-                        if (!isIsland(game, scanRow, col) || (treasure[0] == scanRow && treasure[1] == col)) {
-                            patrol.setPosition(new int[] { scanRow, col });
-                            moved = true;
-                            break;
-                        }
-                    }
-                    if (moved)
-                        return; // Stop if found a cell in column
-                    // Else go to next column below
-                }
+        // Move within the current column, skipping over stacked islands
+        if (goingDown) {
+            for (int scanRow = row + 1; scanRow <= lastRow; scanRow++) {
+                if (isOpen(world, scanRow, col))
+                    return new int[] { scanRow, col, colDirection };
             }
-        } 
-        
-        // Go up odd columns
-        else {
-            if (row > 0) {
-                // Try moving up
-                nextRow = row - 1;
-                if (!isIsland(game, nextRow, col) || (treasure[0] == nextRow && treasure[1] == col)) {
-                    patrol.setPosition(new int[] { nextRow, col });
-                    return;
-                } else {
-                    // Try to skip further up if blocked by stacked islands
-                    boolean moved = false;
-                    for (int scanRow = nextRow - 1; scanRow >= 0; scanRow--) {
-                        if (!isIsland(game, scanRow, col) || (treasure[0] == scanRow && treasure[1] == col)) {
-                            patrol.setPosition(new int[] { scanRow, col });
-                            moved = true;
-                            break;
-                        }
-                    }
-                    if (moved)
-                        return; // Stop if found a cell in column
-                    // Else fall through to next column logic below
-                }
+        } else {
+            for (int scanRow = row - 1; scanRow >= 0; scanRow--) {
+                if (isOpen(world, scanRow, col))
+                    return new int[] { scanRow, col, colDirection };
             }
         }
 
         // At end of the column - move to next column
-        nextCol = col + colDirection;
+        int nextCol = col + colDirection;
 
         // If next col is out of grid, reverse direction and move in the other direction
-        if (nextCol < 0 || nextCol > 19) {
-            patrol.setColDirection(-colDirection);
-            nextCol = col + (-colDirection);
+        if (nextCol < 0 || nextCol > lastColumn) {
+            colDirection = -colDirection;
+            nextCol = col + colDirection;
             if (nextCol < 0)
                 nextCol = 0;
-            if (nextCol > 19)
-                nextCol = 19;
+            if (nextCol > lastColumn)
+                nextCol = lastColumn;
         }
 
         // Scan the whole next column for the first available cell
-        boolean moved = false;
         if (goingDown) {
-
             // Scan Bottom to top, if earlier going down
-            for (int scanRow = 19; scanRow >= 0; scanRow--) {
-                if (!isIsland(game, scanRow, nextCol) || 
-                    (treasure[0] == scanRow && treasure[1] == nextCol)) 
-                    {
-                    patrol.setPosition(new int[] { scanRow, nextCol });
-                    moved = true;
-                    break;
-                }
+            for (int scanRow = lastRow; scanRow >= 0; scanRow--) {
+                if (isOpen(world, scanRow, nextCol))
+                    return new int[] { scanRow, nextCol, colDirection };
             }
-        } 
-        else {
+        } else {
             // Scan Top to bottom, if earlier going up
-            for (int scanRow = 0; scanRow <= 19; scanRow++) {
-                if (!isIsland(game, scanRow, nextCol) || (treasure[0] == scanRow && treasure[1] == nextCol)) {
-                    patrol.setPosition(new int[] { scanRow, nextCol });
-                    moved = true;
-                    break;
-                }
+            for (int scanRow = 0; scanRow <= lastRow; scanRow++) {
+                if (isOpen(world, scanRow, nextCol))
+                    return new int[] { scanRow, nextCol, colDirection };
             }
         }
-        if (!moved)
-            patrol.setPosition(current); // All cells blocked, stay put
+        return new int[] { row, col, colDirection }; // All cells blocked, stay put
+    }
 
-        // Handle collision with CC
-        int[] cc = game.getState().getCcPosition();
-        int[] patrolPos = patrol.getPosition();
-        if (patrolPos[0] == cc[0] && patrolPos[1] == cc[1]) {
-            // game.hijackByPirate();
-            game.getGameStateManager().hijackByPirate();
-            return;
-        }
+    // Patrol may sail anywhere but islands (treasure cell always)
+    private static boolean isOpen(WorldView world, int row, int col) {
+        int[] treasure = world.getTreasurePosition();
+        return !world.isIsland(row, col) || (treasure[0] == row && treasure[1] == col);
     }
 }
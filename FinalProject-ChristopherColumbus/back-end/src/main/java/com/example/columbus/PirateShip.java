@@ -1,7 +1,5 @@
 package com.example.columbus;
 
-import java.util.Random;
-
 /**
  * Abstract class representing a pirate ship.
  * It implements Observer and Entity interfaces to allow it to be
@@ -12,13 +10,14 @@ public abstract class PirateShip implements Observer, Entity {
     protected int[] position; // Current pirate ship position
     protected MovementStrategy strategy; // Current movement strategy for pirate ship
     private int ignoreTurns = 0;
+    private transient GameStateManager stateManager; // State of game this pirate belongs to (not serialized)
 
     /*
-     * Constructor to initialize pirate ship at a random position within the grid
+     * Constructor to initialize pirate ship at top-left corner,
+     * EntityManager places it at a random position of its game
      */
     public PirateShip() {
-        Random random = new Random();
-        this.position = new int[] { random.nextInt(20), random.nextInt(20) };
+        this.position = new int[] { 0, 0 };
     }
 
     /*
@@ -34,7 +33,10 @@ public abstract class PirateShip implements Observer, Entity {
      */
     @Override
     public void setPosition(int[] position) {
+        int[] old = this.position;
         this.position = position;
+        if (stateManager != null)
+            stateManager.entityMoved(this, old[0], old[1]);
     }
 
     /*
@@ -51,11 +53,40 @@ public abstract class PirateShip implements Observer, Entity {
         return strategy;
     }
 
+    /*
+     * Copy of same type with same position, strategy and ignore turns,
+     * not yet in any game (strategies hold no state, so they are shared)
+     */
+    public PirateShip copy() {
+        PirateShip c = PirateShipFactory.createPirateShip(getType());
+        c.position = position.clone();
+        c.strategy = strategy;
+        c.ignoreTurns = ignoreTurns;
+        return c;
+    }
+
+    /*
+     * Get/Set game state this pirate ship belongs to
+     */
+    public GameStateManager getStateManager() {
+        return stateManager;
+    }
+
+    public void setStateManager(GameStateManager stateManager) {
+        this.stateManager = stateManager;
+    }
+
     /*
      * Move pirate ship according to current movement strategy
      */
     public void move() {
-        strategy.move(this);
+        if (stateManager != null)
+            move(stateManager.getWorldView());
+    }
+
+    @Override
+    public void move(WorldView world) {
+        strategy.move(this, world);
     }
 
     /*
@@ -76,6 +107,11 @@ public abstract class PirateShip implements Observer, Entity {
         this.ignoreTurns = turns;
     }
 
+    // CC turns left to ignore
+    public int getIgnoreTurns() {
+        return ignoreTurns;
+    }
+
     // Track if pirate is ignoring CC
     @Override
     public boolean isIgnoringColumbus() {
@@ -0,0 +1,11 @@
+package com.example.columbus;
+
+/**
+ * Plays CC ship in headless simulations (see Simulator).
+ * Strategy Design Pattern like MovementStrategy: the simulator asks the bot
+ * for the next direction, the bot only looks at the game through WorldView.
+ * A bot instance plays one game at a time, so it may keep its own state.
+ */
+public interface PlayerBot {
+    public String nextMove(WorldView world); // "up", "down", "left" or "right"
+}
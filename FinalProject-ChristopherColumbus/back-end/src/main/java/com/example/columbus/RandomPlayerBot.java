@@ -0,0 +1,32 @@
+package com.example.columbus;
+
+import java.util.SplittableRandom;
+
+/**
+ * Bot that moves CC in a random direction every turn, ignoring everything around it.
+ * Baseline for balancing: how often does a game end by pure chance.
+ */
+public class RandomPlayerBot implements PlayerBot {
+
+    private static final String[] DIRECTIONS = { "up", "down", "left", "right" };
+
+    private final SplittableRandom random;
+
+    public RandomPlayerBot() {
+        this(new SplittableRandom());
+    }
+
+    // Same seed, same sequence of moves
+    public RandomPlayerBot(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    private RandomPlayerBot(SplittableRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public String nextMove(WorldView world) {
+        return DIRECTIONS[random.nextInt(DIRECTIONS.length)];
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.columbus;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Rebuilds a journaled game from its seed and events, at CPU speed.
+ *
+ * Events are applied the way Game applies them (same GameStateManager,
+ * EntityManager and MovementController calls), and ticks run exactly where
+ * the journal recorded them, so state after every event is the live game's state.
+ * Each replayed move and tick outcome is compared against the recorded one;
+ * the first difference is kept as a mismatch.
+ *
+ * Every CHECKPOINT_INTERVAL moves, a copy of the whole game is kept, so seeking
+ * to turn N replays at most CHECKPOINT_INTERVAL moves from the nearest checkpoint.
+ *
+ * Usage: java com.example.columbus.ReplayEngine [journal dir] [threads]
+ * verifies every game of a journal directory.
+ */
+public class ReplayEngine {
+
+    public static final int CHECKPOINT_INTERVAL = 100; // Moves between checkpoints
+
+    // Replayed ticks are run by hand, so tasks on this engine are never started
+    private static final TickEngine NO_TICKS = TickEngine.manual(100, 1);
+
+    private final List<JournalRecord> records; // One game's records, START first
+    private final TreeMap<Integer, Checkpoint> checkpoints = new TreeMap<>(); // By turn
+
+    private GameStateManager gsm;
+    private EntityManager em;
+    private ObserverManager om;
+    private MovementController controller;
+    private int next; // Index of next record to apply
+    private int turn; // Moves applied so far
+    private String mismatch; // First difference from recorded outcomes, null if none
+
+    // Game state as it was right after a given move
+    private static class Checkpoint {
+        final GameStateManager gsm;
+        final ObserverManager om = new ObserverManager();
+        final int next;
+
+        Checkpoint(ReplayEngine replay) {
+            this.gsm = replay.gsm.copy(replay.om, om);
+            this.next = replay.next;
+        }
+    }
+
+    /*
+     * Replays one game's records in journal order; first record must be its START
+     */
+    public ReplayEngine(List<JournalRecord> records) {
+        if (records.isEmpty() || records.get(0).getType() != EventJournal.START)
+            throw new IllegalArgumentException("Game records must begin with START");
+        this.records = records;
+        JournalRecord start = records.get(0);
+
+        // Same steps as Game's constructor
+        GameStateManager gsm = new GameStateManager(start.getWidth(), start.getHeight(), start.getSeed());
+        EntityManager em = new EntityManager(gsm);
+        gsm.setEntityManager(em);
+        ObserverManager om = new ObserverManager();
+        em.initializeEntities(om);
+        use(gsm, om, 1);
+        checkpoints.put(0, new Checkpoint(this));
+    }
+
+    /*
+     * Applies next record; returns false if there was none left
+     */
+    public boolean step() {
+        if (next >= records.size())
+            return false;
+        JournalRecord record = records.get(next);
+        switch (record.getType()) {
+            case EventJournal.MOVE:
+                String collision = gsm.handleMove(record.getDirection(), em, om).getCollision();
+                check(record, "move " + record.getDirection(), record.getCollision(), collision);
+                break;
+            case EventJournal.TICK:
+                boolean changed = record.getTickKind() == MovementController.MONSTER_TICK
+                        ? controller.moveMonsters()
+                        : controller.movePatrolPirate();
+                check(record, "tick", record.isChanged() + " " + record.getCollision(),
+                        changed + " " + gsm.getCollisionStatus());
+                break;
+            case EventJournal.TOGGLE:
+                em.toggleStrategies();
+                break;
+            case EventJournal.CLOAK:
+                Game.cloak(gsm);
+                break;
+            case EventJournal.COLLISION:
+                gsm.setCollisionStatus(record.getCollision());
+                break;
+            case EventJournal.RESTART:
+                gsm.getRandom().nextLong(); // Live game drew a world seed too
+                Game.restart(gsm, om, WorldLayout.generate(gsm.getWidth(), gsm.getHeight(), record.getSeed()));
+                break;
+            default:
+                break; // START of another game or END: nothing to apply
+        }
+        next++;
+        if (record.getType() == EventJournal.MOVE) {
+            turn++;
+            if (turn % CHECKPOINT_INTERVAL == 0 && !checkpoints.containsKey(turn))
+                checkpoints.put(turn, new Checkpoint(this));
+        }
+        return true;
+    }
+
+    // Replays every remaining record
+    public void replayAll() {
+        while (step()) {
+        }
+    }
+
+    /*
+     * Moves to state right after the given move (0 = just started),
+     * backwards or forwards, starting from nearest checkpoint when that is closer
+     */
+    public void seek(int target) {
+        if (target < 0 || target > getMoveCount())
+            throw new IllegalArgumentException("Turn " + target + " is not in 0.." + getMoveCount());
+        Map.Entry<Integer, Checkpoint> nearest = checkpoints.floorEntry(target);
+        if (target < turn || nearest.getKey() > turn) {
+            Checkpoint checkpoint = nearest.getValue();
+            ObserverManager omCopy = new ObserverManager();
+            use(checkpoint.gsm.copy(checkpoint.om, omCopy), omCopy, checkpoint.next); // Checkpoint stays untouched
+            turn = nearest.getKey();
+        }
+        while (turn < target) {
+            step();
+        }
+    }
+
+    private void use(GameStateManager gsm, ObserverManager om, int next) {
+        this.gsm = gsm;
+        this.em = gsm.getEntityManager();
+        this.om = om;
+        this.controller = new MovementController(gsm, em, NO_TICKS, () -> {
+        });
+        this.next = next;
+    }
+
+    private void check(JournalRecord record, String what, String recorded, String replayed) {
+        if (mismatch == null && !equal(recorded, replayed)) {
+            mismatch = "record " + next + " (" + what + "): recorded " + recorded + ", replayed " + replayed;
+        }
+    }
+
+    private static boolean equal(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    // Number of moves in the game's records
+    public int getMoveCount() {
+        int moves = 0;
+        for (JournalRecord record : records) {
+            if (record.getType() == EventJournal.MOVE)
+                moves++;
+        }
+        return moves;
+    }
+
+    public int getTurn() {
+        return turn;
+    }
+
+    public boolean isAtEnd() {
+        return next >= records.size();
+    }
+
+    public String getMismatch() {
+        return mismatch;
+    }
+
+    public GameStateManager getStateManager() {
+        return gsm;
+    }
+
+    public EntityManager getEntityManager() {
+        return em;
+    }
+
+    /*
+     * Replays every game in a journal directory on given number of threads
+     * and checks each against its recorded outcomes.
+     * Segments are streamed: a game is handed to the threads as soon as its END
+     * is read (or its segment ends), so only games still open are held in memory
+     */
+    public static ReplayReport verify(Path dir, int threads) throws IOException {
+        // Small queue: reader runs a game itself rather than get far ahead of the threads
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(2 * threads), new ThreadPoolExecutor.CallerRunsPolicy());
+        ReplayReport total = new ReplayReport();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        long start = System.nanoTime();
+        try {
+            for (int shard = 0; Files.exists(EventJournal.segmentFile(dir, shard)); shard++) {
+                // A game's records all live in one shard, so read order is journal order
+                Map<Long, List<JournalRecord>> open = new LinkedHashMap<>();
+                EventJournal.read(EventJournal.segmentFile(dir, shard), record -> {
+                    List<JournalRecord> game = open.computeIfAbsent(record.getGameId(), id -> new ArrayList<>());
+                    game.add(record);
+                    if (record.getType() == EventJournal.END)
+                        pool.execute(verifier(open.remove(record.getGameId()), total, failure));
+                });
+                for (List<JournalRecord> game : open.values()) {
+                    pool.execute(verifier(game, total, failure));
+                }
+            }
+            pool.shutdown();
+            if (!pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS))
+                throw new IllegalStateException("Verification did not finish");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Verification interrupted", e);
+        } finally {
+            pool.shutdownNow();
+        }
+        if (failure.get() != null)
+            throw new IllegalStateException("Replay failed", failure.get());
+        total.setElapsedNanos(System.nanoTime() - start);
+        return total;
+    }
+
+    // Replays one game into its own report, then adds that to the total
+    private static Runnable verifier(List<JournalRecord> game, ReplayReport total, AtomicReference<Throwable> failure) {
+        return () -> {
+            try {
+                ReplayReport part = new ReplayReport();
+                verify(game, part);
+                synchronized (total) {
+                    total.merge(part);
+                }
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            }
+        };
+    }
+
+    // Replays one game and records whether it matched
+    private static void verify(List<JournalRecord> game, ReplayReport report) {
+        if (game.get(0).getType() != EventJournal.START) {
+            report.incomplete(); // Game started before journal did
+            return;
+        }
+        ReplayEngine replay = new ReplayEngine(game);
+        replay.replayAll();
+        report.replayed(game.get(0).getGameId(), game.size(), replay.getMismatch());
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Paths.get(args.length > 0 ? args[0] : "journal");
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        System.out.println(verify(dir, threads));
+    }
+}
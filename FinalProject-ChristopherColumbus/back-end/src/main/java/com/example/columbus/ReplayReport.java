@@ -0,0 +1,83 @@
+package com.example.columbus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of verifying journaled games by replaying them.
+ * Each replayed game fills its own report, which is merged into the total.
+ */
+public class ReplayReport {
+
+    private static final int MAX_FAILURES = 20; // Failures kept with their details
+
+    private long games = 0; // Games replayed
+    private long events = 0; // Records replayed
+    private long failed = 0; // Games whose replay differed from journal
+    private long incomplete = 0; // Games without START in journal, not replayed
+    private final List<String> failures = new ArrayList<>();
+    private long elapsedNanos = 0;
+
+    // One game replayed; mismatch is null if it matched its journal
+    public void replayed(long gameId, int records, String mismatch) {
+        games++;
+        events += records;
+        if (mismatch != null) {
+            failed++;
+            if (failures.size() < MAX_FAILURES)
+                failures.add("game " + Long.toHexString(gameId) + ": " + mismatch);
+        }
+    }
+
+    public void incomplete() {
+        incomplete++;
+    }
+
+    public void merge(ReplayReport other) {
+        games += other.games;
+        events += other.events;
+        failed += other.failed;
+        incomplete += other.incomplete;
+        for (String failure : other.failures) {
+            if (failures.size() < MAX_FAILURES)
+                failures.add(failure);
+        }
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getEvents() {
+        return events;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getIncomplete() {
+        return incomplete;
+    }
+
+    // First few failures, with where each game first differed
+    public List<String> getFailures() {
+        return failures;
+    }
+
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(games).append(" games (").append(events).append(" events) replayed in ")
+                .append(elapsedNanos / 1000000).append(" ms: ").append(games - failed).append(" matched, ")
+                .append(failed).append(" differed, ").append(incomplete).append(" incomplete");
+        for (String failure : failures) {
+            sb.append("\n  ").append(failure);
+        }
+        return sb.toString();
+    }
+}
@@ -1,8 +1,5 @@
 package com.example.columbus;
 
-import java.util.Random;
-import com.example.columbus.GameState.PirateShipState;
-
 /**
  * This class represents a sea monster in the game.
  */
@@ -11,6 +8,12 @@ public class SeaMonster implements Entity {
     private int[] position; // Current sea monster position (x,y)
     private int[] initialPosition; // Original spawn position
     private int ignoreTurns = 0;
+    private transient GameStateManager stateManager; // State of game this monster belongs to (not serialized)
+
+    // Possible moves around initial position (including staying there)
+    private static final int[][] POSSIBLE_MOVES = {
+            { 0, 0 }, { 0, -1 }, { 0, 1 }, { -1, 0 }, { 1, 0 }, { -1, -1 }, { -1, 1 }, { 1, -1 }, { 1, 1 }
+    };
 
     /*
      * Construct a sea monster at random position on grid
@@ -22,7 +25,14 @@ public class SeaMonster implements Entity {
 
     @Override
     public void move() {
-        moveMonster();
+        if (stateManager == null)
+            return; // Not placed in any game yet
+        move(stateManager.getWorldView());
+    }
+
+    @Override
+    public void move(WorldView world) {
+        moveMonster(world);
     }
 
     /*
@@ -30,65 +40,39 @@ public class SeaMonster implements Entity {
      * at most 1 cell away from initial cell in each direction and diagonally.
      * So, it is moving within a 3*3 grid around initial position
      */
-    private void moveMonster() {
-        Random random = new Random();
-        int[] ccPosition = Game.getInstance().getState().getCcPosition();
-        int[] newPosition = position.clone();
-
-        // Generate random movement within 1 cell range from initial position, possible moves
-        int[][] possibleMoves = {
-                { 0, 0 }, { 0, -1 }, { 0, 1 }, { -1, 0 }, { 1, 0 }, { -1, -1 }, { -1, 1 }, { 1, -1 }, { 1, 1 }
-        };
+    private void moveMonster(WorldView world) {
+        if (stateManager == null)
+            return; // Not placed in any game yet
+        GameRandom random = stateManager.getRandom(); // Game's own generator, so moves can be replayed
+        int[] ccPosition = world.getCcPosition();
 
         int maxAttempts = 20; // Limit the number of attempts to find a valid position (to prevent infinite trying)
         for (int i = 0; i < maxAttempts; i++) {
-            int[] move = possibleMoves[random.nextInt(possibleMoves.length)];
-            newPosition[0] = initialPosition[0] + move[0];
-            newPosition[1] = initialPosition[1] + move[1];
+            int[] move = POSSIBLE_MOVES[random.nextInt(POSSIBLE_MOVES.length)];
+            int newRow = initialPosition[0] + move[0];
+            int newCol = initialPosition[1] + move[1];
 
             // Ensure the new position is within bounds
-            if (newPosition[0] >= 0 && newPosition[0] < 20 && newPosition[1] >= 0 && newPosition[1] < 20) {
-
-                // Check if the new position is valid, not occupied by island
-                if (!Game.getInstance().getGameStateManager().isOccupied(newPosition)) {
-
-                    // if (!Game.getInstance().isOccupied(newPosition)) {
-
-                    boolean isOccupiedByPirate = false; // Do not move onto pirate
-                    for (PirateShipState pirate : Game.getInstance().getState().getPirates()) {
-                        if (pirate.getPosition()[0] == newPosition[0] && pirate.getPosition()[1] == newPosition[1]) {
-                            isOccupiedByPirate = true;
-                            break;
-                        }
-                    }
-                    // Ensure the new position is not occupied by another sea monster
-                    boolean isOccupiedBySeaMonster = false;
-                    for (SeaMonster seaMonster : Game.getInstance().getState().getSeaMonsters()) {
-                        if (seaMonster.getPosition()[0] == newPosition[0]
-                                && seaMonster.getPosition()[1] == newPosition[1]) {
-                            isOccupiedBySeaMonster = true;
-                            break;
-                        }
-                    }
-                    // Ensure the new position is not occupied by the CC
-                    // And make monster ignore CC when it is invisible
-                    if (!isOccupiedByPirate && !isOccupiedBySeaMonster
-                            && !(Game.getInstance().getColumbus().isInvisible() &&
-                                    newPosition[0] == ccPosition[0] &&
-                                    newPosition[1] == ccPosition[1])) {
-
-                        // Update GameState's occupied matrix
-                        Game.getInstance().getState().updateSeaMonsterPosition(position, newPosition);
-
-                        // Move monster
-                        position[0] = newPosition[0];
-                        position[1] = newPosition[1];
-                        break;
-                    }
-                }
+            // and not occupied by island, pirate or another sea monster
+            if (!world.inBounds(newRow, newCol) || world.isOccupied(newRow, newCol)
+                    || world.hasPirate(newRow, newCol) || world.hasMonster(newRow, newCol)) {
+                continue;
             }
-        }
 
+            // Ensure the new position is not occupied by the CC
+            // And make monster ignore CC when it is invisible
+            if (world.isColumbusInvisible() && newRow == ccPosition[0] && newCol == ccPosition[1]) {
+                continue;
+            }
+
+            // Move monster
+            int oldRow = position[0], oldCol = position[1];
+            position[0] = newRow;
+            position[1] = newCol;
+            if (stateManager != null)
+                stateManager.entityMoved(this, oldRow, oldCol);
+            break;
+        }
     }
 
     /*
@@ -104,8 +88,43 @@ public class SeaMonster implements Entity {
      */
     @Override
     public void setPosition(int[] position) {
+        int[] old = this.position;
         this.position = position;
         this.initialPosition = position.clone(); // So monster moves within 3x3 from actual spawn
+        if (stateManager != null)
+            stateManager.entityMoved(this, old[0], old[1]);
+    }
+
+    // Spawn point monster moves around
+    public int[] getInitialPosition() {
+        return initialPosition;
+    }
+
+    /*
+     * Puts a restored monster back where it was, around its own spawn point.
+     * Only for monsters not yet added to a game (spatial index is not told).
+     */
+    void restorePosition(int[] position, int[] initialPosition) {
+        this.position = position;
+        this.initialPosition = initialPosition;
+    }
+
+    // Copy with same position, spawn point and ignore turns, not yet in any game
+    public SeaMonster copy() {
+        SeaMonster c = new SeaMonster();
+        c.position = position.clone();
+        c.initialPosition = initialPosition.clone();
+        c.ignoreTurns = ignoreTurns;
+        return c;
+    }
+
+    // Get/Set game state this monster belongs to
+    public GameStateManager getStateManager() {
+        return stateManager;
+    }
+
+    public void setStateManager(GameStateManager stateManager) {
+        this.stateManager = stateManager;
     }
 
     // Activate monster's ignore mode towards CC
@@ -114,6 +133,10 @@ public class SeaMonster implements Entity {
         this.ignoreTurns = turns;
     }
 
+    public int getIgnoreTurns() {
+        return ignoreTurns;
+    }
+
     // If ignoring CC
     @Override
     public boolean isIgnoringColumbus() {
@@ -0,0 +1,120 @@
+package com.example.columbus;
+
+/**
+ * Outcome counts and turn statistics of a batch of simulated games.
+ * Each simulator thread fills its own report; they are merged at the end.
+ */
+public class SimulationReport {
+
+    // How a simulated game ended
+    public static final String TREASURE = "treasure";
+    public static final String PIRATE = "pirate";
+    public static final String MONSTER = "monster";
+    public static final String TIMEOUT = "timeout"; // Turn limit reached
+
+    private long games = 0;
+    private long treasure = 0;
+    private long pirate = 0;
+    private long monster = 0;
+    private long timeout = 0;
+    private long totalTurns = 0;
+    private int minTurns = Integer.MAX_VALUE;
+    private int maxTurns = 0;
+    private long elapsedNanos = 0; // Wall time of whole batch, set by Simulator
+
+    // Records one finished game
+    public void record(String outcome, int turns) {
+        switch (outcome) {
+            case TREASURE:
+                treasure++;
+                break;
+            case PIRATE:
+                pirate++;
+                break;
+            case MONSTER:
+                monster++;
+                break;
+            default:
+                timeout++;
+                break;
+        }
+        games++;
+        totalTurns += turns;
+        minTurns = Math.min(minTurns, turns);
+        maxTurns = Math.max(maxTurns, turns);
+    }
+
+    // Adds other report's games to this one
+    public void merge(SimulationReport other) {
+        games += other.games;
+        treasure += other.treasure;
+        pirate += other.pirate;
+        monster += other.monster;
+        timeout += other.timeout;
+        totalTurns += other.totalTurns;
+        minTurns = Math.min(minTurns, other.minTurns);
+        maxTurns = Math.max(maxTurns, other.maxTurns);
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    // Number of games that ended with given outcome
+    public long getCount(String outcome) {
+        switch (outcome) {
+            case TREASURE:
+                return treasure;
+            case PIRATE:
+                return pirate;
+            case MONSTER:
+                return monster;
+            case TIMEOUT:
+                return timeout;
+            default:
+                return 0;
+        }
+    }
+
+    public long getTotalTurns() {
+        return totalTurns;
+    }
+
+    public double getAverageTurns() {
+        return games == 0 ? 0 : (double) totalTurns / games;
+    }
+
+    public int getMinTurns() {
+        return games == 0 ? 0 : minTurns;
+    }
+
+    public int getMaxTurns() {
+        return maxTurns;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // Games finished per hour of wall time at this batch's rate
+    public double getGamesPerHour() {
+        return elapsedNanos == 0 ? 0 : games * 3600e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(games).append(" games in ").append(elapsedNanos / 1000000).append(" ms (")
+                .append(String.format("%.0f", getGamesPerHour())).append(" games/hour)\n");
+        for (String outcome : new String[] { TREASURE, PIRATE, MONSTER, TIMEOUT }) {
+            long count = getCount(outcome);
+            sb.append(String.format("  %-9s %10d  %5.1f%%%n", outcome, count, games == 0 ? 0.0 : count * 100.0 / games));
+        }
+        sb.append(String.format("  turns     min %d, avg %.1f, max %d", getMinTurns(), getAverageTurns(), maxTurns));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.columbus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongFunction;
+
+/**
+ * Headless runner that plays whole games as fast as the CPU allows,
+ * for balancing and regression testing.
+ *
+ * Each game is built like Game does (state, entities, observers, movement
+ * controller), but its ticks run on a manual TickEngine and nothing is published:
+ * the engine's clock advances by a fixed time per player move, so monsters and
+ * patrol pirate move exactly as they would between real moves. A PlayerBot plays CC.
+ * A game ends on treasure, pirate or monster collision, or after maxTurns moves.
+ *
+ * Games are independent and confined to one thread, so batches spread
+ * over all cores without locking.
+ * Game number i of a batch gets its seed (for world and bot) from the batch
+ * seed and i alone, so a batch gives the same report on any number of threads.
+ *
+ * Usage: java com.example.columbus.Simulator [games] [threads] [random|greedy] [size] [seed]
+ */
+public class Simulator {
+
+    public static final int DEFAULT_MAX_TURNS = 1000;
+    public static final long DEFAULT_MOVE_MILLIS = 500; // Virtual time between two player moves
+
+    private final int width;
+    private final int height;
+    private final LongFunction<PlayerBot> bots; // New bot for each game, from a seed
+    private int maxTurns = DEFAULT_MAX_TURNS;
+    private long moveMillis = DEFAULT_MOVE_MILLIS;
+    private long seed = GameStateManager.newSeed(); // Batch seed
+
+    public Simulator(int width, int height, LongFunction<PlayerBot> bots) {
+        this.width = width;
+        this.height = height;
+        this.bots = bots;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public void setMaxTurns(int maxTurns) {
+        this.maxTurns = maxTurns;
+    }
+
+    public void setMoveMillis(long moveMillis) {
+        this.moveMillis = moveMillis;
+    }
+
+    /*
+     * Plays given number of games on given number of threads
+     * and returns their merged report
+     */
+    public SimulationReport run(int games, int threads) {
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<SimulationReport>> parts = new ArrayList<>();
+            int first = 0;
+            for (int t = 0; t < threads; t++) {
+                int share = games / threads + (t < games % threads ? 1 : 0);
+                int from = first;
+                parts.add(pool.submit(() -> runRange(from, share)));
+                first += share;
+            }
+            SimulationReport total = new SimulationReport();
+            for (Future<SimulationReport> part : parts) {
+                total.merge(part.get());
+            }
+            total.setElapsedNanos(System.nanoTime() - start);
+            return total;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulated game failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Plays given number of games on calling thread
+    public SimulationReport run(int games) {
+        return runRange(0, games);
+    }
+
+    // Plays games number first to first + games - 1 on calling thread
+    private SimulationReport runRange(int first, int games) {
+        long start = System.nanoTime();
+        SimulationReport report = new SimulationReport();
+        TickEngine engine = TickEngine.manual(); // One clock per thread, games never overlap on it
+        for (int i = first; i < first + games; i++) {
+            long gameSeed = mix(seed + i);
+            playGame(gameSeed, bots.apply(mix(gameSeed)), engine, report);
+        }
+        report.setElapsedNanos(System.nanoTime() - start);
+        return report;
+    }
+
+    /*
+     * Plays one game from a fresh world made from given seed and records how it ended.
+     * Engine must be a manual one, only used by the calling thread.
+     */
+    public void playGame(long gameSeed, PlayerBot bot, TickEngine engine, SimulationReport report) {
+        GameStateManager gsm = new GameStateManager(width, height, gameSeed);
+        EntityManager em = new EntityManager(gsm);
+        gsm.setEntityManager(em);
+        ObserverManager om = new ObserverManager();
+        em.initializeEntities(om);
+        MovementController controller = new MovementController(gsm, em, engine, () -> {
+        }); // Nobody streams simulated games
+        controller.startAll();
+
+        try {
+            for (int turn = 1; turn <= maxTurns; turn++) {
+                engine.advance(moveMillis); // Monster and patrol ticks due by now run here
+                if (gsm.getCollisionStatus() != null) { // Patrol pirate caught CC between moves
+                    report.record(SimulationReport.PIRATE, turn - 1);
+                    return;
+                }
+
+                String collision = gsm.handleMove(bot.nextMove(gsm.getWorldView()), em, om).getCollision();
+                if (SimulationReport.TREASURE.equals(collision) || SimulationReport.PIRATE.equals(collision)
+                        || SimulationReport.MONSTER.equals(collision)) {
+                    report.record(collision, turn);
+                    return;
+                }
+                // Island collisions only block the move
+            }
+            report.record(SimulationReport.TIMEOUT, maxTurns);
+        } finally {
+            controller.shutdown();
+        }
+    }
+
+    // SplitMix64 finalizer: turns neighbouring numbers into unrelated seeds
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        String bot = args.length > 2 ? args[2] : "greedy";
+        int size = args.length > 3 ? Integer.parseInt(args[3]) : GameStateManager.DEFAULT_GRID_SIZE;
+
+        LongFunction<PlayerBot> bots = "random".equals(bot) ? RandomPlayerBot::new : GreedyPlayerBot::new;
+        Simulator simulator = new Simulator(size, size, bots);
+        if (args.length > 4)
+            simulator.setSeed(Long.parseLong(args[4]));
+        System.out.println("Simulating " + games + " games (" + bot + " bot, " + size + "x" + size + ", seed "
+                + simulator.getSeed() + ") on " + threads + " threads");
+        System.out.println(simulator.run(games, threads));
+    }
+}
@@ -8,15 +8,24 @@ public class SlowChaseStrategy implements MovementStrategy {
 
     // Move pirate ship 1 cell closer to CC, avoid islands
     @Override
-    public void move(PirateShip pirate) {
+    public void move(PirateShip pirate, WorldView world) {
 
-        if (Game.getInstance().getColumbus().isInvisible()) {
+        if (world.isColumbusInvisible()) {
             return; // Don't chase if Columbus is invisible
         }
 
-        int[] ccPosition = Game.getInstance().getColumbus().getPosition();
+        int[] ccPosition = world.getCcPosition();
 
         int[] position = pirate.getPosition(); // Get position from pirate
+
+        // Follow shortest way around islands when distance field reaches pirate
+        int dir = world.directionTowardColumbus(position[0], position[1]);
+        if (dir >= 0) {
+            pirate.setPosition(new int[] { position[0] + DistanceField.STEP_ROWS[dir],
+                    position[1] + DistanceField.STEP_COLS[dir] });
+            return;
+        }
+
         int[] newPosition = position.clone(); // Clone position
 
         // Determine direction to move towards CC based on CC's position
@@ -24,13 +33,12 @@ public class SlowChaseStrategy implements MovementStrategy {
             newPosition[0] = Math.max(position[0] - 1, 0);
 
             // If blocked, alternatively move left/right
-            if (Game.getInstance().getGameStateManager().isOccupied(newPosition) || 
+            if (world.isOccupied(newPosition) || 
             (newPosition[0] == 0 && newPosition[1] == 0)) {
-            // if (Game.getInstance().isOccupied(newPosition) || (newPosition[0] == 0 && newPosition[1] == 0)) {
                 if (ccPosition[1] < position[1]) { // CC is to the left
-                    newPosition = tryMove(position, "left", "right");
+                    newPosition = tryMove(world, position, "left", "right");
                 } else { // CC is to the right
-                    newPosition = tryMove(position, "right", "left");
+                    newPosition = tryMove(world, position, "right", "left");
                 }
             }
             pirate.setPosition(newPosition);
@@ -39,16 +47,16 @@ public class SlowChaseStrategy implements MovementStrategy {
         
         // Move down if CC is below
         else if (ccPosition[0] > position[0]) {
-            newPosition[0] = Math.min(position[0] + 1, 19);
+            newPosition[0] = Math.min(position[0] + 1, world.getHeight() - 1);
 
             // If blocked, alternatively move left/right
-            if (Game.getInstance().getGameStateManager().isOccupied(newPosition) || 
+            if (world.isOccupied(newPosition) || 
             (newPosition[0] == 0 && newPosition[1] == 0)) {
 
                 if (ccPosition[1] < position[1]) { // CC is to the left
-                    newPosition = tryMove(position, "left", "right");
+                    newPosition = tryMove(world, position, "left", "right");
                 } else { // CC is to the right
-                    newPosition = tryMove(position, "right", "left");
+                    newPosition = tryMove(world, position, "right", "left");
                 }
             }
             pirate.setPosition(newPosition);
@@ -60,13 +68,13 @@ public class SlowChaseStrategy implements MovementStrategy {
             newPosition[1] = Math.max(position[1] - 1, 0);
 
             // If blocked, alternatively move up/down
-            if (Game.getInstance().getGameStateManager().isOccupied(newPosition) || 
+            if (world.isOccupied(newPosition) || 
             (newPosition[0] == 0 && newPosition[1] == 0)) {
 
                 if (ccPosition[0] < position[0]) { // CC is above
-                    newPosition = tryMove(position, "up", "down");
+                    newPosition = tryMove(world, position, "up", "down");
                 } else { // CC is below
-                    newPosition = tryMove(position, "down", "up");
+                    newPosition = tryMove(world, position, "down", "up");
                 }
             }
             pirate.setPosition(newPosition);
@@ -75,16 +83,16 @@ public class SlowChaseStrategy implements MovementStrategy {
         
         // Move right if CC is to the right
         else if (ccPosition[1] > position[1]) {
-            newPosition[1] = Math.min(position[1] + 1, 19);
+            newPosition[1] = Math.min(position[1] + 1, world.getWidth() - 1);
 
             // If blocked, alternatively move up/down
-            if (Game.getInstance().getGameStateManager().isOccupied(newPosition) || 
+            if (world.isOccupied(newPosition) || 
             (newPosition[0] == 0 && newPosition[1] == 0)) {
 
                 if (ccPosition[0] < position[0]) { // CC is above
-                    newPosition = tryMove(position, "up", "down");
+                    newPosition = tryMove(world, position, "up", "down");
                 } else { // CC is below
-                    newPosition = tryMove(position, "down", "up");
+                    newPosition = tryMove(world, position, "down", "up");
                 }
             }
             pirate.setPosition(newPosition);
@@ -96,7 +104,7 @@ public class SlowChaseStrategy implements MovementStrategy {
      * Try moving in specified (primary) direction.
      * If blocked, alternatively move in secondary direction
      */
-    private int[] tryMove(int[] position, String primary, String secondary) {
+    private int[] tryMove(WorldView world, int[] position, String primary, String secondary) {
         int[] newPosition = position.clone();
 
         // Move in primary direction
@@ -105,18 +113,18 @@ public class SlowChaseStrategy implements MovementStrategy {
                 newPosition[0] = Math.max(position[0] - 1, 0);
                 break;
             case "down":
-                newPosition[0] = Math.min(position[0] + 1, 19);
+                newPosition[0] = Math.min(position[0] + 1, world.getHeight() - 1);
                 break;
             case "left":
                 newPosition[1] = Math.max(position[1] - 1, 0);
                 break;
             case "right":
-                newPosition[1] = Math.min(position[1] + 1, 19);
+                newPosition[1] = Math.min(position[1] + 1, world.getWidth() - 1);
                 break;
         }
 
         // If primary direction is not blocked, move ahead
-        if (!Game.getInstance().getGameStateManager().isOccupied(newPosition)) {
+        if (!world.isOccupied(newPosition)) {
             return newPosition;
         }
 
@@ -127,13 +135,13 @@ public class SlowChaseStrategy implements MovementStrategy {
                 newPosition[0] = Math.max(position[0] - 1, 0);
                 break;
             case "down":
-                newPosition[0] = Math.min(position[0] + 1, 19);
+                newPosition[0] = Math.min(position[0] + 1, world.getHeight() - 1);
                 break;
             case "left":
                 newPosition[1] = Math.max(position[1] - 1, 0);
                 break;
             case "right":
-                newPosition[1] = Math.min(position[1] + 1, 19);
+                newPosition[1] = Math.min(position[1] + 1, world.getWidth() - 1);
                 break;
         }
         return newPosition;
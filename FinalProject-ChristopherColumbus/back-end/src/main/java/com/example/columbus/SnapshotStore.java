@@ -0,0 +1,383 @@
+package com.example.columbus;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Saves live game sessions to a compact binary snapshot file and resumes them from it.
+ *
+ * Every game is written field by field in a fixed order (no Java serialization):
+ * CC and its cloaks, treasure, pirates with strategy and ignore counter, patrol state,
+ * monsters with spawn points, islands and occupied cells, plus the seed and
+ * random generator state so the resumed game carries on with the same numbers.
+ * Cells are two shorts on grids up to 32767 cells a side, two ints beyond that,
+ * which keeps a 20x20 game to a few hundred bytes.
+ *
+ * The file is written through a memory mapping into a temporary file that then
+ * replaces the old snapshot, so a crash while saving leaves the previous one intact.
+ * Loading maps the file and copies each game's bytes off-heap, to be decoded
+ * right away or when the session is next used (see GameRegistry).
+ *
+ * File layout (big-endian): int MAGIC, short VERSION, int game count,
+ * then per game: int body length, body.
+ */
+public class SnapshotStore {
+
+    private static final int MAGIC = 0x434f4c53; // "COLS"
+    private static final short VERSION = 1;
+
+    // Flags byte of a game
+    private static final int JOURNALED = 1;
+    private static final int MONSTERS_MOVING = 2;
+    private static final int PATROL_MOVING = 4;
+    private static final int SEEDED = 8; // Seed chosen by client (see Game.setSeeded)
+
+    private static final String[] COLLISIONS = { null, "island", "monster", "pirate", "treasure" };
+    private static final String[] PIRATE_TYPES = { "fast", "slow", "patrol" };
+
+    // Strategy codes
+    private static final byte SLOW_CHASE = 0;
+    private static final byte FAST_CHASE = 1;
+    private static final byte PATROL = 2;
+
+    private static final int SMALL_GRID = Short.MAX_VALUE; // Largest side whose cells fit in shorts
+
+    /*
+     * Writes given sessions (session id -> game) to file, replacing what it held.
+     * Each game is encoded under its own lock, so it is saved between two changes.
+     * With stop set (server shutting down), each game is also suspended
+     * under that lock, so nothing changes after it was saved.
+     * Returns number of bytes written.
+     */
+    public static long save(Path file, Map<String, Game> games, boolean stop) throws IOException {
+        List<ByteBuffer> bodies = new ArrayList<>(games.size());
+        for (Map.Entry<String, Game> entry : games.entrySet()) {
+            bodies.add(encode(entry.getKey(), entry.getValue(), stop));
+        }
+        return write(file, bodies);
+    }
+
+    /*
+     * Resumes every game saved in file, ticking on given engine.
+     * Games that were journaled carry on recording under their old journal id
+     * in given journal (if not null), so replaying it still gives the same game.
+     * Returns session id -> game, in saved order.
+     */
+    public static Map<String, Game> load(Path file, TickEngine engine, EventJournal journal) throws IOException {
+        Map<String, Game> games = new LinkedHashMap<>();
+        for (Map.Entry<String, ByteBuffer> entry : read(file).entrySet()) {
+            games.put(entry.getKey(), decode(entry.getValue(), engine, journal));
+        }
+        return games;
+    }
+
+    /*
+     * One game's body, taken under its lock; with stop set the game is
+     * suspended under the same lock (see Game.suspend)
+     */
+    public static ByteBuffer encode(String sessionId, Game game, boolean stop) {
+        ByteBuffer scratch = ByteBuffer.allocate(1024);
+        while (true) {
+            try {
+                synchronized (game.getGameStateManager()) {
+                    game.getGameStateManager().settle(); // Saved state has no reaction pending
+                    encode(sessionId, game, scratch);
+                    if (stop)
+                        game.suspend();
+                }
+                break;
+            } catch (BufferOverflowException e) {
+                scratch = ByteBuffer.allocate(scratch.capacity() * 2); // Big world, try again with more room
+            }
+        }
+        scratch.flip();
+        ByteBuffer body = ByteBuffer.allocate(scratch.remaining());
+        body.put(scratch).flip();
+        return body;
+    }
+
+    /*
+     * Writes encoded games to file through a mapping, replacing it atomically.
+     * Returns number of bytes written.
+     */
+    public static long write(Path file, Collection<ByteBuffer> bodies) throws IOException {
+        long size = 4 + 2 + 4;
+        for (ByteBuffer body : bodies) {
+            size += 4 + body.remaining();
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            out.putInt(MAGIC).putShort(VERSION).putInt(bodies.size());
+            for (ByteBuffer body : bodies) {
+                out.putInt(body.remaining()).put(body.duplicate()); // Caller's buffer stays as it was
+            }
+            out.force();
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return size;
+    }
+
+    /*
+     * Encoded games of a snapshot file by session id, in saved order,
+     * each copied out of the mapping into its own off-heap buffer
+     */
+    public static Map<String, ByteBuffer> read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            try {
+                if (in.getInt() != MAGIC)
+                    throw new IOException("Not a game snapshot: " + file);
+                short version = in.getShort();
+                if (version != VERSION)
+                    throw new IOException("Unsupported snapshot version " + version + ": " + file);
+                int count = in.getInt();
+                Map<String, ByteBuffer> bodies = new LinkedHashMap<>();
+                for (int i = 0; i < count; i++) {
+                    int length = in.getInt();
+                    ByteBuffer slice = in.slice();
+                    slice.limit(length);
+                    ByteBuffer body = ByteBuffer.allocateDirect(length);
+                    body.put(slice).flip();
+                    bodies.put(getString(body.duplicate()), body);
+                    in.position(in.position() + length);
+                }
+                return bodies;
+            } catch (RuntimeException e) {
+                throw new IOException("Malformed snapshot " + file + ": " + e);
+            }
+        }
+    }
+
+    /*
+     * Resumes one encoded game (buffer is left as it was), ticking on given engine;
+     * a journaled game carries on in given journal, if any
+     */
+    public static Game decode(ByteBuffer body, TickEngine engine, EventJournal journal) throws IOException {
+        try {
+            return decodeGame(body.duplicate(), engine, journal);
+        } catch (RuntimeException e) {
+            throw new IOException("Malformed saved game: " + e);
+        }
+    }
+
+    // Writes one game (caller holds game's lock)
+    private static void encode(String sessionId, Game game, ByteBuffer out) {
+        GameStateManager gsm = game.getGameStateManager();
+        EntityManager em = gsm.getEntityManager();
+        MovementController mc = game.getMovementController();
+        boolean small = gsm.getWidth() <= SMALL_GRID && gsm.getHeight() <= SMALL_GRID;
+
+        putString(out, sessionId);
+        out.putInt(gsm.getWidth()).putInt(gsm.getHeight());
+        out.putLong(gsm.getSeed()).putLong(gsm.getRandom().getState());
+        int flags = (game.isJournaled() ? JOURNALED : 0) | (mc.isMonsterMovementActive() ? MONSTERS_MOVING : 0)
+                | (mc.isPatrollingPirateActive() ? PATROL_MOVING : 0) | (game.isSeeded() ? SEEDED : 0);
+        out.put((byte) flags).putLong(game.getJournalId());
+        out.put(code(COLLISIONS, gsm.getCollisionStatus()));
+        out.put("fast".equals(em.getCurrentStrategy()) ? FAST_CHASE : SLOW_CHASE);
+
+        // CC: position, then remaining turns of each cloak, outermost first
+        putCell(out, small, gsm.getCcPosition());
+        List<Integer> cloaks = new ArrayList<>();
+        ColumbusShip ship = gsm.getColumbus();
+        while (ship instanceof InvisibleColumbusDecorator) {
+            InvisibleColumbusDecorator cloak = (InvisibleColumbusDecorator) ship;
+            cloaks.add(cloak.getRemainingTurns());
+            ship = cloak.getWrappedShip();
+        }
+        out.putInt(cloaks.size());
+        for (int turns : cloaks) {
+            out.putInt(turns);
+        }
+        putCell(out, small, gsm.getTreasurePosition());
+
+        List<PirateShip> pirates = em.getPirates();
+        out.put((byte) pirates.size());
+        for (PirateShip p : pirates) {
+            out.put(code(PIRATE_TYPES, p.getType()));
+            MovementStrategy strategy = p.getStrategy();
+            out.put(strategy instanceof PatrolStrategy ? PATROL
+                    : strategy instanceof FastChaseStrategy ? FAST_CHASE : SLOW_CHASE);
+            putCell(out, small, p.getPosition());
+            out.putInt(p.getIgnoreTurns());
+            if (p instanceof PatrolPirateShip) {
+                PatrolPirateShip patrol = (PatrolPirateShip) p;
+                out.put((byte) patrol.getMode()).putInt(patrol.getRow()).putInt(patrol.getCol())
+                        .put((byte) patrol.getColDirection());
+            }
+        }
+
+        List<Entity> monsters = em.getMonsters();
+        out.putInt(monsters.size());
+        for (Entity e : monsters) {
+            SeaMonster m = (SeaMonster) e;
+            putCell(out, small, m.getPosition());
+            putCell(out, small, m.getInitialPosition());
+            out.putInt(m.getIgnoreTurns());
+        }
+
+        List<int[]> islands = em.getIslands();
+        out.putInt(islands.size());
+        for (int[] island : islands) {
+            putCell(out, small, island);
+        }
+
+        // Occupied cells: count first, filled in once known
+        int countAt = out.position();
+        out.putInt(0);
+        int[] count = { 0 };
+        gsm.getOccupancy().forEachOccupied((row, col, layers) -> {
+            putCell(out, small, row, col);
+            out.put((byte) layers);
+            count[0]++;
+        });
+        out.putInt(countAt, count[0]);
+    }
+
+    // Reads one game
+    private static Game decodeGame(ByteBuffer in, TickEngine engine, EventJournal journal) {
+        getString(in); // Session id
+        int width = in.getInt();
+        int height = in.getInt();
+        long seed = in.getLong();
+        long randomState = in.getLong();
+        boolean small = width <= SMALL_GRID && height <= SMALL_GRID;
+        int flags = in.get();
+        long journalId = in.getLong();
+        String collision = name(COLLISIONS, in.get());
+        String strategy = in.get() == FAST_CHASE ? "fast" : "slow";
+
+        GameStateManager gsm = new GameStateManager(width, height, seed, randomState);
+        EntityManager em = new EntityManager(gsm);
+        gsm.setEntityManager(em);
+        gsm.setCollisionStatus(collision);
+
+        ColumbusShip ship = new ConcreteColumbusShip();
+        ship.setPosition(getCell(in, small));
+        int[] cloaks = new int[in.getInt()];
+        for (int i = 0; i < cloaks.length; i++) {
+            cloaks[i] = in.getInt();
+        }
+        for (int i = cloaks.length - 1; i >= 0; i--) {
+            ship = new InvisibleColumbusDecorator(ship, cloaks[i]); // Innermost cloak first
+        }
+        gsm.setColumbus(ship);
+        gsm.setTreasurePosition(getCell(in, small));
+
+        int pirateCount = in.get();
+        List<PirateShip> pirates = new ArrayList<>(pirateCount);
+        for (int i = 0; i < pirateCount; i++) {
+            PirateShip p = PirateShipFactory.createPirateShip(name(PIRATE_TYPES, in.get()));
+            byte code = in.get();
+            p.setStrategy(code == PATROL ? new PatrolStrategy()
+                    : code == FAST_CHASE ? new FastChaseStrategy() : new SlowChaseStrategy());
+            p.setPosition(getCell(in, small));
+            p.activateIgnoreMode(in.getInt());
+            if (p instanceof PatrolPirateShip) {
+                PatrolPirateShip patrol = (PatrolPirateShip) p;
+                patrol.setMode(in.get());
+                patrol.setRow(in.getInt());
+                patrol.setCol(in.getInt());
+                patrol.setColDirection(in.get());
+            }
+            pirates.add(p);
+        }
+
+        int monsterCount = in.getInt();
+        List<SeaMonster> monsters = new ArrayList<>(monsterCount);
+        for (int i = 0; i < monsterCount; i++) {
+            SeaMonster m = new SeaMonster();
+            int[] position = getCell(in, small);
+            m.restorePosition(position, getCell(in, small));
+            m.activateIgnoreMode(in.getInt());
+            monsters.add(m);
+        }
+
+        int islandCount = in.getInt();
+        List<int[]> islands = new ArrayList<>(islandCount);
+        for (int i = 0; i < islandCount; i++) {
+            islands.add(getCell(in, small));
+        }
+
+        OccupancyGrid occupied = gsm.getOccupancy();
+        occupied.clearAll();
+        int occupiedCount = in.getInt();
+        for (int i = 0; i < occupiedCount; i++) {
+            int[] cell = getCell(in, small);
+            int layers = in.get();
+            for (int layer = 0; layers != 0; layer++, layers >>>= 1) {
+                if ((layers & 1) != 0)
+                    occupied.set(cell[0], cell[1], layer);
+            }
+        }
+
+        ObserverManager om = new ObserverManager();
+        em.restore(pirates, monsters, islands, strategy, om);
+        Game game = new Game(gsm, om, engine);
+        game.setSeeded((flags & SEEDED) != 0);
+        if ((flags & MONSTERS_MOVING) == 0)
+            game.getMovementController().stopMonsterMovement();
+        if ((flags & PATROL_MOVING) == 0)
+            game.getMovementController().stopPatrollingPirate();
+        if (journal != null && (flags & JOURNALED) != 0)
+            game.resumeJournal(journal, journalId);
+        return game;
+    }
+
+    private static void putCell(ByteBuffer out, boolean small, int[] cell) {
+        putCell(out, small, cell[0], cell[1]);
+    }
+
+    private static void putCell(ByteBuffer out, boolean small, int row, int col) {
+        if (small) {
+            out.putShort((short) row).putShort((short) col);
+        } else {
+            out.putInt(row).putInt(col);
+        }
+    }
+
+    private static int[] getCell(ByteBuffer in, boolean small) {
+        return small ? new int[] { in.getShort(), in.getShort() } : new int[] { in.getInt(), in.getInt() };
+    }
+
+    private static void putString(ByteBuffer out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.putShort((short) bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getShort() & 0xFFFF];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Index of value in names (null is a name too)
+    private static byte code(String[] names, String value) {
+        for (int i = 0; i < names.length; i++) {
+            if (value == null ? names[i] == null : value.equals(names[i]))
+                return (byte) i;
+        }
+        throw new IllegalArgumentException("Cannot save value " + value);
+    }
+
+    private static String name(String[] names, byte code) {
+        if (code < 0 || code >= names.length)
+            throw new IllegalArgumentException("Unknown code " + code);
+        return names[code];
+    }
+}
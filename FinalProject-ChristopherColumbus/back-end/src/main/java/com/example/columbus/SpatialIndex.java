@@ -0,0 +1,204 @@
+package com.example.columbus;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Maps grid cells to the entities on them, so "what is at (row, col)" and
+ * "who is within k cells" do not scan entity lists.
+ * Each cell has a small bucket of entities plus pirate/monster counts;
+ * islands are kept in an OccupancyGrid. Cells are grouped in 16 x 16 chunks
+ * that exist only while they hold an entity, so huge worlds stay cheap.
+ * Buckets only grow, so moving entities around inside a chunk allocates nothing.
+ */
+public class SpatialIndex {
+
+    private static final int BUCKET_SIZE = 2; // Initial entities per cell, most cells hold 0 or 1
+    private static final int CHUNK_SHIFT = 4; // 16 x 16 cells per chunk
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+    private static final int CHUNK_CELLS = 1 << (2 * CHUNK_SHIFT);
+
+    // Entities of one chunk, indexed by cell within chunk
+    private static class Chunk {
+        final Entity[][] buckets = new Entity[CHUNK_CELLS][];
+        final int[] sizes = new int[CHUNK_CELLS];
+        final int[] pirateCounts = new int[CHUNK_CELLS];
+        final int[] monsterCounts = new int[CHUNK_CELLS];
+        int entities = 0; // Chunk is dropped when this reaches 0
+    }
+
+    private final int width;
+    private final int height;
+    private final long chunksPerRow;
+    private final ChunkTable<Chunk> chunks = new ChunkTable<>();
+    private final OccupancyGrid islands;
+    private Chunk spare; // Last emptied chunk, reused so entities crossing a chunk border allocate nothing
+    private long islandVersion; // Bumped whenever islands change (see DistanceField)
+
+    public SpatialIndex(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.chunksPerRow = (width + CHUNK_MASK) >>> CHUNK_SHIFT;
+        this.islands = new OccupancyGrid(width, height);
+    }
+
+    // Adds entity at its current position
+    public void add(Entity e) {
+        int[] pos = e.getPosition();
+        if (!inBounds(pos[0], pos[1]))
+            return;
+        long key = chunkOf(pos[0], pos[1]);
+        Chunk chunk = chunks.get(key);
+        if (chunk == null) {
+            chunk = spare != null ? spare : new Chunk();
+            spare = null;
+            chunks.put(key, chunk);
+        }
+        int cell = cellOf(pos[0], pos[1]);
+        Entity[] bucket = chunk.buckets[cell];
+        if (bucket == null) {
+            bucket = chunk.buckets[cell] = new Entity[BUCKET_SIZE];
+        } else if (chunk.sizes[cell] == bucket.length) {
+            bucket = chunk.buckets[cell] = Arrays.copyOf(bucket, bucket.length * 2);
+        }
+        bucket[chunk.sizes[cell]++] = e;
+        count(chunk, cell, e, 1);
+        chunk.entities++;
+    }
+
+    // Removes entity from given cell, returns false if it was not there
+    public boolean remove(Entity e, int row, int col) {
+        if (!inBounds(row, col))
+            return false;
+        long key = chunkOf(row, col);
+        Chunk chunk = chunks.get(key);
+        if (chunk == null)
+            return false;
+        int cell = cellOf(row, col);
+        Entity[] bucket = chunk.buckets[cell];
+        for (int i = 0; i < chunk.sizes[cell]; i++) {
+            if (bucket[i] == e) {
+                bucket[i] = bucket[--chunk.sizes[cell]]; // Order within a cell does not matter
+                bucket[chunk.sizes[cell]] = null;
+                count(chunk, cell, e, -1);
+                if (--chunk.entities == 0) {
+                    chunks.remove(key); // Nothing left in chunk
+                    spare = chunk; // Already all empty
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Entity moved from (fromRow, fromCol) to its current position.
+     * Entities that were never added (not in the game yet) are ignored.
+     */
+    public void move(Entity e, int fromRow, int fromCol) {
+        if (remove(e, fromRow, fromCol))
+            add(e);
+    }
+
+    public void addIsland(int[] pos) {
+        islands.set(pos[0], pos[1], OccupancyGrid.ISLAND);
+        islandVersion++;
+    }
+
+    public void clearIslands() {
+        islands.clearAll();
+        islandVersion++;
+    }
+
+    // Removes every entity and island
+    public void clear() {
+        chunks.clear();
+        islands.clearAll();
+        islandVersion++;
+    }
+
+    // Changes whenever islands do, so results computed from islands know when to go stale
+    public long getIslandVersion() {
+        return islandVersion;
+    }
+
+    public boolean isIsland(int row, int col) {
+        return islands.isOccupied(row, col, OccupancyGrid.ISLAND);
+    }
+
+    public boolean hasPirate(int row, int col) {
+        Chunk chunk = chunkAt(row, col);
+        return chunk != null && chunk.pirateCounts[cellOf(row, col)] > 0;
+    }
+
+    public boolean hasMonster(int row, int col) {
+        Chunk chunk = chunkAt(row, col);
+        return chunk != null && chunk.monsterCounts[cellOf(row, col)] > 0;
+    }
+
+    // Number of entities on cell
+    public int countAt(int row, int col) {
+        Chunk chunk = chunkAt(row, col);
+        return chunk == null ? 0 : chunk.sizes[cellOf(row, col)];
+    }
+
+    // i-th entity on cell, 0 <= i < countAt(row, col)
+    public Entity entityAt(int row, int col, int i) {
+        return chunkAt(row, col).buckets[cellOf(row, col)][i];
+    }
+
+    /*
+     * Adds to out every entity within radius cells (Chebyshev distance,
+     * same as placement) of (row, col), returns how many were added
+     */
+    public int collectWithin(int row, int col, int radius, List<Entity> out) {
+        int added = 0;
+        int top = Math.max(0, row - radius), bottom = Math.min(height - 1, row + radius);
+        int left = Math.max(0, col - radius), right = Math.min(width - 1, col + radius);
+        for (int r = top; r <= bottom; r++) {
+            for (int c = left; c <= right; c++) {
+                Chunk chunk = chunks.get(chunkOf(r, c));
+                if (chunk == null) {
+                    c |= CHUNK_MASK; // Skip rest of this empty chunk's row
+                    continue;
+                }
+                int cell = cellOf(r, c);
+                for (int i = 0; i < chunk.sizes[cell]; i++) {
+                    out.add(chunk.buckets[cell][i]);
+                    added++;
+                }
+            }
+        }
+        return added;
+    }
+
+    // Chunks currently allocated for entities
+    public int getChunkCount() {
+        return chunks.size();
+    }
+
+    // Pirates are counted as pirates, every other entity as a monster
+    private void count(Chunk chunk, int cell, Entity e, int delta) {
+        if (e instanceof PirateShip) {
+            chunk.pirateCounts[cell] += delta;
+        } else {
+            chunk.monsterCounts[cell] += delta;
+        }
+    }
+
+    private Chunk chunkAt(int row, int col) {
+        return inBounds(row, col) ? chunks.get(chunkOf(row, col)) : null;
+    }
+
+    private long chunkOf(int row, int col) {
+        return (row >>> CHUNK_SHIFT) * chunksPerRow + (col >>> CHUNK_SHIFT);
+    }
+
+    private static int cellOf(int row, int col) {
+        return ((row & CHUNK_MASK) << CHUNK_SHIFT) | (col & CHUNK_MASK);
+    }
+
+    private boolean inBounds(int row, int col) {
+        return row >= 0 && row < height && col >= 0 && col < width;
+    }
+}
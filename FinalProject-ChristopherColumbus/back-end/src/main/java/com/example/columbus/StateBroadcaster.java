@@ -0,0 +1,124 @@
+package com.example.columbus;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tracks changes to one game's state and wakes up streaming clients
+ * waiting for them. Every change bumps the version; clients remember
+ * the last version they have and ask for what changed after it.
+ *
+ * Each publish also serializes full state once into an immutable StateSnapshot,
+ * handed to readers through a volatile field: plain /api/state reads take no lock
+ * and share the same bytes until the next version.
+ * Callers publish while holding their game's lock (see Game), so the snapshot
+ * never mixes two half-done changes.
+ * Waiting uses a ReentrantLock condition rather than wait(), so stream clients
+ * on virtual threads (see ConnectionRunner) do not pin their carrier thread.
+ */
+public class StateBroadcaster {
+
+    private long version = 0; // Number of changes published so far
+    private boolean closed = false; // Set when game session is discarded
+    private final StateHistory history; // Recorded state and recent changes
+    private final JsonBuffer scratch = new JsonBuffer(); // Reused while serializing snapshots (under lock)
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition(); // Signalled on publish and close
+    private volatile StateSnapshot snapshot = new StateSnapshot(0, "{}".getBytes()); // Latest published state
+
+    public StateBroadcaster(GameStateManager gsm, EntityManager em) {
+        this.history = new StateHistory(gsm, em);
+    }
+
+    // Announce that game state changed
+    public void publish() {
+        lock.lock();
+        try {
+            version++;
+            history.record(version);
+            scratch.reset();
+            history.writeJson(version, -1, scratch);
+            snapshot = new StateSnapshot(version, scratch.toByteArray());
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Latest published state; no lock, same object for every reader until next publish
+    public StateSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /*
+     * Returns state as JSON with its version: only entities that changed
+     * after sinceVersion, or a full snapshot when that is not possible
+     * (pass -1 to always get a full snapshot)
+     */
+    public void writeStateJson(long sinceVersion, JsonBuffer out) {
+        lock.lock();
+        try {
+            history.writeJson(version, sinceVersion, out);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Same as writeStateJson, as a string
+    public String getStateJson(long sinceVersion) {
+        JsonBuffer out = JsonBuffer.acquire();
+        try {
+            writeStateJson(sinceVersion, out);
+            return out.toString();
+        } finally {
+            out.release();
+        }
+    }
+
+    // Wake up all waiting clients so they can end their streams
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getVersion() {
+        lock.lock();
+        try {
+            return version;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isClosed() {
+        lock.lock();
+        try {
+            return closed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Blocks until version differs from seenVersion, broadcaster is closed,
+     * or timeout passes. Returns the current version.
+     */
+    public long awaitChange(long seenVersion, long timeoutMillis) throws InterruptedException {
+        lock.lock();
+        try {
+            long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            while (version == seenVersion && !closed && remaining > 0) {
+                remaining = changed.awaitNanos(remaining);
+            }
+            return version;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.columbus;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+
+/**
+ * Server-Sent Events body for /api/stream.
+ * NanoHTTPD reads this stream and writes each chunk straight to the client,
+ * so read() blocks until the game state changes and then returns one event.
+ * Sends a full snapshot on connect, then one delta (see StateHistory) per published change.
+ */
+public class StateEventStream extends InputStream {
+
+    private static final long KEEP_ALIVE_MILLIS = 15000; // Comment line sent when idle, detects closed clients
+
+    private final Game game; // Game being streamed
+    private final long keepAliveMillis;
+    private long seenVersion = -1; // Last version sent to client
+    private final JsonBuffer event = new JsonBuffer(); // Current event, reused for every event
+    private int offset = 0; // Bytes of event already sent
+
+    public StateEventStream(Game game) {
+        this(game, KEEP_ALIVE_MILLIS);
+    }
+
+    // Same, sending a keep-alive after given idle time
+    StateEventStream(Game game, long keepAliveMillis) {
+        this.game = game;
+        this.keepAliveMillis = keepAliveMillis;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        return read(one, 0, 1) <= 0 ? -1 : one[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (offset >= event.size() && !nextEvent()) {
+            return -1; // Game ended, close stream
+        }
+        int n = event.copyTo(offset, b, off, len);
+        offset += n;
+        return n;
+    }
+
+    // Waits for next change and fills buffer with it; false when game is gone
+    private boolean nextEvent() throws IOException {
+        StateBroadcaster broadcaster = game.getBroadcaster();
+        try {
+            long version = broadcaster.awaitChange(seenVersion, keepAliveMillis);
+            if (broadcaster.isClosed()) {
+                return false;
+            }
+            event.reset();
+            if (version == seenVersion) {
+                event.raw(": keep-alive\n\n");
+            } else {
+                // Payload carries its own version, which may already be newer than this one
+                event.raw("data: ");
+                game.writeStateSince(seenVersion, event);
+                event.raw("\n\n");
+                seenVersion = version;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("State stream interrupted");
+        }
+        offset = 0;
+        return true;
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.columbus;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Remembers game state as of the latest version, and which entities
+ * changed in recent versions, so clients can ask for only what changed
+ * since the version they already have.
+ *
+ * Changes are kept in a bounded ring log. A client whose version has fallen
+ * out of the log, or predates the last world rebuild (reset), gets a full snapshot.
+ * Not thread-safe: StateBroadcaster calls it under its own lock.
+ */
+public class StateHistory {
+
+    private static final int LOG_CAPACITY = 512; // Changes remembered for delta requests
+
+    // Kinds of changed things recorded in log
+    private static final int CC = 0;
+    private static final int TREASURE = 1;
+    private static final int STATUS = 2; // collision and invisibility
+    private static final int PIRATE = 3;
+    private static final int MONSTER = 4;
+
+    private final GameStateManager gsm;
+    private final EntityManager em;
+
+    // State as of latest recorded version
+    private int[] cc = new int[2];
+    private int[] treasure = new int[2];
+    private String collision;
+    private boolean invisible;
+    private Object[] pirateRefs = new Object[0]; // Entity identity, to detect rebuilt world
+    private String[] pirateTypes = new String[0];
+    private int[] piratePositions = new int[0]; // row, col pairs
+    private Object[] monsterRefs = new Object[0];
+    private int[] monsterPositions = new int[0];
+    private int[][] islands = new int[0][];
+
+    // Ring log of (version, kind, index) changes
+    private final long[] logVersions = new long[LOG_CAPACITY];
+    private final int[] logKinds = new int[LOG_CAPACITY];
+    private final int[] logIndexes = new int[LOG_CAPACITY];
+    private int logSize = 0;
+    private int logHead = 0; // Next slot to write
+    private long baseVersion = 0; // Deltas cannot reach back before this version
+
+    public StateHistory(GameStateManager gsm, EntityManager em) {
+        this.gsm = gsm;
+        this.em = em;
+    }
+
+    /*
+     * Compares live game state against what was last recorded and logs
+     * every difference under the given version
+     */
+    public void record(long version) {
+        List<PirateShip> pirates = em.getPirates();
+        List<Entity> monsters = em.getMonsters();
+        List<int[]> liveIslands = em.getIslands();
+
+        if (!sameEntities(pirateRefs, pirates) || !sameEntities(monsterRefs, monsters)
+                || !sameIslands(liveIslands)) {
+            rebuild(version, pirates, monsters, liveIslands);
+            return;
+        }
+
+        ColumbusShip columbus = gsm.getColumbus();
+        if (copyIfChanged(columbus.getPosition(), cc, 0)) {
+            log(version, CC, 0);
+        }
+        if (copyIfChanged(gsm.getTreasurePosition(), treasure, 0)) {
+            log(version, TREASURE, 0);
+        }
+        String liveCollision = gsm.getCollisionStatus();
+        boolean liveInvisible = columbus.isInvisible();
+        if (!equal(collision, liveCollision) || invisible != liveInvisible) {
+            collision = liveCollision;
+            invisible = liveInvisible;
+            log(version, STATUS, 0);
+        }
+        for (int i = 0; i < pirates.size(); i++) {
+            if (copyIfChanged(pirates.get(i).getPosition(), piratePositions, i * 2)) {
+                log(version, PIRATE, i);
+            }
+        }
+        for (int i = 0; i < monsters.size(); i++) {
+            if (copyIfChanged(monsters.get(i).getPosition(), monsterPositions, i * 2)) {
+                log(version, MONSTER, i);
+            }
+        }
+    }
+
+    /*
+     * Writes state as JSON: only what changed after sinceVersion, or a full
+     * snapshot if sinceVersion is negative, unknown or too old
+     */
+    public void writeJson(long version, long sinceVersion, JsonBuffer json) {
+        if (sinceVersion < baseVersion || sinceVersion > version || sinceVersion < oldestDeltaVersion()) {
+            writeFull(json, version);
+        } else {
+            writeDelta(json, version, sinceVersion);
+        }
+    }
+
+    // Lowest version a client may hold and still get a delta
+    private long oldestDeltaVersion() {
+        if (logSize < LOG_CAPACITY) {
+            return baseVersion;
+        }
+        return logVersions[logHead]; // Oldest entry still in log; anything before it was dropped
+    }
+
+    private void writeFull(JsonBuffer json, long version) {
+        json.beginObject();
+        json.name("version").value(version);
+        json.name("full").value(true);
+        json.name("width").value(gsm.getWidth());
+        json.name("height").value(gsm.getHeight());
+        json.name("seed").value(gsm.getSeed());
+        writePosition(json.name("ccPosition"), cc, 0);
+        writePosition(json.name("treasurePosition"), treasure, 0);
+        json.name("pirates").beginArray();
+        for (int i = 0; i < pirateTypes.length; i++) {
+            writePirate(json, i);
+        }
+        json.endArray();
+        json.name("seaMonsters").beginArray();
+        for (int i = 0; i < monsterRefs.length; i++) {
+            writeMonster(json, i);
+        }
+        json.endArray();
+        json.name("islands").beginArray();
+        for (int[] island : islands) {
+            writePosition(json, island, 0);
+        }
+        json.endArray();
+        json.name("collision").value(collision);
+        json.name("columbusInvisible").value(invisible);
+        json.endObject();
+    }
+
+    private void writeDelta(JsonBuffer json, long version, long sinceVersion) {
+        boolean ccChanged = false, treasureChanged = false, statusChanged = false;
+        BitSet pirates = new BitSet();
+        BitSet monsters = new BitSet();
+
+        // Walk log from newest to oldest until reaching client's version
+        for (int n = 0; n < logSize; n++) {
+            int slot = (logHead - 1 - n + LOG_CAPACITY) % LOG_CAPACITY;
+            if (logVersions[slot] <= sinceVersion)
+                break;
+            switch (logKinds[slot]) {
+                case CC:
+                    ccChanged = true;
+                    break;
+                case TREASURE:
+                    treasureChanged = true;
+                    break;
+                case STATUS:
+                    statusChanged = true;
+                    break;
+                case PIRATE:
+                    pirates.set(logIndexes[slot]);
+                    break;
+                case MONSTER:
+                    monsters.set(logIndexes[slot]);
+                    break;
+            }
+        }
+
+        json.beginObject();
+        json.name("version").value(version);
+        json.name("full").value(false);
+        if (ccChanged)
+            writePosition(json.name("ccPosition"), cc, 0);
+        if (treasureChanged)
+            writePosition(json.name("treasurePosition"), treasure, 0);
+        if (statusChanged) {
+            json.name("collision").value(collision);
+            json.name("columbusInvisible").value(invisible);
+        }
+        if (!pirates.isEmpty()) {
+            json.name("pirates").beginObject(); // Keyed by index in full snapshot's list
+            for (int i = pirates.nextSetBit(0); i >= 0; i = pirates.nextSetBit(i + 1)) {
+                json.name(Integer.toString(i));
+                writePirate(json, i);
+            }
+            json.endObject();
+        }
+        if (!monsters.isEmpty()) {
+            json.name("seaMonsters").beginObject();
+            for (int i = monsters.nextSetBit(0); i >= 0; i = monsters.nextSetBit(i + 1)) {
+                json.name(Integer.toString(i));
+                writeMonster(json, i);
+            }
+            json.endObject();
+        }
+        json.endObject();
+    }
+
+    private void writePirate(JsonBuffer json, int i) {
+        json.beginObject();
+        writePosition(json.name("position"), piratePositions, i * 2);
+        json.name("type").value(pirateTypes[i]);
+        json.endObject();
+    }
+
+    private void writeMonster(JsonBuffer json, int i) {
+        json.beginObject();
+        writePosition(json.name("position"), monsterPositions, i * 2);
+        json.endObject();
+    }
+
+    private void writePosition(JsonBuffer json, int[] values, int offset) {
+        json.position(values[offset], values[offset + 1]);
+    }
+
+    /*
+     * World was rebuilt (new entities or islands): record everything
+     * and start a new base that deltas cannot cross
+     */
+    private void rebuild(long version, List<PirateShip> pirates, List<Entity> monsters, List<int[]> liveIslands) {
+        ColumbusShip columbus = gsm.getColumbus();
+        copyIfChanged(columbus.getPosition(), cc, 0);
+        copyIfChanged(gsm.getTreasurePosition(), treasure, 0);
+        collision = gsm.getCollisionStatus();
+        invisible = columbus.isInvisible();
+
+        pirateRefs = pirates.toArray();
+        pirateTypes = new String[pirates.size()];
+        piratePositions = new int[pirates.size() * 2];
+        for (int i = 0; i < pirates.size(); i++) {
+            pirateTypes[i] = pirates.get(i).getType();
+            copyIfChanged(pirates.get(i).getPosition(), piratePositions, i * 2);
+        }
+
+        monsterRefs = monsters.toArray();
+        monsterPositions = new int[monsters.size() * 2];
+        for (int i = 0; i < monsters.size(); i++) {
+            copyIfChanged(monsters.get(i).getPosition(), monsterPositions, i * 2);
+        }
+
+        islands = new int[liveIslands.size()][];
+        for (int i = 0; i < islands.length; i++) {
+            islands[i] = liveIslands.get(i);
+        }
+
+        baseVersion = version;
+        logSize = 0;
+        logHead = 0;
+    }
+
+    private void log(long version, int kind, int index) {
+        logVersions[logHead] = version;
+        logKinds[logHead] = kind;
+        logIndexes[logHead] = index;
+        logHead = (logHead + 1) % LOG_CAPACITY;
+        if (logSize < LOG_CAPACITY)
+            logSize++;
+    }
+
+    // Copies live position into recorded values, returns true if it differed
+    private static boolean copyIfChanged(int[] live, int[] recorded, int offset) {
+        if (recorded[offset] == live[0] && recorded[offset + 1] == live[1])
+            return false;
+        recorded[offset] = live[0];
+        recorded[offset + 1] = live[1];
+        return true;
+    }
+
+    private static boolean sameEntities(Object[] recorded, List<?> live) {
+        if (recorded.length != live.size())
+            return false;
+        for (int i = 0; i < recorded.length; i++) {
+            if (recorded[i] != live.get(i))
+                return false;
+        }
+        return true;
+    }
+
+    private boolean sameIslands(List<int[]> live) {
+        if (islands.length != live.size())
+            return false;
+        for (int i = 0; i < islands.length; i++) {
+            if (islands[i] != live.get(i))
+                return false;
+        }
+        return true;
+    }
+
+    private static boolean equal(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
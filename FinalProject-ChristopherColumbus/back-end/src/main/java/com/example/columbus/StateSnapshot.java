@@ -0,0 +1,40 @@
+package com.example.columbus;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Full game state as of one version, already serialized to JSON.
+ * Never changes after it is built, so any number of threads can send it
+ * at the same time without locks until the next version replaces it.
+ */
+public final class StateSnapshot {
+
+    private final long version;
+    private final byte[] json;
+
+    public StateSnapshot(long version, byte[] json) {
+        this.version = version;
+        this.json = json;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    // JSON length in bytes
+    public int size() {
+        return json.length;
+    }
+
+    // Stream over JSON for an HTTP response body (bytes are shared, not copied)
+    public InputStream toInputStream() {
+        return new ByteArrayInputStream(json);
+    }
+
+    @Override
+    public String toString() {
+        return new String(json, StandardCharsets.US_ASCII);
+    }
+}
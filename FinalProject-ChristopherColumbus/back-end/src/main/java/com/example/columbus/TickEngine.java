@@ -0,0 +1,256 @@
+package com.example.columbus;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared tick engine that drives periodic movement for all games.
+ * It is a hashed timer wheel: one timer thread advances the wheel every tick
+ * and hands due tasks to a small fixed pool of worker threads.
+ * Games register their tasks once; pause and resume only flip task state,
+ * so no threads are created or destroyed per game.
+ *
+ * A manual engine (see manual()) has no threads at all: time only moves when
+ * advance(millis) is called, and due tasks run right away on the calling thread,
+ * in the same order the timer thread would hand them out. Tests and the
+ * simulator use it to run thousands of ticks in milliseconds.
+ */
+public class TickEngine {
+
+    private static final long DEFAULT_TICK_MILLIS = 100; // Wheel resolution
+    private static final int DEFAULT_WHEEL_SIZE = 512; // Number of slots in wheel
+
+    // Engine shared by all games in this JVM
+    private static final TickEngine SHARED = new TickEngine(DEFAULT_TICK_MILLIS, DEFAULT_WHEEL_SIZE,
+            Runtime.getRuntime().availableProcessors());
+
+    private final long tickMillis; // Duration of one wheel tick
+    private final List<ArrayDeque<Entry>> wheel; // Slots, only touched by timer thread
+    private final Queue<Entry> pending = new ConcurrentLinkedQueue<>(); // Entries waiting to enter wheel
+    private final Executor workers; // Runs due tasks
+    private final boolean manual; // Advanced by caller instead of timer thread
+    private volatile long currentTick = 0; // Ticks advanced so far
+    private long manualMillis = 0; // Time passed on manual clock, may be part way into a tick
+
+    /*
+     * Creates an engine with given tick length, wheel size and worker count,
+     * and starts its timer thread
+     */
+    public TickEngine(long tickMillis, int wheelSize, int workerCount) {
+        this(tickMillis, wheelSize, workerPool(workerCount), false);
+
+        Thread timer = new Thread(this::runTimer, "tick-wheel");
+        timer.setDaemon(true);
+        timer.start();
+    }
+
+    private TickEngine(long tickMillis, int wheelSize, Executor workers, boolean manual) {
+        this.tickMillis = tickMillis;
+        this.wheel = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            wheel.add(new ArrayDeque<Entry>());
+        }
+        this.workers = workers;
+        this.manual = manual;
+    }
+
+    /*
+     * Creates an engine driven by a manual clock: no threads, tasks run
+     * on whichever thread calls advance(millis). Not thread-safe; use it from one thread.
+     */
+    public static TickEngine manual(long tickMillis, int wheelSize) {
+        return new TickEngine(tickMillis, wheelSize, Runnable::run, true);
+    }
+
+    // Engine with default tick length and wheel size, driven by a manual clock
+    public static TickEngine manual() {
+        return manual(DEFAULT_TICK_MILLIS, DEFAULT_WHEEL_SIZE);
+    }
+
+    private static Executor workerPool(int workerCount) {
+        AtomicInteger workerId = new AtomicInteger();
+        return Executors.newFixedThreadPool(workerCount, r -> {
+            Thread t = new Thread(r, "tick-worker-" + workerId.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Returns engine shared by all games
+    public static TickEngine getShared() {
+        return SHARED;
+    }
+
+    /*
+     * Registers a periodic action. Task starts paused; call resume() to start it.
+     */
+    public Task schedule(Runnable action, long periodMillis) {
+        long periodTicks = Math.max(1, (periodMillis + tickMillis - 1) / tickMillis);
+        return new Task(this, action, periodTicks);
+    }
+
+    /*
+     * Moves manual clock forward by given time, running every task that
+     * comes due on the way, tick by tick, before returning
+     */
+    public void advance(long millis) {
+        if (!manual)
+            throw new IllegalStateException("Engine runs on real time, only manual engines can be advanced");
+        manualMillis += millis;
+        while (currentTick < manualMillis / tickMillis) {
+            advance();
+        }
+    }
+
+    // Time passed since engine was created: whole ticks on real time, exact on a manual clock
+    public long getTimeMillis() {
+        return manual ? manualMillis : currentTick * tickMillis;
+    }
+
+    public boolean isManual() {
+        return manual;
+    }
+
+    // Timer thread loop: advance wheel once per tick
+    private void runTimer() {
+        long tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        long next = System.nanoTime();
+        while (true) {
+            next += tickNanos;
+            long sleep = next - System.nanoTime();
+            if (sleep > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleep);
+                } catch (InterruptedException e) {
+                    return; // Engine is shutting down
+                }
+            }
+            advance();
+        }
+    }
+
+    /*
+     * Moves wheel forward by one tick and dispatches every task that is due
+     */
+    private void advance() {
+        long tick = currentTick + 1;
+        currentTick = tick;
+
+        // Move newly resumed tasks into their slots
+        Entry entry;
+        while ((entry = pending.poll()) != null) {
+            if (entry.isCurrent()) {
+                slotFor(entry.deadline).add(entry);
+            }
+        }
+
+        ArrayDeque<Entry> slot = slotFor(tick);
+        for (int n = slot.size(); n > 0; n--) {
+            entry = slot.poll();
+            if (!entry.isCurrent()) {
+                continue; // Task was paused, resumed again or cancelled: drop stale entry
+            }
+            if (entry.deadline > tick) {
+                slot.add(entry); // Due in a later round of the wheel
+                continue;
+            }
+            workers.execute(entry.task::run);
+            entry.deadline += entry.task.periodTicks;
+            slotFor(entry.deadline).add(entry);
+        }
+    }
+
+    private ArrayDeque<Entry> slotFor(long tick) {
+        return wheel.get((int) (tick % wheel.size()));
+    }
+
+    // Adds a task to the wheel, due one period from now
+    private void enqueue(Task task, int generation) {
+        pending.add(new Entry(task, generation, currentTick + task.periodTicks));
+    }
+
+    /*
+     * Periodic task registered with the engine.
+     * pause(), resume() and cancel() are O(1) and never block on the timer thread.
+     */
+    public static class Task {
+        private final TickEngine engine;
+        private final Runnable action;
+        private final long periodTicks;
+        private final AtomicInteger generation = new AtomicInteger(); // Bumped on every state change
+        private final AtomicBoolean running = new AtomicBoolean(); // Prevents overlapping runs
+        private volatile boolean active = false;
+        private volatile boolean cancelled = false;
+
+        private Task(TickEngine engine, Runnable action, long periodTicks) {
+            this.engine = engine;
+            this.action = action;
+            this.periodTicks = periodTicks;
+        }
+
+        // Starts (or restarts) the task; first run is one period from now
+        public void resume() {
+            if (cancelled)
+                return;
+            active = true;
+            engine.enqueue(this, generation.incrementAndGet());
+        }
+
+        // Stops the task; stale wheel entry is dropped when timer reaches it
+        public void pause() {
+            active = false;
+            generation.incrementAndGet();
+        }
+
+        // Stops the task for good
+        public void cancel() {
+            cancelled = true;
+            pause();
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        // Runs action on a worker thread, skipping if previous run is still busy
+        private void run() {
+            if (!running.compareAndSet(false, true))
+                return;
+            try {
+                if (active) {
+                    action.run();
+                }
+            } catch (RuntimeException e) {
+                e.printStackTrace(); // Keep other games ticking
+            } finally {
+                running.set(false);
+            }
+        }
+    }
+
+    // Position of a task in the wheel
+    private static class Entry {
+        private final Task task;
+        private final int generation;
+        private long deadline; // Tick at which task runs next
+
+        private Entry(Task task, int generation, long deadline) {
+            this.task = task;
+            this.generation = generation;
+            this.deadline = deadline;
+        }
+
+        // False once task has been paused, resumed again or cancelled
+        private boolean isCurrent() {
+            return task.generation.get() == generation;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.columbus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A ready-made world: treasure, pirates, monsters and islands, placed the way
+ * a restart places them, plus the occupied cells that placing left behind.
+ * Generated from its own world seed, so the same seed always gives the same world
+ * (the journal records only the seed). Installing it into a game is O(entities),
+ * whatever the grid size or how hard placement was.
+ * Each layout is installed once; its entities become the game's entities.
+ */
+public class WorldLayout {
+
+    private final int width;
+    private final int height;
+    private final long seed;
+    private final int[] treasure;
+    private final List<PirateShip> pirates;
+    private final List<SeaMonster> monsters = new ArrayList<>();
+    private final List<int[]> islands;
+    private final List<int[]> occupied = new ArrayList<>(); // Row, col, layer bits
+
+    private WorldLayout(int width, int height, long seed, GameStateManager gsm) {
+        EntityManager em = gsm.getEntityManager();
+        this.width = width;
+        this.height = height;
+        this.seed = seed;
+        this.treasure = gsm.getTreasurePosition();
+        this.pirates = new ArrayList<>(em.getPirates());
+        for (Entity m : em.getMonsters()) {
+            monsters.add((SeaMonster) m);
+        }
+        this.islands = new ArrayList<>(em.getIslands());
+        gsm.getOccupancy().forEachOccupied((row, col, layers) -> occupied.add(new int[] { row, col, layers }));
+    }
+
+    /*
+     * Places everything on a width x height grid exactly like a restart does
+     * (CC back at 0,0, slow strategy), with randomness drawn from given world seed
+     */
+    public static WorldLayout generate(int width, int height, long seed) {
+        GameStateManager gsm = new GameStateManager(width, height, seed);
+        EntityManager em = new EntityManager(gsm);
+        gsm.setEntityManager(em);
+        gsm.reset(); // New treasure, CC at 0,0
+        em.clearOccupied();
+        em.initializeEntities(new ObserverManager()); // Observers are registered again on install
+        return new WorldLayout(width, height, seed, gsm);
+    }
+
+    /*
+     * Makes this the world of given game: CC back at 0,0 without cloak,
+     * no collision, slow strategy, pirates observing CC in om
+     */
+    public void install(GameStateManager gsm, ObserverManager om) {
+        if (gsm.getWidth() != width || gsm.getHeight() != height)
+            throw new IllegalArgumentException("Layout is " + width + "x" + height + ", game is "
+                    + gsm.getWidth() + "x" + gsm.getHeight());
+        gsm.setCollisionStatus(null);
+        gsm.setColumbus(new ConcreteColumbusShip()); // At 0,0
+        gsm.setTreasurePosition(treasure);
+        OccupancyGrid grid = gsm.getOccupancy();
+        grid.clearAll();
+        for (int[] cell : occupied) {
+            for (int layer = 0, layers = cell[2]; layers != 0; layer++, layers >>>= 1) {
+                if ((layers & 1) != 0)
+                    grid.set(cell[0], cell[1], layer);
+            }
+        }
+        gsm.getEntityManager().restore(pirates, monsters, islands, "slow", om);
+    }
+
+    // World seed this layout was generated from
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
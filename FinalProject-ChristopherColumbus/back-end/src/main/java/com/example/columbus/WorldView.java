@@ -0,0 +1,71 @@
+package com.example.columbus;
+
+/**
+ * Read-only view of one game's world, handed to entities and strategies when they move.
+ * Answers come straight from the live game (occupancy grid, spatial index, CC),
+ * so asking costs no allocation and no GameState copy.
+ * Returned position arrays belong to the game and must not be modified.
+ */
+public interface WorldView {
+
+    int getWidth(); // Grid columns
+
+    int getHeight(); // Grid rows
+
+    int[] getCcPosition(); // CC ship's current position
+
+    boolean isColumbusInvisible(); // CC has its invisibility cloak on
+
+    int[] getTreasurePosition();
+
+    boolean isOccupied(int row, int col); // Cell blocked in occupancy grid
+
+    default boolean isOccupied(int[] position) {
+        return isOccupied(position[0], position[1]);
+    }
+
+    boolean isIsland(int row, int col);
+
+    long getIslandVersion(); // Changes whenever islands do
+
+    boolean hasPirate(int row, int col);
+
+    boolean hasMonster(int row, int col);
+
+    default boolean inBounds(int row, int col) {
+        return row >= 0 && row < getHeight() && col >= 0 && col < getWidth();
+    }
+
+    /*
+     * Cell a chasing ship may not enter: island, ship, starting harbour (0, 0) or treasure.
+     * Ships are looked up in spatial index, not occupancy grid, which lags behind
+     * ships moved earlier in the same tick
+     */
+    default boolean isBlocked(int row, int col) {
+        int[] treasure = getTreasurePosition();
+        return isIsland(row, col) || hasPirate(row, col) || hasMonster(row, col) || (row == 0 && col == 0)
+                || (treasure != null && treasure[0] == row && treasure[1] == col);
+    }
+
+    // Steps from cell to CC around islands, or DistanceField.UNKNOWN (too far away, or walled off)
+    int distanceToColumbus(int row, int col);
+
+    /*
+     * Direction (index into DistanceField.STEP_ROWS/STEP_COLS: up, down, left, right)
+     * of the neighbour of (row, col) one step closer to CC on a shortest way around
+     * islands that is not blocked right now (first such direction); -1 if distance
+     * is unknown or every closer neighbour is taken. Allocates nothing.
+     */
+    default int directionTowardColumbus(int row, int col) {
+        int d = distanceToColumbus(row, col);
+        if (d <= 0)
+            return -1;
+        for (int dir = 0; dir < DistanceField.STEP_ROWS.length; dir++) {
+            int r = row + DistanceField.STEP_ROWS[dir];
+            int c = col + DistanceField.STEP_COLS[dir];
+            if (inBounds(r, c) && distanceToColumbus(r, c) == d - 1 && !isBlocked(r, c))
+                return dir;
+        }
+        return -1;
+    }
+}
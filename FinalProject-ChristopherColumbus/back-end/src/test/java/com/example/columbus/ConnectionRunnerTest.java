@@ -0,0 +1,81 @@
+package com.example.columbus;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import fi.iki.elonen.NanoHTTPD;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConnectionRunnerTest {
+
+    // Test: connection threads are virtual exactly when asked for and the JDK has them
+    @Test
+    public void testThreadKind() throws InterruptedException {
+        ConnectionRunner platform = new ConnectionRunner(false);
+        assertFalse(platform.isVirtual());
+        ConnectionRunner preferred = new ConnectionRunner(true);
+        assertEquals(ConnectionRunner.isVirtualAvailable(), preferred.isVirtual());
+
+        AtomicInteger ran = new AtomicInteger();
+        Thread t = preferred.newThread(ran::incrementAndGet, "test-connection");
+        assertEquals("test-connection", t.getName());
+        t.start();
+        t.join();
+        assertEquals(1, ran.get());
+    }
+
+    // Test: a server on this runner answers concurrent clients and forgets closed connections
+    @Test
+    public void testServesRequests() throws Exception {
+        ConnectionRunner runner = new ConnectionRunner(true);
+        NanoHTTPD server = new NanoHTTPD(0) {
+            @Override
+            public Response serve(IHTTPSession session) {
+                return newFixedLengthResponse("pong " + session.getParameters().get("n").get(0));
+            }
+        };
+        server.setAsyncRunner(runner);
+        server.start(NanoHTTPD.SOCKET_READ_TIMEOUT, true);
+        try {
+            List<Thread> clients = new ArrayList<>();
+            AtomicInteger answered = new AtomicInteger();
+            for (int c = 0; c < 20; c++) {
+                int n = c;
+                clients.add(new Thread(() -> {
+                    try {
+                        if (("pong " + n).equals(get(server.getListeningPort(), n)))
+                            answered.incrementAndGet();
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                    }
+                }));
+            }
+            for (Thread t : clients)
+                t.start();
+            for (Thread t : clients)
+                t.join();
+            assertEquals(20, answered.get());
+        } finally {
+            server.stop(); // Closes every connection still open
+        }
+        // Connection threads leave the runner as they finish
+        long deadline = System.currentTimeMillis() + 5000;
+        while (runner.getConnectionCount() > 0 && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+        assertEquals(0, runner.getConnectionCount());
+    }
+
+    private static String get(int port, int n) throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + "/?n=" + n)
+                .openConnection();
+        connection.setRequestProperty("Connection", "close");
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream(), "UTF-8"))) {
+            return in.readLine();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.columbus;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DistanceFieldTest {
+
+    // Empty 20x20 world with CC at given cell and an island wall in column 10, rows 2..17
+    private static GameStateManager walledWorld(int ccRow, int ccCol) {
+        GameStateManager gsm = new GameStateManager(20, 20, 1);
+        EntityManager em = new EntityManager(gsm);
+        gsm.setEntityManager(em);
+        for (int row = 2; row <= 17; row++) {
+            int[] island = { row, 10 };
+            em.getIslands().add(island);
+            gsm.addOccupied(island, OccupancyGrid.ISLAND);
+        }
+        gsm.getColumbus().setPosition(new int[] { ccRow, ccCol });
+        return gsm;
+    }
+
+    // Test: distances go around islands, and follow CC when it moves
+    @Test
+    public void testDistancesAroundIslands() {
+        GameStateManager gsm = walledWorld(10, 12);
+        WorldView world = gsm.getWorldView();
+        assertEquals(0, world.distanceToColumbus(10, 12));
+        assertEquals(DistanceField.UNKNOWN, world.distanceToColumbus(10, 10)); // Island
+        assertEquals(8 + 4 + 8, world.distanceToColumbus(10, 8)); // Round the wall's bottom end
+
+        gsm.getColumbus().setPosition(new int[] { 10, 9 });
+        assertEquals(1, world.distanceToColumbus(10, 8));
+        assertEquals(8 + 2 + 8, world.distanceToColumbus(10, 11));
+    }
+
+    // Test: a slow pirate walks around an island wall that blocked its greedy steps
+    @Test
+    public void testSlowPirateGoesAroundWall() {
+        GameStateManager gsm = walledWorld(10, 12);
+        PirateShip pirate = PirateShipFactory.createPirateShip("slow");
+        pirate.setStrategy(new SlowChaseStrategy());
+        pirate.setStateManager(gsm);
+        pirate.setPosition(new int[] { 10, 8 });
+
+        int steps = 0;
+        while (!(pirate.getPosition()[0] == 10 && pirate.getPosition()[1] == 12) && steps < 40) {
+            pirate.move();
+            steps++;
+        }
+        assertArrayEquals(new int[] { 10, 12 }, pirate.getPosition());
+        assertEquals(20, steps); // Shortest way, one cell per move
+    }
+
+    // Test: a fast pirate takes two steps of the same way per move
+    @Test
+    public void testFastPirateTakesTwoSteps() {
+        GameStateManager gsm = walledWorld(10, 12);
+        PirateShip pirate = PirateShipFactory.createPirateShip("fast");
+        pirate.setStrategy(new FastChaseStrategy());
+        pirate.setStateManager(gsm);
+        pirate.setPosition(new int[] { 10, 8 });
+        WorldView world = gsm.getWorldView();
+
+        pirate.move();
+        assertEquals(18, world.distanceToColumbus(pirate.getPosition()[0], pirate.getPosition()[1]));
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.columbus;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+public class EventJournalTest {
+
+    @TempDir
+    Path dir;
+
+    // Test: a game's events are read back in the order they happened
+    @Test
+    public void testGameEventsInOrder() throws Exception {
+        EventJournal journal = new EventJournal(dir, 2);
+        TickEngine engine = TickEngine.manual();
+        Game game = new Game(20, 20, 99, engine);
+        game.setJournal(journal, "session-1");
+
+        game.move("right");
+        game.togglePirateStrategies();
+        game.activateInvisibilityCloak();
+        engine.advance(MovementController.MOVE_PERIOD_MILLIS); // One monster and one patrol tick
+        game.setCollisionStatus(null);
+        game.shutdown();
+        journal.close();
+
+        List<JournalRecord> records = EventJournal.readAll(dir);
+        byte[] expected = { EventJournal.START, EventJournal.MOVE, EventJournal.TOGGLE, EventJournal.CLOAK,
+                EventJournal.TICK, EventJournal.TICK, EventJournal.COLLISION, EventJournal.END };
+        assertEquals(expected.length, records.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], records.get(i).getType());
+            assertEquals(records.get(0).getGameId(), records.get(i).getGameId());
+        }
+
+        JournalRecord start = records.get(0);
+        assertEquals(99, start.getSeed());
+        assertEquals(20, start.getWidth());
+        assertEquals("session-1", start.getSessionId());
+        assertEquals("right", records.get(1).getDirection());
+        assertEquals(MovementController.MONSTER_TICK, records.get(4).getTickKind());
+        assertEquals(MovementController.PATROL_TICK, records.get(5).getTickKind());
+    }
+
+    // Test: a record torn by a crash at the end of a segment is skipped
+    @Test
+    public void testTornTailIgnored() throws Exception {
+        EventJournal journal = new EventJournal(dir, 1);
+        journal.start(1, 20, 20, 5, "a");
+        journal.move(1, "down", null);
+        journal.close();
+
+        Path segment = EventJournal.segmentFile(dir, 0);
+        Files.write(segment, new byte[] { 0, 0, 0, 40, 2, 0, 0 }, StandardOpenOption.APPEND);
+
+        List<JournalRecord> records = EventJournal.readAll(dir);
+        assertEquals(2, records.size());
+        assertEquals("down", records.get(1).getDirection());
+        assertNull(records.get(1).getCollision());
+    }
+
+    // Test: a segment many times the read buffer, with records of every size across its refills, reads back whole
+    @Test
+    public void testLargeSegmentReadInPieces() throws Exception {
+        EventJournal journal = new EventJournal(dir, 1);
+        char[] longId = new char[60000];
+        Arrays.fill(longId, 's');
+        for (int i = 0; i < 40; i++) {
+            journal.start(i, 20, 20, i, new String(longId, 0, 1000 * i + 1)); // Up to ~40 KB each
+            journal.tick(i, i % 2, true, null);
+        }
+        journal.close();
+        assertTrue(Files.size(EventJournal.segmentFile(dir, 0)) > 2 * 256 * 1024);
+
+        List<JournalRecord> records = EventJournal.readAll(dir);
+        assertEquals(80, records.size());
+        for (int i = 0; i < 40; i++) {
+            assertEquals(1000 * i + 1, records.get(2 * i).getSessionId().length());
+            assertEquals(i % 2, records.get(2 * i + 1).getTickKind());
+        }
+    }
+
+    // Test: reopening a journal appends to existing segments
+    @Test
+    public void testReopenAppends() throws Exception {
+        EventJournal first = new EventJournal(dir, 1);
+        first.event(1, EventJournal.TOGGLE);
+        first.close();
+        EventJournal second = new EventJournal(dir, 1);
+        second.event(1, EventJournal.CLOAK);
+        second.close();
+
+        List<JournalRecord> records = EventJournal.readAll(dir);
+        assertEquals(2, records.size());
+        assertEquals(EventJournal.CLOAK, records.get(1).getType());
+    }
+
+    // Test: appenders outrunning the writer are slowed down, and nothing is lost or reordered
+    @Test
+    public void testBackpressureKeepsEveryRecord() throws Exception {
+        EventJournal journal = new EventJournal(dir, 1);
+        int perGame = 30000; // Two games together overfill the shard's queue
+        Thread[] appenders = new Thread[2];
+        for (int g = 0; g < appenders.length; g++) {
+            long gameId = g + 1;
+            appenders[g] = new Thread(() -> {
+                for (int i = 0; i < perGame; i++) {
+                    journal.tick(gameId, i % 2, true, null);
+                }
+            });
+            appenders[g].start();
+        }
+        for (Thread t : appenders)
+            t.join();
+        journal.close();
+        assertEquals(0, journal.getFailedCount());
+
+        List<JournalRecord> records = EventJournal.readAll(dir);
+        assertEquals(2 * perGame, records.size());
+        int[] next = new int[3];
+        for (JournalRecord record : records) {
+            int game = (int) record.getGameId();
+            assertEquals(next[game]++ % 2, record.getTickKind());
+        }
+    }
+
+    // Test: a record too big to write is rejected by the caller, and the journal keeps working
+    @Test
+    public void testOversizeRecordRejected() throws Exception {
+        EventJournal journal = new EventJournal(dir, 1);
+        char[] huge = new char[70000];
+        Arrays.fill(huge, 'x');
+        assertThrows(IllegalArgumentException.class, () -> journal.start(1, 20, 20, 5, new String(huge)));
+        journal.event(1, EventJournal.TOGGLE);
+        journal.close();
+        assertEquals(1, EventJournal.readAll(dir).size());
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.columbus;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.HashSet;
+import java.util.Set;
+
+public class FreeCellsTest {
+
+    // Test: every cell of a grid gets picked exactly once, then picking fails instead of looping
+    @Test
+    public void testFillsWholeGrid() {
+        FreeCells free = new FreeCells(10, 12);
+        free.take(3, 4);
+        GameRandom random = new GameRandom(1);
+        Set<Integer> picked = new HashSet<>();
+        for (int i = 0; i < 119; i++) {
+            int[] cell = free.takeRandom(random);
+            assertFalse(cell[0] == 3 && cell[1] == 4);
+            assertTrue(picked.add(cell[0] * 10 + cell[1]));
+        }
+        assertEquals(0, free.getFreeCount());
+        assertThrows(IllegalStateException.class, () -> free.takeRandom(random));
+    }
+
+    // Test: cells near avoided position are never picked, but stay free for later picks
+    @Test
+    public void testKeepsDistance() {
+        FreeCells free = new FreeCells(10, 10);
+        GameRandom random = new GameRandom(2);
+        for (int i = 0; i < 91; i++) {
+            int[] cell = free.takeRandom(random, new int[] { 0, 0 }, 3);
+            assertTrue(cell[0] >= 3 || cell[1] >= 3);
+        }
+        assertEquals(9, free.getFreeCount());
+        assertTrue(free.isFree(2, 2));
+        assertThrows(IllegalStateException.class, () -> free.takeRandom(random, new int[] { 0, 0 }, 3));
+        assertEquals(9, free.getFreeCount());
+    }
+
+    // Test: free cells of a game skip its occupied cells, whatever order they were marked in
+    @Test
+    public void testFromOccupancy() {
+        GameStateManager a = new GameStateManager(100000, 100000, 1);
+        GameStateManager b = new GameStateManager(100000, 100000, 1);
+        a.addOccupied(new int[] { 5, 7 }, OccupancyGrid.ISLAND);
+        a.addOccupied(new int[] { 99999, 3 }, OccupancyGrid.ISLAND);
+        b.addOccupied(new int[] { 99999, 3 }, OccupancyGrid.ISLAND);
+        b.addOccupied(new int[] { 5, 7 }, OccupancyGrid.ISLAND);
+
+        FreeCells freeA = FreeCells.of(a);
+        FreeCells freeB = FreeCells.of(b);
+        assertEquals(100000L * 100000 - 3, freeA.getFreeCount()); // CC's cell too
+        assertFalse(freeA.isFree(5, 7));
+        assertFalse(freeA.isFree(0, 0));
+        assertTrue(freeA.isFree(5, 8));
+        GameRandom ra = new GameRandom(3);
+        GameRandom rb = new GameRandom(3);
+        for (int i = 0; i < 100; i++) {
+            assertArrayEquals(freeA.takeRandom(ra), freeB.takeRandom(rb));
+        }
+    }
+}
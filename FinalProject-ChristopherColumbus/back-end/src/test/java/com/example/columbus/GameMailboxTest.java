@@ -0,0 +1,177 @@
+package com.example.columbus;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class GameMailboxTest {
+
+    // Test: commands sent from many threads run one at a time, each sender's in order
+    @Test
+    public void testCommandsRunOneAtATime() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        GameMailbox mailbox = new GameMailbox(pool);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        int[] lastSeen = new int[4];
+        List<Thread> senders = new ArrayList<>();
+        for (int s = 0; s < 4; s++) {
+            int sender = s;
+            senders.add(new Thread(() -> {
+                for (int i = 1; i <= 500; i++) {
+                    int n = i;
+                    mailbox.execute(() -> {
+                        if (running.incrementAndGet() != 1)
+                            overlaps.incrementAndGet();
+                        if (lastSeen[sender] != n - 1)
+                            overlaps.incrementAndGet();
+                        lastSeen[sender] = n; // Not thread-safe on purpose: mailbox makes it so
+                        running.decrementAndGet();
+                    });
+                }
+            }));
+        }
+        for (Thread t : senders)
+            t.start();
+        for (Thread t : senders)
+            t.join();
+        mailbox.call(() -> null); // Runs after everything sent before it
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(0, overlaps.get());
+        for (int seen : lastSeen)
+            assertEquals(500, seen);
+        assertEquals(0, mailbox.size());
+    }
+
+    // Test: call() hands back command's result or exception (Errors included), and later commands still run
+    @Test
+    public void testCallReturnsResultOrThrows() {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        GameMailbox mailbox = new GameMailbox(pool);
+        assertEquals(Integer.valueOf(42), mailbox.call(() -> 42));
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> mailbox.call(() -> {
+            throw new IllegalStateException("broken");
+        }));
+        assertEquals("broken", e.getMessage());
+        // An Error reaches the caller too, instead of leaving it waiting, and the mailbox keeps going
+        Error error = assertThrows(Error.class, () -> mailbox.call(() -> {
+            throw new Error("fatal");
+        }));
+        assertEquals("fatal", error.getMessage());
+        assertEquals(Integer.valueOf(7), mailbox.call(() -> 7));
+        // Called from inside a command, call() runs right away instead of waiting on itself
+        assertEquals("inner", mailbox.call(() -> mailbox.call(() -> "inner")));
+        pool.shutdown();
+    }
+
+    // Test: game changes and ticks run through the mailbox on shared workers and still add up
+    @Test
+    public void testGameOnWorkerPool() throws InterruptedException {
+        TickEngine engine = new TickEngine(10, 64, 2);
+        Game game = new Game(20, 20, 3, engine);
+        long before = game.getSnapshot().getVersion();
+        List<Thread> players = new ArrayList<>();
+        for (int p = 0; p < 3; p++) {
+            players.add(new Thread(() -> {
+                for (int i = 0; i < 50; i++) {
+                    game.togglePirateStrategies();
+                }
+            }));
+        }
+        for (Thread t : players)
+            t.start();
+        for (Thread t : players)
+            t.join();
+
+        // Every toggle published once; 150 toggles leave strategy where it started
+        assertTrue(game.getSnapshot().getVersion() >= before + 150);
+        assertEquals("slow", game.getCurrentStrategy());
+        game.shutdown();
+    }
+
+    // Test: with reactions deferred to a later command, a game plays out exactly like one reacting on the spot
+    @Test
+    public void testDeferredReactionsPlaySameGame() {
+        String[] directions = { "up", "down", "left", "right" };
+        Game direct = new Game(20, 20, 9, TickEngine.manual());
+        Game deferred = new Game(20, 20, 9, TickEngine.manual());
+        deferred.setDeferReactions(true);
+
+        SplittableRandom moves = new SplittableRandom(5);
+        for (int i = 0; i < 300; i++) {
+            String direction = directions[moves.nextInt(4)];
+            if (i % 50 == 10) {
+                direct.activateInvisibilityCloak();
+                deferred.activateInvisibilityCloak();
+            }
+            String collision = direct.move(direction).getCollision();
+            assertEquals(collision, deferred.move(direction).getCollision(), "move " + i);
+            if (collision != null && !"island".equals(collision)) {
+                direct.start();
+                deferred.start();
+            }
+        }
+        assertEquals(positions(direct), positions(deferred));
+        assertEquals(direct.getSnapshot().size(), deferred.getSnapshot().size());
+    }
+
+    // Test: a deferred move is answered before pirates react; game's next command reacts and publishes
+    @Test
+    public void testMoveAnsweredBeforePiratesReact() {
+        Game game = new Game(20, 20, 4, TickEngine.manual());
+        game.setDeferReactions(true);
+        GameStateManager gsm = game.getGameStateManager();
+        game.getEntityManager().getIslands().clear(); // Make sure nothing blocks the move
+        game.getEntityManager().getMonsters().clear();
+        long version = game.getBroadcaster().getVersion();
+
+        game.getMailbox().call(() -> { // Reaction queues behind this command
+            assertNull(game.move("right").getCollision());
+            assertArrayEquals(new int[] { 0, 1 }, gsm.getCcPosition());
+            assertEquals(version, game.getBroadcaster().getVersion()); // Not published yet
+            assertTrue(gsm.settle()); // Pirates had not reacted yet
+            return null;
+        });
+        assertEquals(0, game.getMailbox().size());
+        assertEquals(version + 1, game.getBroadcaster().getVersion());
+    }
+
+    // Test: a move's answer keeps the state it was built with while game goes on moving and ticking
+    @Test
+    public void testMoveAnswerIsACopy() {
+        TickEngine engine = TickEngine.manual();
+        Game game = new Game(20, 20, 6, engine);
+        game.setDeferReactions(true);
+        game.getEntityManager().getIslands().clear();
+        game.getEntityManager().getMonsters().clear();
+        GameState answer = game.move("right");
+        String json = answer.toJson();
+
+        game.move("down");
+        engine.advance(MovementController.MOVE_PERIOD_MILLIS * 3);
+        game.start(); // New world
+        assertEquals(json, answer.toJson());
+        game.shutdown();
+    }
+
+    private static String positions(Game game) {
+        GameStateManager gsm = game.getGameStateManager();
+        StringBuilder sb = new StringBuilder(Arrays.toString(gsm.getCcPosition())).append(gsm.isColumbusInvisible());
+        for (PirateShip pirate : gsm.getEntityManager().getPirates()) {
+            sb.append(Arrays.toString(pirate.getPosition())).append(pirate.getIgnoreTurns());
+        }
+        for (Entity monster : gsm.getEntityManager().getMonsters()) {
+            sb.append(Arrays.toString(monster.getPosition()));
+        }
+        return sb.append(gsm.getRandom().getState()).toString();
+    }
+}
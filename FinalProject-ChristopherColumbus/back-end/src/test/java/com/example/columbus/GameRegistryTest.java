@@ -0,0 +1,177 @@
+package com.example.columbus;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameRegistryTest {
+
+    private GameRegistry registry;
+
+    @BeforeEach
+    public void setup() {
+        registry = new GameRegistry();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        registry.remove("a");
+        registry.remove("b");
+        registry.remove("c");
+    }
+
+    // Test: same session id always returns the same game
+    @Test
+    public void testSameSessionReturnsSameGame() {
+        Game first = registry.getOrCreate("a");
+        assertSame(first, registry.getOrCreate("a"));
+        assertEquals(1, registry.size());
+    }
+
+    // Test: moving in one session does not affect another session
+    @Test
+    public void testSessionsAreIndependent() {
+        Game a = registry.getOrCreate("a");
+        Game b = registry.getOrCreate("b");
+        assertNotSame(a.getGameStateManager(), b.getGameStateManager());
+
+        a.getEntityManager().getIslands().clear(); // Make sure nothing blocks the move
+        a.getEntityManager().getMonsters().clear();
+        a.getEntityManager().getPirates().clear();
+        a.move("right");
+
+        assertArrayEquals(new int[]{0, 1}, a.getColumbus().getPosition());
+        assertArrayEquals(new int[]{0, 0}, b.getColumbus().getPosition());
+    }
+
+    // Test: removed session is gone and a new one is created on next lookup
+    @Test
+    public void testRemoveSession() {
+        Game first = registry.getOrCreate("a");
+        registry.remove("a");
+        assertNull(registry.get("a"));
+        assertNotSame(first, registry.getOrCreate("a"));
+    }
+
+    // Test: a session can start a game on a bigger world, with everything placed inside it
+    @Test
+    public void testCreateWithWorldSize() {
+        Game old = registry.getOrCreate("a");
+        Game big = registry.create("a", 5000, 300);
+        assertNotSame(old, big);
+        assertSame(big, registry.get("a"));
+        assertTrue(old.getBroadcaster().isClosed());
+
+        GameStateManager gsm = big.getGameStateManager();
+        assertEquals(5000, gsm.getWidth());
+        assertEquals(300, gsm.getHeight());
+        for (Entity monster : big.getEntityManager().getMonsters()) {
+            assertTrue(monster.getPosition()[0] < 300 && monster.getPosition()[1] < 5000);
+        }
+    }
+
+    // Test: world sizes outside supported range are rejected
+    @Test
+    public void testInvalidWorldSize() {
+        assertThrows(IllegalArgumentException.class, () -> new GameStateManager(5, 20));
+        assertThrows(IllegalArgumentException.class, () -> new GameStateManager(20, 100001));
+    }
+
+    // Test: an idle session is hibernated off-heap and comes back as it was on next use
+    @Test
+    public void testIdleSessionHibernates() {
+        registry = new GameRegistry(null, 60000, 100);
+        Game game = registry.create("a", 20, 20, 7);
+        game.move("down");
+        int[] cc = game.getColumbus().getPosition().clone();
+        int[] monster = game.getEntityManager().getMonsters().get(0).getPosition().clone();
+
+        registry.sweep(System.currentTimeMillis() + 60001);
+        assertEquals(0, registry.getResidentCount());
+        assertEquals(1, registry.getHibernatedCount());
+        assertEquals(1, registry.size());
+        assertTrue(registry.getHibernatedBytes() < 1000);
+        assertTrue(game.getBroadcaster().isClosed()); // Streams of hibernated game end
+        assertFalse(game.getMovementController().isMonsterMovementActive());
+
+        Game resumed = registry.get("a");
+        assertNotSame(game, resumed);
+        assertEquals(7, resumed.getSeed());
+        assertArrayEquals(cc, resumed.getColumbus().getPosition());
+        assertArrayEquals(monster, resumed.getEntityManager().getMonsters().get(0).getPosition());
+        assertTrue(resumed.getMovementController().isMonsterMovementActive());
+        assertEquals(1, registry.getResidentCount());
+        assertEquals(0, registry.getHibernatedCount());
+        assertSame(resumed, registry.getOrCreate("a"));
+
+        registry.sweep(System.currentTimeMillis()); // Just used: stays live
+        assertEquals(1, registry.getResidentCount());
+    }
+
+    // Test: beyond maxResident, least recently used sessions are hibernated
+    @Test
+    public void testLeastRecentlyUsedHibernated() throws InterruptedException {
+        registry = new GameRegistry(null, 0, 2);
+        Game a = registry.getOrCreate("a");
+        Thread.sleep(5);
+        registry.getOrCreate("b");
+        Thread.sleep(5);
+        registry.getOrCreate("a"); // b is now least recently used
+        Thread.sleep(5);
+        registry.getOrCreate("c");
+
+        assertEquals(2, registry.getResidentCount());
+        assertEquals(1, registry.getHibernatedCount());
+        assertEquals(3, registry.size());
+        Thread.sleep(5);
+        assertSame(a, registry.getOrCreate("a")); // c is now least recently used
+
+        Thread.sleep(5);
+        registry.getOrCreate("b"); // Comes back, c goes
+        assertEquals(2, registry.getResidentCount());
+        assertEquals(1, registry.getHibernatedCount());
+        assertSame(a, registry.get("a"));
+    }
+
+    // Test: a change to a game hibernated after lookup is refused, then lands on the resumed game
+    @Test
+    public void testChangeToHibernatedGameRetries() {
+        registry = new GameRegistry(null, 60000, 100);
+        Game stale = registry.create("a", 20, 20, 11);
+        stale.getEntityManager().getIslands().clear(); // Make sure nothing blocks the moves
+        stale.getEntityManager().getMonsters().clear();
+        stale.getEntityManager().getPirates().clear();
+        registry.sweep(System.currentTimeMillis() + 60001); // Hibernated while a request holds it
+
+        assertThrows(GameSuspendedException.class, () -> stale.move("down"));
+        assertArrayEquals(new int[] { 0, 0 }, stale.getColumbus().getPosition()); // Refused change did nothing
+
+        int[] moved = registry.apply("a", game -> game.move("down").getCcPosition());
+        assertArrayEquals(new int[] { 1, 0 }, moved);
+        assertArrayEquals(new int[] { 1, 0 }, registry.get("a").getColumbus().getPosition());
+        assertFalse(registry.getOrCreate("a").isSuspended());
+    }
+
+    // Test: no change is lost while sweeps keep hibernating the session under a player
+    @Test
+    public void testNoChangeLostToConcurrentHibernation() throws InterruptedException {
+        registry = new GameRegistry(null, 60000, 100);
+        registry.create("a", 20, 20, 12);
+        int toggles = 301;
+        Thread player = new Thread(() -> {
+            for (int i = 0; i < toggles; i++) {
+                registry.apply("a", game -> {
+                    game.togglePirateStrategies();
+                    return null;
+                });
+            }
+        });
+        player.start();
+        while (player.isAlive()) {
+            registry.sweep(System.currentTimeMillis() + 60001); // Every session looks idle
+        }
+        player.join();
+        assertEquals("fast", registry.getOrCreate("a").getCurrentStrategy()); // Odd number of toggles
+    }
+}
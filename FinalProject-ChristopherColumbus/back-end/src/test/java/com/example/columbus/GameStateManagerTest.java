@@ -108,4 +108,39 @@ public class GameStateManagerTest {
         gsm.UnwrapColumbus();
         assertFalse(gsm.getColumbus() instanceof InvisibleColumbusDecorator);
     }
-}
\ No newline at end of file
+
+    // Test: same seed and same moves give the same world and the same game
+    @Test
+    public void testSameSeedReplaysGame() {
+        GameStateManager[] games = { new GameStateManager(20, 20, 7), new GameStateManager(20, 20, 7) };
+        EntityManager[] ems = new EntityManager[2];
+        ObserverManager[] oms = { new ObserverManager(), new ObserverManager() };
+        for (int g = 0; g < 2; g++) {
+            ems[g] = new EntityManager(games[g]);
+            games[g].setEntityManager(ems[g]);
+            ems[g].initializeEntities(oms[g]);
+        }
+        MovementController[] controllers = { new MovementController(games[0], ems[0]),
+                new MovementController(games[1], ems[1]) };
+
+        String[] moves = { "right", "down", "down", "right", "down", "right" };
+        for (String move : moves) {
+            for (int g = 0; g < 2; g++) {
+                games[g].handleMove(move, ems[g], oms[g]);
+                controllers[g].moveMonsters();
+            }
+            assertEquals(positions(ems[0]), positions(ems[1]));
+            assertArrayEquals(games[0].getCcPosition(), games[1].getCcPosition());
+        }
+        controllers[0].shutdown();
+        controllers[1].shutdown();
+    }
+
+    private static String positions(EntityManager em) {
+        StringBuilder sb = new StringBuilder();
+        em.getPirates().forEach(p -> sb.append(Arrays.toString(p.getPosition())));
+        em.getMonsters().forEach(m -> sb.append(Arrays.toString(m.getPosition())));
+        em.getIslands().forEach(i -> sb.append(Arrays.toString(i)));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.columbus;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+public class MapPoolTest {
+
+    @TempDir
+    Path dir;
+
+    // Test: same world seed gives same world, and installing it restarts the game
+    @Test
+    public void testLayoutInstallsLikeRestart() {
+        Game game = new Game(30, 25, 3, TickEngine.manual());
+        game.getGameStateManager().setCollisionStatus("pirate");
+        game.togglePirateStrategies();
+
+        WorldLayout layout = WorldLayout.generate(30, 25, 99);
+        Game.restart(game.getGameStateManager(), new ObserverManager(), layout);
+
+        Game other = new Game(30, 25, 4, TickEngine.manual());
+        Game.restart(other.getGameStateManager(), new ObserverManager(), WorldLayout.generate(30, 25, 99));
+
+        GameStateManager gsm = game.getGameStateManager();
+        EntityManager em = gsm.getEntityManager();
+        GameStateManager expected = other.getGameStateManager();
+        assertArrayEquals(new int[] { 0, 0 }, gsm.getCcPosition());
+        assertNull(gsm.getCollisionStatus());
+        assertEquals("slow", em.getCurrentStrategy());
+        assertArrayEquals(expected.getTreasurePosition(), gsm.getTreasurePosition());
+        assertEquals(expected.getEntityManager().getIslands().size(), em.getIslands().size());
+        for (int i = 0; i < em.getPirates().size(); i++) {
+            assertArrayEquals(expected.getEntityManager().getPirates().get(i).getPosition(),
+                    em.getPirates().get(i).getPosition());
+        }
+        for (int row = 0; row < 25; row++) {
+            for (int col = 0; col < 30; col++) {
+                assertEquals(expected.isOccupied(row, col), gsm.isOccupied(row, col), row + "," + col);
+            }
+        }
+    }
+
+    // Test: pool hands out layouts of asked size and fills itself back up in background
+    @Test
+    public void testPoolRefills() throws InterruptedException {
+        MapPool pool = new MapPool(4, 2);
+        pool.prepare(40, 30);
+        awaitReady(pool, 40, 30, 4);
+
+        WorldLayout first = pool.take(40, 30);
+        WorldLayout second = pool.take(40, 30);
+        assertEquals(40, first.getWidth());
+        assertEquals(30, first.getHeight());
+        assertNotEquals(first.getSeed(), second.getSeed());
+        awaitReady(pool, 40, 30, 4);
+
+        // Sizes beyond maxConfigs are generated on the spot
+        pool.take(20, 20);
+        WorldLayout unpooled = pool.take(50, 50);
+        assertEquals(50, unpooled.getWidth());
+        assertEquals(0, pool.getReadyCount(50, 50));
+    }
+
+    // Test: restarts with pooled worlds still replay, since journal keeps their world seeds
+    @Test
+    public void testPooledRestartsReplay() throws Exception {
+        EventJournal journal = new EventJournal(dir, 1);
+        TickEngine engine = TickEngine.manual();
+        Game game = new Game(20, 20, 11, engine);
+        game.setMapPool(new MapPool(2, 1));
+        game.setJournal(journal, "player-1");
+        String[] directions = { "right", "down", "right", "down" };
+        for (int i = 0; i < 5; i++) {
+            game.start();
+            for (String direction : directions) {
+                game.move(direction);
+                engine.advance(MovementController.MOVE_PERIOD_MILLIS);
+            }
+        }
+        journal.close();
+
+        ReplayReport report = ReplayEngine.verify(dir, 1);
+        assertEquals(1, report.getGames());
+        assertEquals(0, report.getFailed(), report.toString());
+    }
+
+    // Test: registry games with same seed get same worlds on reset, pool or not, hibernated or not
+    @Test
+    public void testSeededResetsReproducible() throws InterruptedException {
+        MapPool.getShared().prepare(20, 20);
+        awaitReady(MapPool.getShared(), 20, 20, 16); // Pool has worlds ready, seeded games must not take them
+        GameRegistry registry = new GameRegistry(null, 60000, 100);
+        Game a = registry.create("a", 20, 20, 42);
+        Game b = registry.create("b", 20, 20, 42);
+        assertEquals(layout(a), layout(b));
+
+        a.start();
+        b.start();
+        assertEquals(layout(a), layout(b));
+
+        registry.sweep(System.currentTimeMillis() + 60001); // Both hibernated, seeded flag saved with them
+        Game resumedA = registry.getOrCreate("a");
+        Game resumedB = registry.getOrCreate("b");
+        assertTrue(resumedA.isSeeded());
+        resumedA.start();
+        resumedB.start();
+        assertEquals(layout(resumedA), layout(resumedB));
+
+        Game unseeded = registry.create("c", 20, 20);
+        assertFalse(unseeded.isSeeded());
+        registry.remove("a");
+        registry.remove("b");
+        registry.remove("c");
+    }
+
+    // Treasure, pirates, monsters and islands of game's world, as text
+    private static String layout(Game game) {
+        GameStateManager gsm = game.getGameStateManager();
+        EntityManager em = gsm.getEntityManager();
+        StringBuilder sb = new StringBuilder(Arrays.toString(gsm.getTreasurePosition()));
+        em.getPirates().forEach(p -> sb.append(Arrays.toString(p.getPosition())));
+        em.getMonsters().forEach(m -> sb.append(Arrays.toString(m.getPosition())));
+        em.getIslands().forEach(i -> sb.append(Arrays.toString(i)));
+        return sb.toString();
+    }
+
+    private static void awaitReady(MapPool pool, int width, int height, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (pool.getReadyCount(width, height) < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, pool.getReadyCount(width, height));
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.columbus;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MovementControllerTest {
+
+    private static final long PERIOD = MovementController.MOVE_PERIOD_MILLIS;
+
+    // Test: monsters and patrol pirate tick once per period, and not while paused
+    @Test
+    public void testPauseAndResume() {
+        TickEngine engine = TickEngine.manual();
+        Game game = new Game(20, 20, 1, engine);
+        MovementController controller = game.getMovementController();
+        int[] ticks = new int[2];
+        controller.setTickListener((kind, changed) -> ticks[kind]++);
+
+        engine.advance(PERIOD);
+        assertArrayEquals(new int[] { 1, 1 }, ticks);
+
+        controller.stopAll();
+        assertFalse(controller.isMonsterMovementActive());
+        assertFalse(controller.isPatrollingPirateActive());
+        engine.advance(PERIOD * 5);
+        assertArrayEquals(new int[] { 1, 1 }, ticks);
+
+        controller.stopMonsterMovement();
+        controller.resumeAll();
+        engine.advance(PERIOD);
+        assertArrayEquals(new int[] { 2, 2 }, ticks);
+        game.shutdown();
+    }
+
+    // Test: restarting many times leaves one tick per period (stale wheel entries are dropped)
+    @Test
+    public void testRestartDoesNotDoubleTicks() {
+        TickEngine engine = TickEngine.manual();
+        Game game = new Game(20, 20, 2, engine);
+        MovementController controller = game.getMovementController();
+        int[] ticks = new int[2];
+        controller.setTickListener((kind, changed) -> ticks[kind]++);
+
+        for (int i = 0; i < 10; i++) {
+            controller.restart();
+        }
+        engine.advance(PERIOD * 4);
+        assertArrayEquals(new int[] { 4, 4 }, ticks);
+        game.shutdown();
+    }
+
+    // Test: after shutdown a game's tasks never run again
+    @Test
+    public void testShutdownCancelsTicks() {
+        TickEngine engine = TickEngine.manual();
+        Game game = new Game(20, 20, 3, engine);
+        MovementController controller = game.getMovementController();
+        int[] ticks = new int[2];
+        controller.setTickListener((kind, changed) -> ticks[kind]++);
+
+        game.shutdown();
+        controller.resumeAll(); // Cancelled tasks stay cancelled
+        engine.advance(PERIOD * 3);
+        assertArrayEquals(new int[] { 0, 0 }, ticks);
+    }
+
+    // Test: ticks falling due while their runner is behind wait there once, not once per period
+    @Test
+    public void testTicksCoalesceWhileRunnerBehind() {
+        TickEngine engine = TickEngine.manual();
+        Game game = new Game(20, 20, 4, engine);
+        MovementController controller = game.getMovementController();
+        int[] ticks = new int[2];
+        controller.setTickListener((kind, changed) -> ticks[kind]++);
+        List<Runnable> waiting = new ArrayList<>();
+        controller.setRunner(waiting::add); // Runner that never gets round to its work
+
+        engine.advance(PERIOD * 5);
+        assertEquals(2, waiting.size()); // One monster tick, one patrol tick
+        for (Runnable tick : waiting)
+            tick.run();
+        waiting.clear();
+        assertArrayEquals(new int[] { 1, 1 }, ticks);
+
+        engine.advance(PERIOD * 3); // Caught up: next due ticks queue again
+        assertEquals(2, waiting.size());
+        game.shutdown();
+    }
+
+    // Test: ticks queued when their game is suspended do nothing once they run
+    @Test
+    public void testQueuedTickSkippedAfterSuspend(@TempDir Path dir) throws Exception {
+        EventJournal journal = new EventJournal(dir, 1);
+        TickEngine engine = TickEngine.manual();
+        Game game = new Game(20, 20, 5, engine);
+        game.setJournal(journal, "session");
+        MovementController controller = game.getMovementController();
+        List<Runnable> waiting = new ArrayList<>();
+        controller.setRunner(waiting::add);
+
+        engine.advance(PERIOD);
+        assertEquals(2, waiting.size());
+        SnapshotStore.encode("session", game, true); // Hibernated while its ticks wait
+        String before = positions(game);
+        for (Runnable tick : waiting)
+            tick.run();
+        assertEquals(before, positions(game));
+        journal.close();
+        for (JournalRecord record : EventJournal.readAll(dir))
+            assertNotEquals(EventJournal.TICK, record.getType());
+    }
+
+    private static String positions(Game game) {
+        StringBuilder sb = new StringBuilder();
+        for (Entity e : game.getEntityManager().getMonsters())
+            sb.append(Arrays.toString(e.getPosition()));
+        for (PirateShip e : game.getEntityManager().getPirates())
+            sb.append(Arrays.toString(e.getPosition()));
+        return sb.toString();
+    }
+
+    // Test: real-time engine runs tasks on its own threads until paused
+    @Test
+    public void testRealTimeEngine() throws InterruptedException {
+        TickEngine engine = new TickEngine(5, 64, 1);
+        CountDownLatch threeRuns = new CountDownLatch(3);
+        AtomicInteger runs = new AtomicInteger();
+        TickEngine.Task task = engine.schedule(() -> {
+            runs.incrementAndGet();
+            threeRuns.countDown();
+        }, 10);
+        task.resume();
+        assertTrue(threeRuns.await(5, TimeUnit.SECONDS));
+
+        task.pause();
+        Thread.sleep(50); // A run already handed to a worker may still finish
+        int paused = runs.get();
+        Thread.sleep(100);
+        assertEquals(paused, runs.get());
+        task.cancel();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.columbus;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OccupancyGridTest {
+
+    private OccupancyGrid grid;
+
+    @BeforeEach
+    public void setup() {
+        grid = new OccupancyGrid(20, 20);
+    }
+
+    // Test: a set cell is occupied in its own layer and overall, but not in other layers
+    @Test
+    public void testSetAndLookupByLayer() {
+        grid.set(7, 13, OccupancyGrid.ISLAND);
+        assertTrue(grid.isOccupied(7, 13));
+        assertTrue(grid.isOccupied(7, 13, OccupancyGrid.ISLAND));
+        assertFalse(grid.isOccupied(7, 13, OccupancyGrid.PIRATE));
+        assertFalse(grid.isOccupied(13, 7));
+    }
+
+    // Test: clearing one layer keeps the cell occupied by other layers
+    @Test
+    public void testClearOneLayer() {
+        grid.set(3, 3, OccupancyGrid.MONSTER);
+        grid.set(3, 3, OccupancyGrid.TREASURE);
+        grid.clear(3, 3, OccupancyGrid.MONSTER);
+        assertTrue(grid.isOccupied(3, 3));
+        grid.clear(3, 3, OccupancyGrid.TREASURE);
+        assertFalse(grid.isOccupied(3, 3));
+    }
+
+    // Test: corners map to distinct bits and out-of-grid cells are never occupied
+    @Test
+    public void testBoundaries() {
+        grid.set(0, 0, OccupancyGrid.COLUMBUS);
+        grid.set(19, 19, OccupancyGrid.PIRATE);
+        assertTrue(grid.isOccupied(0, 0));
+        assertTrue(grid.isOccupied(19, 19));
+        assertFalse(grid.isOccupied(0, 1));
+        assertFalse(grid.isOccupied(-1, 0));
+        assertFalse(grid.isOccupied(20, 19));
+    }
+
+    // Test: clearAll empties every layer
+    @Test
+    public void testClearAll() {
+        grid.set(5, 5, OccupancyGrid.ISLAND);
+        grid.set(6, 6, OccupancyGrid.PIRATE);
+        grid.clearAll();
+        assertFalse(grid.isOccupied(5, 5));
+        assertFalse(grid.isOccupied(6, 6));
+    }
+
+    // Test: a 100k x 100k world only allocates chunks that hold something
+    @Test
+    public void testHugeWorldIsSparse() {
+        OccupancyGrid huge = new OccupancyGrid(100000, 100000);
+        huge.set(0, 0, OccupancyGrid.COLUMBUS);
+        huge.set(99999, 99999, OccupancyGrid.TREASURE);
+        huge.set(50000, 12345, OccupancyGrid.ISLAND);
+        assertEquals(3, huge.getChunkCount());
+        assertTrue(huge.isOccupied(99999, 99999));
+        assertTrue(huge.isOccupied(50000, 12345, OccupancyGrid.ISLAND));
+        assertFalse(huge.isOccupied(50000, 12346));
+    }
+
+    // Test: chunk is released once its last cell is cleared
+    @Test
+    public void testEmptyChunkReleased() {
+        OccupancyGrid huge = new OccupancyGrid(100000, 100000);
+        huge.set(70000, 70000, OccupancyGrid.MONSTER);
+        huge.set(70001, 70000, OccupancyGrid.MONSTER);
+        huge.clear(70000, 70000, OccupancyGrid.MONSTER);
+        assertEquals(1, huge.getChunkCount());
+        huge.clear(70001, 70000, OccupancyGrid.MONSTER);
+        assertEquals(0, huge.getChunkCount());
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.columbus;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PatrolRouteTest {
+
+    // Test: patrol following its compiled route goes exactly where column scanning would take it
+    @Test
+    public void testRouteMatchesScanning() {
+        for (long seed = 0; seed < 20; seed++) {
+            Game game = new Game(20, 15, seed, TickEngine.manual());
+            WorldView world = game.getGameStateManager().getWorldView();
+            PatrolPirateShip patrol = game.getEntityManager().getPatrolPirate();
+            int[] expected = { patrol.getPosition()[0], patrol.getPosition()[1], patrol.getColDirection() };
+            for (int tick = 0; tick < 1000; tick++) {
+                expected = PatrolStrategy.next(expected[0], expected[1], expected[2], world);
+                patrol.move(world);
+                assertArrayEquals(expected,
+                        new int[] { patrol.getPosition()[0], patrol.getPosition()[1], patrol.getColDirection() },
+                        "seed " + seed + ", tick " + tick);
+            }
+            assertTrue(patrol.getRoute().length() <= 2 * 20 * 15);
+        }
+    }
+
+    // Test: a new island makes patrol compile its route again, and sail round it
+    @Test
+    public void testRecompiledWhenIslandsChange() {
+        Game game = new Game(20, 20, 3, TickEngine.manual());
+        GameStateManager gsm = game.getGameStateManager();
+        WorldView world = gsm.getWorldView();
+        PatrolPirateShip patrol = game.getEntityManager().getPatrolPirate();
+        patrol.move(world);
+        PatrolRoute first = patrol.getRoute();
+        patrol.move(world);
+        assertSame(first, patrol.getRoute());
+
+        int[] pos = patrol.getPosition();
+        int[] ahead = PatrolStrategy.next(pos[0], pos[1], patrol.getColDirection(), world);
+        game.getEntityManager().getIslands().add(new int[] { ahead[0], ahead[1] });
+        assertFalse(first.isValidFor(world));
+        int[] expected = PatrolStrategy.next(pos[0], pos[1], patrol.getColDirection(), world);
+        patrol.move(world);
+        assertNotSame(first, patrol.getRoute());
+        assertArrayEquals(new int[] { expected[0], expected[1] }, patrol.getPosition());
+    }
+}
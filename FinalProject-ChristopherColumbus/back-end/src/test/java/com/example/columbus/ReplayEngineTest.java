@@ -0,0 +1,146 @@
+package com.example.columbus;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class ReplayEngineTest {
+
+    private static final String[] DIRECTIONS = { "up", "down", "left", "right" };
+
+    @TempDir
+    Path dir;
+
+    // Test: GameRandom gives exactly the numbers SplittableRandom gives for a seed
+    @Test
+    public void testGameRandomMatchesSplittableRandom() {
+        GameRandom mine = new GameRandom(12345);
+        SplittableRandom theirs = new SplittableRandom(12345);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(theirs.nextInt(20), mine.nextInt(20));
+            assertEquals(theirs.nextInt(64), mine.nextInt(64));
+            assertEquals(theirs.nextLong(), mine.nextLong());
+            assertEquals(theirs.nextDouble(), mine.nextDouble());
+        }
+    }
+
+    // Test: replaying a journaled game gives the same state after every move
+    @Test
+    public void testReplayMatchesLiveGame() throws Exception {
+        List<String> live = playJournaledGame(7, 350);
+
+        List<JournalRecord> records = EventJournal.readAll(dir);
+        ReplayEngine replay = new ReplayEngine(records);
+        assertEquals(live.size() - 1, replay.getMoveCount());
+        assertEquals(live.get(0), fingerprint(replay));
+        for (int turn = 1; turn < live.size(); turn++) {
+            replay.seek(turn);
+            assertEquals(live.get(turn), fingerprint(replay), "turn " + turn);
+        }
+        replay.replayAll();
+        assertTrue(replay.isAtEnd());
+        assertNull(replay.getMismatch());
+    }
+
+    // Test: seeking backwards and forwards lands on the same state as playing straight through
+    @Test
+    public void testSeekBothWays() throws Exception {
+        List<String> live = playJournaledGame(11, 250);
+        ReplayEngine replay = new ReplayEngine(EventJournal.readAll(dir));
+
+        for (int turn : Arrays.asList(240, 3, 199, 200, 0, 101, 250, 57)) {
+            replay.seek(turn);
+            assertEquals(turn, replay.getTurn());
+            assertEquals(live.get(turn), fingerprint(replay), "turn " + turn);
+        }
+        assertThrows(IllegalArgumentException.class, () -> replay.seek(251));
+    }
+
+    // Test: bulk verification replays every game in journal and finds no differences
+    @Test
+    public void testVerifyJournal() throws Exception {
+        EventJournal journal = new EventJournal(dir, 2);
+        TickEngine engine = TickEngine.manual();
+        SplittableRandom moves = new SplittableRandom(3);
+        List<Game> games = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Game game = new Game(20, 20, i, engine);
+            game.setJournal(journal, "session-" + i);
+            games.add(game);
+        }
+        for (int turn = 0; turn < 60; turn++) {
+            for (Game game : games) {
+                play(game, DIRECTIONS[moves.nextInt(4)]);
+            }
+            engine.advance(MovementController.MOVE_PERIOD_MILLIS / 2);
+        }
+        for (Game game : games) {
+            game.shutdown();
+        }
+        journal.close();
+
+        ReplayReport report = ReplayEngine.verify(dir, 3);
+        assertEquals(6, report.getGames());
+        assertEquals(0, report.getFailed(), report.toString());
+        assertEquals(0, report.getIncomplete());
+    }
+
+    // Plays a journaled game with random moves and ticks; returns state after each move (0 = start)
+    private List<String> playJournaledGame(long seed, int moveCount) throws Exception {
+        EventJournal journal = new EventJournal(dir, 1);
+        TickEngine engine = TickEngine.manual();
+        Game game = new Game(20, 20, seed, engine);
+        game.setJournal(journal, "session");
+        SplittableRandom moves = new SplittableRandom(seed);
+
+        List<String> states = new ArrayList<>();
+        states.add(fingerprint(game.getGameStateManager()));
+        for (int i = 0; i < moveCount; i++) {
+            play(game, DIRECTIONS[moves.nextInt(4)]);
+            states.add(fingerprint(game.getGameStateManager()));
+            if (moves.nextInt(10) == 0)
+                game.togglePirateStrategies();
+            if (moves.nextInt(25) == 0)
+                game.activateInvisibilityCloak();
+            engine.advance(moves.nextInt(3) * MovementController.MOVE_PERIOD_MILLIS / 2);
+        }
+        game.shutdown();
+        journal.close();
+        return states;
+    }
+
+    // Moves; starts over first if last game ended, as client does
+    private static void play(Game game, String direction) {
+        if (game.getState().getCollision() != null && !"island".equals(game.getState().getCollision()))
+            game.start();
+        game.move(direction);
+    }
+
+    private static String fingerprint(ReplayEngine replay) {
+        return fingerprint(replay.getStateManager());
+    }
+
+    // Everything that moves or changes in a game
+    private static String fingerprint(GameStateManager gsm) {
+        EntityManager em = gsm.getEntityManager();
+        StringBuilder sb = new StringBuilder();
+        sb.append(Arrays.toString(gsm.getCcPosition())).append(gsm.isColumbusInvisible())
+                .append(gsm.getCollisionStatus()).append(em.getCurrentStrategy())
+                .append(Arrays.toString(gsm.getTreasurePosition()));
+        for (PirateShip pirate : em.getPirates()) {
+            sb.append(Arrays.toString(pirate.getPosition()));
+        }
+        for (Entity monster : em.getMonsters()) {
+            sb.append(Arrays.toString(monster.getPosition()));
+        }
+        for (int[] island : em.getIslands()) {
+            sb.append(Arrays.toString(island));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.columbus;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimulatorTest {
+
+    // Test: every game of a batch ends with exactly one outcome
+    @Test
+    public void testEveryGameHasOutcome() {
+        Simulator simulator = new Simulator(20, 20, GreedyPlayerBot::new);
+        SimulationReport report = simulator.run(200, 2);
+
+        assertEquals(200, report.getGames());
+        long outcomes = report.getCount(SimulationReport.TREASURE) + report.getCount(SimulationReport.PIRATE)
+                + report.getCount(SimulationReport.MONSTER) + report.getCount(SimulationReport.TIMEOUT);
+        assertEquals(200, outcomes);
+        assertTrue(report.getMaxTurns() <= Simulator.DEFAULT_MAX_TURNS);
+    }
+
+    // Test: games that hit turn limit are reported as timeouts
+    @Test
+    public void testTurnLimit() {
+        Simulator simulator = new Simulator(20, 20, seed -> world -> "left"); // Never leaves column 0
+        simulator.setMaxTurns(5);
+        simulator.setMoveMillis(1); // No monster/patrol tick within 5 moves
+        SimulationReport report = simulator.run(10);
+
+        assertEquals(10, report.getCount(SimulationReport.TIMEOUT));
+        assertEquals(5, report.getMaxTurns());
+    }
+
+    // Test: same batch seed gives same games, whatever the number of threads
+    @Test
+    public void testSameSeedSameReport() {
+        Simulator simulator = new Simulator(20, 20, GreedyPlayerBot::new);
+        simulator.setSeed(42);
+        SimulationReport one = simulator.run(100, 1);
+        SimulationReport three = simulator.run(100, 3);
+
+        assertEquals(one.getTotalTurns(), three.getTotalTurns());
+        for (String outcome : new String[] { SimulationReport.TREASURE, SimulationReport.PIRATE,
+                SimulationReport.MONSTER, SimulationReport.TIMEOUT }) {
+            assertEquals(one.getCount(outcome), three.getCount(outcome));
+        }
+    }
+
+    // Test: reports from different threads add up
+    @Test
+    public void testMerge() {
+        SimulationReport a = new SimulationReport();
+        a.record(SimulationReport.TREASURE, 10);
+        SimulationReport b = new SimulationReport();
+        b.record(SimulationReport.MONSTER, 4);
+        b.record(SimulationReport.PIRATE, 30);
+        a.merge(b);
+
+        assertEquals(3, a.getGames());
+        assertEquals(1, a.getCount(SimulationReport.MONSTER));
+        assertEquals(4, a.getMinTurns());
+        assertEquals(30, a.getMaxTurns());
+        assertEquals(44, a.getTotalTurns());
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.columbus;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+public class SnapshotStoreTest {
+
+    private static final String[] DIRECTIONS = { "up", "down", "left", "right" };
+
+    @TempDir
+    Path dir;
+
+    // Test: a resumed game is the same game, and keeps playing out the same way
+    @Test
+    public void testResumedGamePlaysOnTheSame() throws Exception {
+        Game game = new Game(20, 20, 42, TickEngine.manual());
+        SplittableRandom moves = new SplittableRandom(1);
+        play(game, moves, 40);
+        game.togglePirateStrategies();
+        game.activateInvisibilityCloak();
+        game.activateInvisibilityCloak(); // Cloak over cloak
+        game.getMovementController().stopPatrollingPirate();
+
+        Path file = dir.resolve("sessions.snapshot");
+        Map<String, Game> games = new LinkedHashMap<>();
+        games.put("player-1", game);
+        SnapshotStore.save(file, games, false);
+        Map<String, Game> resumed = SnapshotStore.load(file, TickEngine.manual(), null);
+
+        Game copy = resumed.get("player-1");
+        assertNotNull(copy);
+        assertEquals(42, copy.getSeed());
+        assertEquals(fingerprint(game), fingerprint(copy));
+        assertTrue(copy.getMovementController().isMonsterMovementActive());
+        assertFalse(copy.getMovementController().isPatrollingPirateActive());
+
+        // Same random state, occupancy and observers: same moves give same game
+        play(game, new SplittableRandom(2), 200);
+        play(copy, new SplittableRandom(2), 200);
+        assertEquals(fingerprint(game), fingerprint(copy));
+    }
+
+    // Test: a 20x20 game costs a few hundred bytes
+    @Test
+    public void testSnapshotIsCompact() throws Exception {
+        TickEngine engine = TickEngine.manual();
+        Map<String, Game> games = new LinkedHashMap<>();
+        for (int i = 0; i < 500; i++) {
+            games.put("session-" + i, new Game(20, 20, i, engine));
+        }
+        Path file = dir.resolve("sessions.snapshot");
+        long size = SnapshotStore.save(file, games, true);
+        assertEquals(size, Files.size(file));
+        assertTrue(size / games.size() < 500, "bytes per game: " + size / games.size());
+        assertFalse(games.get("session-0").getMovementController().isMonsterMovementActive()); // Stopped
+
+        Map<String, Game> resumed = SnapshotStore.load(file, engine, null);
+        assertEquals(games.keySet(), resumed.keySet());
+        for (String id : games.keySet()) {
+            assertEquals(fingerprint(games.get(id)), fingerprint(resumed.get(id)), id);
+        }
+    }
+
+    // Test: a resumed journaled game keeps recording under its id, so its journal still replays
+    @Test
+    public void testResumedGameKeepsJournal() throws Exception {
+        Path journalDir = dir.resolve("journal");
+        EventJournal journal = new EventJournal(journalDir, 1);
+        TickEngine engine = TickEngine.manual();
+        Game game = new Game(20, 20, 5, engine);
+        game.setJournal(journal, "player-1");
+        playTicking(game, engine, new SplittableRandom(3), 30);
+        Path file = dir.resolve("sessions.snapshot");
+        Map<String, Game> games = new LinkedHashMap<>();
+        games.put("player-1", game);
+        SnapshotStore.save(file, games, true);
+
+        TickEngine restarted = TickEngine.manual();
+        Game resumed = SnapshotStore.load(file, restarted, journal).get("player-1");
+        assertEquals(game.getJournalId(), resumed.getJournalId());
+        playTicking(resumed, restarted, new SplittableRandom(4), 30);
+        journal.close();
+
+        ReplayReport report = ReplayEngine.verify(journalDir, 1);
+        assertEquals(1, report.getGames());
+        assertEquals(0, report.getFailed(), report.toString());
+    }
+
+    // Test: a file that is not a snapshot is refused
+    @Test
+    public void testRejectsOtherFiles() throws Exception {
+        Path file = dir.resolve("garbage");
+        Files.write(file, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 });
+        assertThrows(IOException.class, () -> SnapshotStore.load(file, TickEngine.manual(), null));
+    }
+
+    // Random moves with a monster and patrol tick after each; starts over when a game ends
+    private static void play(Game game, SplittableRandom moves, int count) {
+        for (int i = 0; i < count; i++) {
+            String collision = game.getState().getCollision();
+            if (collision != null && !"island".equals(collision))
+                game.start();
+            game.move(DIRECTIONS[moves.nextInt(4)]);
+            synchronized (game.getGameStateManager()) {
+                game.getMovementController().moveMonsters();
+                game.getMovementController().movePatrolPirate();
+            }
+        }
+    }
+
+    // Same, with ticks coming from engine (so a journal hears about them)
+    private static void playTicking(Game game, TickEngine engine, SplittableRandom moves, int count) {
+        for (int i = 0; i < count; i++) {
+            String collision = game.getState().getCollision();
+            if (collision != null && !"island".equals(collision))
+                game.start();
+            game.move(DIRECTIONS[moves.nextInt(4)]);
+            engine.advance(MovementController.MOVE_PERIOD_MILLIS);
+        }
+    }
+
+    // Everything that moves or changes in a game, occupied cells included
+    private static String fingerprint(Game game) {
+        GameStateManager gsm = game.getGameStateManager();
+        EntityManager em = gsm.getEntityManager();
+        StringBuilder sb = new StringBuilder();
+        sb.append(Arrays.toString(gsm.getCcPosition())).append(gsm.isColumbusInvisible())
+                .append(gsm.getCollisionStatus()).append(em.getCurrentStrategy())
+                .append(Arrays.toString(gsm.getTreasurePosition())).append(gsm.getRandom().getState());
+        for (PirateShip pirate : em.getPirates()) {
+            sb.append(pirate.getType()).append(pirate.getStrategy().getClass().getSimpleName())
+                    .append(Arrays.toString(pirate.getPosition())).append(pirate.getIgnoreTurns());
+        }
+        PatrolPirateShip patrol = em.getPatrolPirate();
+        sb.append(patrol.getMode()).append(patrol.getRow()).append(patrol.getCol()).append(patrol.getColDirection());
+        for (Entity monster : em.getMonsters()) {
+            sb.append(Arrays.toString(monster.getPosition()))
+                    .append(Arrays.toString(((SeaMonster) monster).getInitialPosition()));
+        }
+        for (int[] island : em.getIslands()) {
+            sb.append(Arrays.toString(island));
+        }
+        for (int row = 0; row < gsm.getHeight(); row++) {
+            for (int col = 0; col < gsm.getWidth(); col++) {
+                sb.append(gsm.isOccupied(row, col) ? '#' : '.');
+            }
+        }
+        return sb.toString();
+    }
+}
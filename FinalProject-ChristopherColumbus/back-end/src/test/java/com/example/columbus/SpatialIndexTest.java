@@ -0,0 +1,108 @@
+package com.example.columbus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpatialIndexTest {
+
+    private GameStateManager gsm;
+    private EntityManager em;
+
+    @BeforeEach
+    public void setup() {
+        gsm = new GameStateManager();
+        em = new EntityManager(gsm);
+        gsm.setEntityManager(em);
+        em.initializeEntities(new ObserverManager());
+    }
+
+    // Test: index follows a pirate when it moves
+    @Test
+    public void testPirateMoveUpdatesIndex() {
+        em.getPirates().clear();
+        PirateShip pirate = new SlowPirateShip();
+        pirate.setStateManager(gsm);
+        pirate.setPosition(new int[]{ 10, 10 });
+        em.getPirates().add(pirate);
+
+        pirate.setPosition(new int[]{ 10, 11 });
+
+        assertTrue(em.isPirate(new int[]{ 10, 11 }));
+        assertFalse(em.isPirate(new int[]{ 10, 10 }));
+    }
+
+    // Test: every island and monster in the lists is found by cell lookup
+    @Test
+    public void testLookupsMatchLists() {
+        for (int[] island : em.getIslands()) {
+            assertTrue(em.isIsland(island));
+        }
+        for (Entity monster : em.getMonsters()) {
+            assertTrue(em.isMonster(monster.getPosition()));
+        }
+    }
+
+    // Test: entities removed from the lists are gone from the index
+    @Test
+    public void testClearedListsEmptyIndex() {
+        int[] monster = em.getMonsters().get(0).getPosition();
+        int[] island = em.getIslands().get(0);
+        em.getMonsters().clear();
+        em.getIslands().clear();
+        assertFalse(em.isMonster(monster));
+        assertFalse(em.isIsland(island));
+    }
+
+    // Test: bulk list changes (removeIf, subList, iterator, set, addAll) keep index in step too
+    @Test
+    public void testBulkListChangesKeepIndex() {
+        List<Entity> monsters = em.getMonsters();
+        int[] first = monsters.get(0).getPosition();
+        int[] second = monsters.get(1).getPosition();
+        int[] third = monsters.get(2).getPosition();
+        Entity firstMonster = monsters.get(0);
+        monsters.removeIf(m -> m == firstMonster);
+        assertFalse(em.isMonster(first));
+        monsters.subList(0, 1).clear();
+        assertFalse(em.isMonster(second));
+        Iterator<Entity> it = monsters.iterator();
+        it.next();
+        it.remove();
+        assertFalse(em.isMonster(third));
+
+        SeaMonster added = new SeaMonster();
+        added.setPosition(new int[] { 19, 19 });
+        monsters.set(0, added);
+        assertTrue(em.isMonster(new int[] { 19, 19 }));
+
+        int[] island = em.getIslands().get(0);
+        em.getIslands().removeIf(pos -> pos == island);
+        assertFalse(em.isIsland(island));
+        em.getIslands().addAll(Arrays.asList(new int[] { 18, 1 }, new int[] { 18, 2 }));
+        assertTrue(em.isIsland(18, 1) && em.isIsland(18, 2));
+        for (int[] pos : em.getIslands()) {
+            assertTrue(em.isIsland(pos));
+        }
+    }
+
+    // Test: radius query finds entities within Chebyshev distance only
+    @Test
+    public void testCollectWithin() {
+        SpatialIndex index = new SpatialIndex(20, 20);
+        SeaMonster near = new SeaMonster();
+        near.setPosition(new int[]{ 5, 6 });
+        SeaMonster far = new SeaMonster();
+        far.setPosition(new int[]{ 9, 9 });
+        index.add(near);
+        index.add(far);
+
+        List<Entity> found = new ArrayList<>();
+        assertEquals(1, index.collectWithin(5, 5, 1, found));
+        assertSame(near, found.get(0));
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.columbus;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StateBroadcasterTest {
+
+    private GameStateManager gsm;
+    private EntityManager em;
+    private StateBroadcaster broadcaster;
+
+    @BeforeEach
+    public void setup() {
+        gsm = new GameStateManager();
+        em = new EntityManager(gsm);
+        gsm.setEntityManager(em);
+        em.initializeEntities(new ObserverManager());
+        broadcaster = new StateBroadcaster(gsm, em);
+        broadcaster.publish();
+    }
+
+    private JsonObject stateSince(long version) {
+        return JsonParser.parseString(broadcaster.getStateJson(version)).getAsJsonObject();
+    }
+
+    // Test: versions increase with each published change
+    @Test
+    public void testVersionIncreases() {
+        long before = broadcaster.getVersion();
+        broadcaster.publish();
+        assertEquals(before + 1, broadcaster.getVersion());
+    }
+
+    // Test: delta only contains what changed since client's version
+    @Test
+    public void testDeltaContainsOnlyChanges() {
+        long seen = broadcaster.getVersion();
+        gsm.getColumbus().setPosition(new int[]{0, 1});
+        broadcaster.publish();
+
+        JsonObject delta = stateSince(seen);
+        assertFalse(delta.get("full").getAsBoolean());
+        assertEquals(1, delta.getAsJsonArray("ccPosition").get(1).getAsInt());
+        assertFalse(delta.has("pirates"));
+        assertFalse(delta.has("islands"));
+    }
+
+    // Test: moved monster is reported under its index
+    @Test
+    public void testDeltaReportsMovedMonster() {
+        long seen = broadcaster.getVersion();
+        em.getMonsters().get(2).setPosition(new int[]{0, 19});
+        broadcaster.publish();
+
+        JsonObject delta = stateSince(seen);
+        assertTrue(delta.getAsJsonObject("seaMonsters").has("2"));
+        assertEquals(1, delta.getAsJsonObject("seaMonsters").size());
+    }
+
+    // Test: client from before a world rebuild gets a full snapshot
+    @Test
+    public void testFullSnapshotAfterRebuild() {
+        long seen = broadcaster.getVersion();
+        gsm.reset();
+        em.initializeEntities(new ObserverManager());
+        broadcaster.publish();
+
+        JsonObject state = stateSince(seen);
+        assertTrue(state.get("full").getAsBoolean());
+        assertEquals(20, state.getAsJsonArray("islands").size());
+    }
+
+    // Test: unknown or negative version gets a full snapshot
+    @Test
+    public void testFullSnapshotForUnknownVersion() {
+        assertTrue(stateSince(-1).get("full").getAsBoolean());
+        assertTrue(stateSince(broadcaster.getVersion() + 10).get("full").getAsBoolean());
+    }
+
+    // Test: readers share one immutable snapshot until the next publish
+    @Test
+    public void testSnapshotReusedUntilNextPublish() {
+        StateSnapshot first = broadcaster.getSnapshot();
+        assertSame(first, broadcaster.getSnapshot());
+        assertEquals(broadcaster.getVersion(), first.getVersion());
+
+        gsm.getColumbus().setPosition(new int[]{0, 1});
+        broadcaster.publish();
+
+        StateSnapshot second = broadcaster.getSnapshot();
+        assertNotSame(first, second);
+        JsonObject old = JsonParser.parseString(first.toString()).getAsJsonObject();
+        JsonObject latest = JsonParser.parseString(second.toString()).getAsJsonObject();
+        assertEquals(0, old.getAsJsonArray("ccPosition").get(1).getAsInt()); // Old snapshot did not change
+        assertEquals(1, latest.getAsJsonArray("ccPosition").get(1).getAsInt());
+        assertEquals(6, latest.getAsJsonArray("seaMonsters").size());
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.columbus;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+public class StateEventStreamTest {
+
+    // Test: stream starts with a full snapshot, then sends one delta per published change
+    @Test
+    public void testSnapshotThenDeltas() throws IOException {
+        Game game = new Game(20, 20, 4, TickEngine.manual());
+        StateEventStream stream = new StateEventStream(game, 60000);
+
+        JsonObject first = data(nextEvent(stream));
+        assertTrue(first.get("full").getAsBoolean());
+        assertEquals(game.getBroadcaster().getVersion(), first.get("version").getAsLong());
+
+        game.togglePirateStrategies();
+        JsonObject second = data(nextEvent(stream));
+        assertFalse(second.get("full").getAsBoolean());
+        assertEquals(first.get("version").getAsLong() + 1, second.get("version").getAsLong());
+        game.shutdown();
+    }
+
+    // Test: idle stream sends a keep-alive comment, and ends once game is closed
+    @Test
+    public void testKeepAliveAndEnd() throws IOException {
+        Game game = new Game(20, 20, 5, TickEngine.manual());
+        StateEventStream stream = new StateEventStream(game, 20);
+        nextEvent(stream); // Snapshot
+
+        assertEquals(": keep-alive\n\n", nextEvent(stream));
+        game.shutdown();
+        assertEquals(-1, stream.read(new byte[64], 0, 64));
+    }
+
+    // Reads exactly one event (stream hands out an event at a time, ending in a blank line)
+    private static String nextEvent(StateEventStream stream) throws IOException {
+        StringBuilder event = new StringBuilder();
+        byte[] chunk = new byte[256];
+        while (event.length() < 2 || !event.substring(event.length() - 2).equals("\n\n")) {
+            int n = stream.read(chunk, 0, chunk.length);
+            assertTrue(n > 0, "stream ended mid-event");
+            event.append(new String(chunk, 0, n, StandardCharsets.UTF_8));
+        }
+        return event.toString();
+    }
+
+    private static JsonObject data(String event) {
+        assertTrue(event.startsWith("data: "), event);
+        return JsonParser.parseString(event.substring("data: ".length()).trim()).getAsJsonObject();
+    }
+}
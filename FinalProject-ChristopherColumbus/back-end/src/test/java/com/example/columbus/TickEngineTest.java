@@ -0,0 +1,78 @@
+package com.example.columbus;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class TickEngineTest {
+
+    // Test: manual engine runs a task once per period, and only when advanced
+    @Test
+    public void testManualClockRunsTasksWhenAdvanced() {
+        TickEngine engine = TickEngine.manual();
+        int[] runs = new int[1];
+        TickEngine.Task task = engine.schedule(() -> runs[0]++, 3000);
+        task.resume();
+
+        engine.advance(2999);
+        assertEquals(0, runs[0]);
+        engine.advance(1);
+        assertEquals(1, runs[0]);
+        engine.advance(3000 * 1000);
+        assertEquals(1001, runs[0]);
+        assertEquals(3000 * 1001, engine.getTimeMillis());
+    }
+
+    // Test: tasks due in the same tick run in the order they were started
+    @Test
+    public void testSameTickOrder() {
+        TickEngine engine = TickEngine.manual();
+        List<String> order = new ArrayList<>();
+        engine.schedule(() -> order.add("monsters"), 3000).resume();
+        engine.schedule(() -> order.add("patrol"), 3000).resume();
+
+        engine.advance(6000);
+        assertEquals(Arrays.asList("monsters", "patrol", "monsters", "patrol"), order);
+    }
+
+    // Test: paused and cancelled tasks stop running
+    @Test
+    public void testPauseAndCancel() {
+        TickEngine engine = TickEngine.manual();
+        int[] runs = new int[1];
+        TickEngine.Task task = engine.schedule(() -> runs[0]++, 100);
+        task.resume();
+        engine.advance(500);
+        task.pause();
+        engine.advance(500);
+        assertEquals(5, runs[0]);
+
+        task.resume();
+        task.cancel();
+        engine.advance(500);
+        assertEquals(5, runs[0]);
+    }
+
+    // Test: real time engine cannot be moved forward by hand
+    @Test
+    public void testSharedEngineIsNotManual() {
+        assertFalse(TickEngine.getShared().isManual());
+        assertThrows(IllegalStateException.class, () -> TickEngine.getShared().advance(100));
+    }
+
+    // Test: game ticking on manual clock moves its monsters without waiting
+    @Test
+    public void testGameOnManualClock() {
+        TickEngine engine = TickEngine.manual();
+        Game game = new Game(20, 20, engine);
+        List<Entity> monsters = game.getEntityManager().getMonsters();
+        long before = game.getBroadcaster().getVersion();
+
+        engine.advance(MovementController.MOVE_PERIOD_MILLIS * 100);
+        assertTrue(game.getBroadcaster().getVersion() > before); // Ticks published their moves
+        assertEquals(6, monsters.size());
+        game.shutdown();
+    }
+}
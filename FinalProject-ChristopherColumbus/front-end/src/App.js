@@ -5,9 +5,39 @@ import WinCelebration from './components/WinCelebration';
 import WelcomePage from './components/WelcomePage';
 import Modal from './components/Modal';
 import axios from 'axios';
+import sessionId from './session';
 import { useNavigate } from 'react-router-dom';
 import './styles/styles.css';
 
+/**
+ * Merges a streamed state update into current state.
+ * Full snapshots replace state; deltas carry only changed fields,
+ * with changed pirates/monsters keyed by their index.
+ */
+const applyUpdate = (prevState, update) => {
+    if (update.full || !prevState) {
+        return update;
+    }
+    const nextState = { ...prevState, version: update.version };
+    ['width', 'height', 'ccPosition', 'treasurePosition', 'collision', 'columbusInvisible'].forEach(key => {
+        if (key in update) nextState[key] = update[key];
+    });
+    ['pirates', 'seaMonsters'].forEach(key => {
+        if (update[key]) {
+            nextState[key] = [...prevState[key]];
+            Object.entries(update[key]).forEach(([index, entity]) => { nextState[key][index] = entity; });
+        }
+    });
+    return nextState;
+};
+
+// True if a pirate has reached CC (pirates react to a move after it is answered, so streamed state can show it)
+const pirateOnColumbus = (state) => {
+    const ccPosition = state.ccPosition;
+    return (state.pirates || []).some(pirate =>
+        ccPosition[0] === pirate.position[0] && ccPosition[1] === pirate.position[1]);
+};
+
 // Main app component for game
 const App = () => {
     const [notification, setNotification] = useState(''); // Message shown in modal dialogs
@@ -19,17 +49,15 @@ const App = () => {
     const [tempMessage, setTempMessage] = useState(''); // Temporary toast message
     const [currentStrategy, setCurrentStrategy] = useState("slow");
 
-    // Poll game state from back end every second when game is running
+    // Stream game state from back end while game is running (server pushes only on change)
     useEffect(() => {
         if (gameStarted) {
-            const intervalId = setInterval(() => {
-                axios.get('http://localhost:8080/api/state')
-                    .then(response => setGameState(response.data))
-                    .catch(error => console.error("Polling error:", error));
-            }, 1000); // Poll every second
-
-            // Stop polling when game stops
-            return () => clearInterval(intervalId);
+            const source = new EventSource(`http://localhost:8080/api/stream?sessionId=${sessionId}`);
+            source.onmessage = (event) => setGameState(prevState => applyUpdate(prevState, JSON.parse(event.data)));
+            source.onerror = (error) => console.error("Stream error:", error);
+
+            // Close stream when game stops
+            return () => source.close();
         }
     }, [gameStarted]);
 
@@ -50,6 +78,12 @@ const App = () => {
 
     // Detect collision sent by backend (even if not from movement)
     useEffect(() => {
+        if (gameState && !gameState.collision && !modalVisible && pirateOnColumbus(gameState)) {
+            setCollisionType("pirate");
+            setNotification("Hijacked! Your voyage ends in pirate chains.. Begin again!");
+            setModalVisible(true);
+            return;
+        }
         if (gameState && gameState.collision && !modalVisible) {
             setCollisionType(gameState.collision);
 
@@ -86,16 +120,7 @@ const App = () => {
         console.log('Updated state:', updatedState);
 
         // Check if ccPosition matches any pirate position (for collision)
-        const ccPosition = updatedState.ccPosition;
-        const pirates = updatedState.pirates;
-        let collisionDetected = false;
-
-        for (let pirate of pirates) {
-            if (ccPosition[0] === pirate.position[0] && ccPosition[1] === pirate.position[1]) {
-                collisionDetected = true;
-                break;
-            }
-        }
+        const collisionDetected = pirateOnColumbus(updatedState);
 
         // If collision happens, show hijack notification
         if (collisionDetected) {
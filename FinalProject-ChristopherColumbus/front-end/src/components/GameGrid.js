@@ -1,8 +1,10 @@
 import React, { useEffect, useState } from 'react';
 import '../styles/styles.css';
 
+const VIEW_SIZE = 20; // Cells shown in each direction; bigger worlds scroll with CC
+
 /**
- * Renders the game grid (20*20) and displays all entities
+ * Renders the game grid (20*20 view of the world) and displays all entities
  */
 const GameGrid = ({ gameState }) => {
 
@@ -23,6 +25,13 @@ const GameGrid = ({ gameState }) => {
             setPirates(Array.isArray(gameState.pirates) ? gameState.pirates.map(p => ({ position: p.position, type: p.type })) : []);
             setMonsters(Array.isArray(gameState.seaMonsters) ? gameState.seaMonsters.map(m => m.position) : []);
             setIslands(Array.isArray(gameState.islands) ? gameState.islands : []);
+
+            // Keep CC inside view when world is bigger than view
+            const rows = gameState.height || VIEW_SIZE;
+            const cols = gameState.width || VIEW_SIZE;
+            const cc = Array.isArray(gameState.ccPosition) ? gameState.ccPosition : [0, 0];
+            const clamp = (value, size) => Math.max(0, Math.min(value - VIEW_SIZE / 2, size - VIEW_SIZE));
+            setViewPort({ x: clamp(cc[1], cols), y: clamp(cc[0], rows) });
         }
     }, [gameState]);
 
@@ -72,14 +81,14 @@ const GameGrid = ({ gameState }) => {
     };
 
     /**
-     * Renders 20*20 grid. Each cell can have an entity or be empty.
+     * Renders 20*20 view of grid. Each cell can have an entity or be empty.
      */
     return (
         <div className="grid-container">
             <div className="grid">
-                {Array.from({ length: 20 }).map((_, rowIndex) => (
+                {Array.from({ length: VIEW_SIZE }).map((_, rowIndex) => (
                     <div key={rowIndex} className="row">
-                        {Array.from({ length: 20 }).map((_, cellIndex) => {
+                        {Array.from({ length: VIEW_SIZE }).map((_, cellIndex) => {
                             const absRow = viewPort.y + rowIndex;
                             const absCol = viewPort.x + cellIndex;
                             const isIsland = islands.some(i => i[0] === absRow && i[1] === absCol);
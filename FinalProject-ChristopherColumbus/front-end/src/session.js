@@ -0,0 +1,17 @@
+import axios from 'axios';
+
+// Returns this tab's session id, making one up the first time (sessionStorage is per tab)
+export const loadSessionId = (storage) => {
+  let id = storage.getItem('sessionId');
+  if (!id) {
+    id = Math.random().toString(36).slice(2) + Date.now().toString(36);
+    storage.setItem('sessionId', id);
+  }
+  return id;
+};
+
+// Each browser tab plays its own game session on the server
+const sessionId = loadSessionId(sessionStorage);
+axios.defaults.headers.common['X-Session-Id'] = sessionId;
+
+export default sessionId;
@@ -0,0 +1,27 @@
+import axios from 'axios';
+import sessionId, { loadSessionId } from './session';
+
+// Minimal in-memory stand-in for sessionStorage
+const memoryStorage = () => {
+  const items = {};
+  return {
+    getItem: (key) => (key in items ? items[key] : null),
+    setItem: (key, value) => { items[key] = String(value); },
+  };
+};
+
+test('makes up a session id once and keeps it for the tab', () => {
+  const storage = memoryStorage();
+  const first = loadSessionId(storage);
+  expect(first).toBeTruthy();
+  expect(loadSessionId(storage)).toBe(first);
+});
+
+test('different tabs get different session ids', () => {
+  expect(loadSessionId(memoryStorage())).not.toBe(loadSessionId(memoryStorage()));
+});
+
+test('every request carries the session id header', () => {
+  expect(sessionStorage.getItem('sessionId')).toBe(sessionId);
+  expect(axios.defaults.headers.common['X-Session-Id']).toBe(sessionId);
+});